@@ -0,0 +1,86 @@
+package ape.spider.benchmarks;
+
+import ape.spider.engine.Moves;
+import ape.spider.engine.SpiderEngine;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A reproducible board for every suit count and game phase. Boards are reached by playing a
+ * fixed seed with a simple bot, so columns hold the mix of hidden cards, runs and gaps that
+ * real games have, rather than hand-built layouts.
+ * <ul>
+ * <li>early: the opening deal after a few moves</li>
+ * <li>mid: about half of the stock dealt</li>
+ * <li>late: the stock used up</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+public class BoardState {
+    private static final long SEED = 20240601L;
+    private static final int EARLY_MOVES = 10;
+    private static final int MOVES_PER_DEAL = 200;
+
+    @Param({"1", "4", "6"})
+    public int suits;
+
+    @Param({"early", "mid", "late"})
+    public String phase;
+
+    public SpiderEngine engine;
+    /** A legal move from this position, for benchmarks that play it and take it back. */
+    public int move;
+
+    private final int[] moves = new int[Moves.MAX_LEGAL_MOVES];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new SpiderEngine();
+        engine.initializeGame(suits, SEED);
+
+        int deals = engine.getStockSize() / SpiderEngine.NUM_COLUMNS;
+        switch (phase) {
+            case "early": playMoves(EARLY_MOVES); break;
+            case "mid": playDeals(deals / 2); break;
+            case "late": playDeals(deals); break;
+            default: throw new IllegalArgumentException("Unknown phase: " + phase);
+        }
+
+        if (Moves.generateLegal(engine, moves) == 0) {
+            throw new IllegalStateException("No legal move on the " + phase + " board for " + suits + " suit(s)");
+        }
+        move = moves[0];
+    }
+
+    private void playDeals(int deals) {
+        for (int i = 0; i < deals; i++) {
+            playMoves(MOVES_PER_DEAL);
+            if (!engine.dealFromStock()) return; // A gap the bot could not fill; good enough
+        }
+        playMoves(MOVES_PER_DEAL);
+    }
+
+    // Double-tap play: the top run of each column to its auto-move target, skipping repeats
+    private void playMoves(int limit) {
+        for (int played = 0; played < limit; played++) {
+            boolean moved = false;
+            for (int col = 0; col < SpiderEngine.NUM_COLUMNS && !moved; col++) {
+                int runStart = engine.getMovableRunStart(col);
+                if (runStart == 0) continue; // Empty, or the whole column would move
+                int target = engine.findAutoMoveTarget(col, runStart);
+                if (target < 0) continue;
+
+                engine.moveCards(col, runStart, target);
+                if (engine.isRepeatedPosition()) {
+                    engine.undo();
+                } else {
+                    moved = true;
+                }
+            }
+            if (!moved) return;
+        }
+    }
+}
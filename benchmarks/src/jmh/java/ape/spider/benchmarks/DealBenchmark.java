@@ -0,0 +1,37 @@
+package ape.spider.benchmarks;
+
+import ape.spider.engine.DealGenerator;
+import ape.spider.engine.SpiderEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Shuffling and dealing a new game, a different seed every call: through the engine, and
+ * the shuffle alone as tooling uses it.
+ */
+@State(Scope.Thread)
+public class DealBenchmark {
+    @Param({"1", "4", "6"})
+    public int suits;
+
+    @Param({"1", "2"})
+    public int dealVersion;
+
+    private final SpiderEngine engine = new SpiderEngine();
+    private final byte[] deck = new byte[DealGenerator.MAX_DECK_SIZE];
+    private long seed;
+
+    @Benchmark
+    public int initializeGame() {
+        engine.initializeGame(suits, seed++, dealVersion);
+        return engine.getStockSize();
+    }
+
+    @Benchmark
+    public byte deal() {
+        DealGenerator.deal(suits, seed++, dealVersion, deck);
+        return deck[0];
+    }
+}
@@ -0,0 +1,63 @@
+package ape.spider.benchmarks;
+
+import ape.spider.engine.Moves;
+import ape.spider.engine.SpiderEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Engine calls made for every drag, drop and move, measured across a whole board at once
+ * so each result reads as "cost per board scan" the way the screen and bots use them.
+ */
+public class EngineBenchmark {
+    @Benchmark
+    public int getValidStackFromCard(BoardState state) {
+        SpiderEngine engine = state.engine;
+        int total = 0;
+        for (int col = 0; col < SpiderEngine.NUM_COLUMNS; col++) {
+            int length = engine.getColumnLength(col);
+            for (int row = 0; row < length; row++) {
+                total += engine.getValidStackFromCard(col, row);
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int canDropOnColumn(BoardState state) {
+        SpiderEngine engine = state.engine;
+        int drops = 0;
+        for (int col = 0; col < SpiderEngine.NUM_COLUMNS; col++) {
+            int runStart = engine.getMovableRunStart(col);
+            if (runStart >= engine.getColumnLength(col)) continue;
+            byte card = engine.getCard(col, runStart);
+            for (int target = 0; target < SpiderEngine.NUM_COLUMNS; target++) {
+                if (target != col && engine.canDropOnColumn(target, card)) drops++;
+            }
+        }
+        return drops;
+    }
+
+    /** The scan done after every move and deal; on these boards it never finds a suit to remove. */
+    @Benchmark
+    public int checkAndRemoveCompletedSuit(BoardState state) {
+        SpiderEngine engine = state.engine;
+        int removed = 0;
+        for (int col = 0; col < SpiderEngine.NUM_COLUMNS; col++) {
+            if (engine.checkAndRemoveCompletedSuit(col)) removed++;
+        }
+        return removed;
+    }
+
+    /**
+     * One move with its undo record, then the undo that restores it. Undo records are how
+     * the engine saves game state, so this covers both halves of the old save/restore pair.
+     */
+    @Benchmark
+    public long moveCardsAndUndo(BoardState state) {
+        SpiderEngine engine = state.engine;
+        Moves.apply(engine, state.move);
+        long hash = engine.getPositionHash();
+        engine.undo();
+        return hash;
+    }
+}
@@ -0,0 +1,76 @@
+package ape.spider.benchmarks;
+
+import ape.spider.TableauLayout;
+import ape.spider.engine.SpiderEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Card positions for all ten columns: laid out from scratch, as after a deal or resize, and
+ * read back from the cache, as on every frame where nothing changed. Plus hit testing, as a
+ * touch or drag does it.
+ */
+public class LayoutBenchmark {
+    // Same proportions as GameScreen's 900x700 virtual screen
+    private static final float CARD_HEIGHT = 125.4f;
+    private static final float TOP = 554f;
+
+    @State(Scope.Thread)
+    public static class Screen {
+        @Param({"false", "true"})
+        public boolean collapsed;
+
+        @Param({"524"})
+        public float availableHeight;
+
+        TableauLayout layout;
+
+        @Setup
+        public void setUp(BoardState state) {
+            layout = new TableauLayout(state.engine, CARD_HEIGHT);
+            layout.setBounds(TOP, availableHeight);
+            if (collapsed) {
+                for (int col = 0; col < SpiderEngine.NUM_COLUMNS; col++) {
+                    layout.toggleCollapsed(col);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public float layOutAll(BoardState state, Screen screen) {
+        screen.layout.invalidateAll();
+        return readAll(state.engine, screen.layout);
+    }
+
+    @Benchmark
+    public float cachedLayout(BoardState state, Screen screen) {
+        return readAll(state.engine, screen.layout);
+    }
+
+    // A touch every 10 units down every column, from the tableau top to the bottom margin
+    @Benchmark
+    public int hitTest(Screen screen) {
+        int rows = 0;
+        for (int col = 0; col < SpiderEngine.NUM_COLUMNS; col++) {
+            for (float y = TOP; y > TOP - screen.availableHeight; y -= 10f) {
+                rows += screen.layout.getCardAt(col, y);
+            }
+        }
+        return rows;
+    }
+
+    private static float readAll(SpiderEngine engine, TableauLayout layout) {
+        float sum = 0;
+        for (int col = 0; col < SpiderEngine.NUM_COLUMNS; col++) {
+            int length = engine.getColumnLength(col);
+            for (int row = 0; row < length; row++) {
+                sum += layout.getCardY(col, row);
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,62 @@
+package ape.spider.benchmarks;
+
+import ape.spider.engine.DealGenerator;
+import ape.spider.engine.Moves;
+import ape.spider.engine.Replay;
+import ape.spider.engine.SpiderEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Playing a recorded game back without rendering, scored per action. The game is a fixed
+ * seed played by a random bot that undoes now and then, {@link #ACTIONS} actions long.
+ */
+@State(Scope.Thread)
+public class ReplayBenchmark {
+    private static final long SEED = 20240601L;
+    private static final int ACTIONS = 500;
+
+    @Param({"1", "4"})
+    public int suits;
+
+    private final SpiderEngine engine = new SpiderEngine();
+    private final int[] moves = new int[Moves.MAX_LEGAL_MOVES];
+    private Replay replay;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(SEED);
+        engine.setCollapseRepetitions(true);
+        engine.initializeGame(suits, SEED, DealGenerator.LATEST);
+        Replay.Recorder recorder = new Replay.Recorder();
+        recorder.start(engine, SEED);
+        while (recorder.getActionCount() < ACTIONS) {
+            int count = Moves.generateLegal(engine, moves);
+            if (engine.canUndo() && (count == 0 || random.nextInt(8) == 0)) {
+                recorder.recordUndo(engine);
+                engine.undo();
+            } else if (count > 0) {
+                int move = moves[random.nextInt(count)];
+                recorder.recordMove(engine, move);
+                Moves.apply(engine, move);
+            } else {
+                throw new IllegalStateException("Bot game stuck after " + recorder.getActionCount() + " actions");
+            }
+        }
+        replay = recorder.toReplay();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACTIONS)
+    public long play() {
+        replay.play(engine);
+        return engine.getPositionHash();
+    }
+}
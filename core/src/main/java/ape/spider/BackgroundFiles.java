@@ -0,0 +1,82 @@
+package ape.spider;
+
+import com.badlogic.gdx.Gdx;
+
+import java.util.ArrayDeque;
+
+/**
+ * One background thread for file work outside the game in progress, such as reading the
+ * {@link GameHistory} and saving a replay, so the render thread never waits on storage.
+ * Tasks run one at a time in the order they were posted, so a task can rely on the writes
+ * posted before it having finished. A task that has something to show posts it back with
+ * {@link com.badlogic.gdx.Application#postRunnable}.
+ * <p>
+ * The game in progress has its own writer in {@link MoveJournal}, which batches its records;
+ * this is for files read once, written once or appended to a game at a time. Post from any
+ * thread; {@link #dispose} runs whatever is still queued, for up to a second, before the app
+ * exits.
+ */
+public final class BackgroundFiles {
+    private static final long CLOSE_TIMEOUT_MS = 1000;
+    private static final String TAG = "BackgroundFiles";
+
+    private final Object lock = new Object();
+    private final ArrayDeque<Runnable> tasks = new ArrayDeque<Runnable>();
+    private boolean closed;
+    private final Thread worker;
+
+    public BackgroundFiles() {
+        worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                workLoop();
+            }
+        }, "background-files");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /** Run task on the background thread, after everything posted before it. Ignored once disposed. */
+    public void post(Runnable task) {
+        synchronized (lock) {
+            if (closed) return;
+            tasks.add(task);
+            lock.notifyAll();
+        }
+    }
+
+    /** Finish the queued tasks and stop the thread. */
+    public void dispose() {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            worker.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void workLoop() {
+        while (true) {
+            Runnable task;
+            synchronized (lock) {
+                while (!closed && tasks.isEmpty()) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        closed = true;
+                    }
+                }
+                task = tasks.poll();
+                if (task == null) break;
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                Gdx.app.error(TAG, "File task failed", e);
+            }
+        }
+    }
+}
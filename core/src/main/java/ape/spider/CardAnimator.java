@@ -0,0 +1,307 @@
+package ape.spider;
+
+import com.badlogic.gdx.math.Interpolation;
+import ape.spider.engine.Cards;
+import ape.spider.engine.DealGenerator;
+import ape.spider.engine.SpiderEngine;
+
+/**
+ * Eases cards to their new places after moves, deals, completed suits and undos, instead of
+ * letting them jump there in one frame.
+ * <p>
+ * The engine still changes the board at once; only where the cards are drawn lags behind.
+ * The screen brackets each action with {@link #begin} and {@link #end}: begin takes where
+ * every card is drawn now, the engine reports through {@link SpiderEngine.Listener} where
+ * cards go, and end turns every card that changed place into a tween from where it was drawn
+ * to its slot. Slot tweens aim at the slot's live layout position, so they stay right if the
+ * column spacing changes on the way. Cards that leave the tableau, for the completed suits
+ * or the stock, become flights to that pile.
+ * <p>
+ * A new action while cards are still moving takes them from where they are drawn, so actions
+ * chain; {@link #finishAll} skips to the end. Tweens come from a pool allocated up front and
+ * sit in a fixed-size active list, so animating allocates nothing. Render thread only.
+ */
+public class CardAnimator implements SpiderEngine.Listener {
+    public static final float MOVE_DURATION = 0.18f;
+    public static final float FLIGHT_DURATION = 0.3f;
+    public static final float DEAL_STAGGER = 0.04f;  // Between the cards of a deal, left to right
+    public static final float SUIT_STAGGER = 0.025f;  // Between the cards of a completed suit, Ace first
+
+    // Every card could be on its way to a slot while a whole deck's worth flies to the piles
+    private static final int CAPACITY = DealGenerator.MAX_DECK_SIZE * 2;
+    private static final int MAX_ROWS = DealGenerator.MAX_DECK_SIZE;
+
+    /** One card on its way, either to a tableau slot or, for a flight, to a pile. */
+    static class Tween {
+        int col = -1, row;  // Destination slot; col is -1 for a flight
+        byte card;  // Face of a flight; a slot's face is read from the engine
+        float fromX, fromY;
+        float toX, toY;  // Flights only
+        float delay, duration, time;
+        boolean completesSuit;  // Last card of a completed suit to land
+
+        boolean isFlight() {
+            return col < 0;
+        }
+
+        boolean isStarted() {
+            return time >= delay;
+        }
+
+        /** Eased progress from 0 to 1. */
+        float progress() {
+            return Interpolation.pow3Out.apply(Math.min(1f, Math.max(0f, (time - delay) / duration)));
+        }
+
+        /** Where the card is drawn now, on its way to toX, toY (a slot's position, or the flight's own). */
+        float x(float toX) {
+            return fromX + (toX - fromX) * progress();
+        }
+
+        float y(float toY) {
+            return fromY + (toY - fromY) * progress();
+        }
+    }
+
+    private final SpiderEngine engine;
+    private final Tween[] pool = new Tween[CAPACITY];
+    private int poolSize;
+    private final Tween[] active = new Tween[CAPACITY];
+    private int activeCount;
+    private final Tween[][] slots = new Tween[SpiderEngine.NUM_COLUMNS][MAX_ROWS];
+    private int suitsInFlight;
+
+    // Where each card of the board being changed is drawn now, and what the action did to it
+    private final float[][] originX = new float[SpiderEngine.NUM_COLUMNS][MAX_ROWS];
+    private final float[][] originY = new float[SpiderEngine.NUM_COLUMNS][MAX_ROWS];
+    private final float[][] originDelay = new float[SpiderEngine.NUM_COLUMNS][MAX_ROWS];
+    private final boolean[][] moved = new boolean[SpiderEngine.NUM_COLUMNS][MAX_ROWS];
+    private boolean recording;
+    private float stockX, stockY;
+    private float suitsX, suitsY;
+    private int dealt, returned;
+
+    public CardAnimator(SpiderEngine engine) {
+        this.engine = engine;
+        for (int i = 0; i < CAPACITY; i++) {
+            pool[i] = new Tween();
+        }
+        poolSize = CAPACITY;
+    }
+
+    /**
+     * Start recording an action. Pass where the stock and the completed suits are drawn, then
+     * call {@link #setOrigin} for every tableau card before changing the engine.
+     */
+    public void begin(float stockX, float stockY, float suitsX, float suitsY) {
+        this.stockX = stockX;
+        this.stockY = stockY;
+        this.suitsX = suitsX;
+        this.suitsY = suitsY;
+        dealt = 0;
+        returned = 0;
+        recording = true;
+    }
+
+    public void setOrigin(int col, int row, float x, float y) {
+        originX[col][row] = x;
+        originY[col][row] = y;
+        originDelay[col][row] = 0f;
+        moved[col][row] = false;
+    }
+
+    /** Ease the cards from row to the end of col back into their slots, e.g. after a drop that went nowhere. */
+    public void returnToSlots(int col, int fromRow) {
+        for (int row = fromRow; row < engine.getColumnLength(col); row++) {
+            moved[col][row] = true;
+        }
+    }
+
+    /** Turn every card the engine moved since {@link #begin} into a tween to its slot. */
+    public void end() {
+        recording = false;
+        for (int col = 0; col < SpiderEngine.NUM_COLUMNS; col++) {
+            int length = engine.getColumnLength(col);
+            for (int row = 0; row < MAX_ROWS; row++) {
+                if (row >= length) {
+                    // Whatever moved out of these slots has its own tween by now
+                    if (slots[col][row] != null) {
+                        cancel(slots[col][row]);
+                    }
+                    moved[col][row] = false;
+                    continue;
+                }
+                if (!moved[col][row]) continue;
+                moved[col][row] = false;
+                if (slots[col][row] != null) {
+                    cancel(slots[col][row]);
+                }
+                Tween tween = obtain();
+                if (tween == null) continue; // Out of tweens: the card just appears in place
+                tween.col = col;
+                tween.row = row;
+                tween.fromX = originX[col][row];
+                tween.fromY = originY[col][row];
+                tween.delay = originDelay[col][row];
+                tween.duration = MOVE_DURATION;
+                slots[col][row] = tween;
+            }
+        }
+    }
+
+    @Override
+    public void cardsMoved(int fromCol, int fromRow, int toCol, int toRow, int count) {
+        if (!recording) return;
+        for (int i = 0; i < count; i++) {
+            originX[toCol][toRow + i] = originX[fromCol][fromRow + i];
+            originY[toCol][toRow + i] = originY[fromCol][fromRow + i];
+            originDelay[toCol][toRow + i] = originDelay[fromCol][fromRow + i];
+            moved[toCol][toRow + i] = true;
+        }
+    }
+
+    @Override
+    public void cardDealt(int col, int row) {
+        if (!recording) return;
+        originX[col][row] = stockX;
+        originY[col][row] = stockY;
+        originDelay[col][row] = dealt++ * DEAL_STAGGER;
+        moved[col][row] = true;
+    }
+
+    @Override
+    public void cardReturned(int col, int row) {
+        if (!recording) return;
+        fly(engine.getCard(col, row), col, row, stockX, stockY, returned++ * DEAL_STAGGER, false);
+    }
+
+    @Override
+    public void suitRemoved(int col, int row) {
+        if (!recording) return;
+        suitsInFlight++;
+        for (int i = Cards.RANKS_PER_SUIT - 1; i >= 0; i--) {
+            float delay = originDelay[col][row + i] + (Cards.RANKS_PER_SUIT - 1 - i) * SUIT_STAGGER;
+            fly(engine.getCard(col, row + i), col, row + i, suitsX, suitsY, delay, i == 0);
+        }
+    }
+
+    @Override
+    public void suitRestored(int col, int row) {
+        if (!recording) return;
+        for (int i = 0; i < Cards.RANKS_PER_SUIT; i++) {
+            originX[col][row + i] = suitsX;
+            originY[col][row + i] = suitsY;
+            originDelay[col][row + i] = i * SUIT_STAGGER;
+            moved[col][row + i] = true;
+        }
+    }
+
+    private void fly(byte card, int col, int row, float toX, float toY, float delay, boolean completesSuit) {
+        Tween tween = obtain();
+        if (tween == null) {
+            if (completesSuit) suitsInFlight--;
+            return;
+        }
+        tween.card = card;
+        tween.fromX = originX[col][row];
+        tween.fromY = originY[col][row];
+        tween.toX = toX;
+        tween.toY = toY;
+        tween.delay = delay;
+        tween.duration = FLIGHT_DURATION;
+        tween.completesSuit = completesSuit;
+    }
+
+    /** Advance every tween by delta seconds. Returns true while anything is still moving. */
+    public boolean update(float delta) {
+        int kept = 0;
+        for (int i = 0; i < activeCount; i++) {
+            Tween tween = active[i];
+            tween.time += delta;
+            if (tween.time >= tween.delay + tween.duration) {
+                release(tween);
+            } else {
+                active[kept++] = tween;
+            }
+        }
+        for (int i = kept; i < activeCount; i++) {
+            active[i] = null;
+        }
+        activeCount = kept;
+        return activeCount > 0;
+    }
+
+    public boolean isRunning() {
+        return activeCount > 0;
+    }
+
+    /** Put every card where it belongs now, e.g. when the player taps the felt. */
+    public void finishAll() {
+        for (int i = 0; i < activeCount; i++) {
+            release(active[i]);
+            active[i] = null;
+        }
+        activeCount = 0;
+    }
+
+    /** Stop animating the cards from row to the end of col, e.g. when the player picks them up. */
+    public void finish(int col, int fromRow) {
+        for (int row = fromRow; row < MAX_ROWS; row++) {
+            if (slots[col][row] != null) {
+                cancel(slots[col][row]);
+            }
+        }
+    }
+
+    /** The tween drawing the card at col, row, or null if it is drawn in its slot. */
+    Tween getSlot(int col, int row) {
+        return slots[col][row];
+    }
+
+    int getActiveCount() {
+        return activeCount;
+    }
+
+    /** Active tweens, oldest first, which is also the order to draw them in. */
+    Tween getActive(int index) {
+        return active[index];
+    }
+
+    /** Completed suits still on their way to the pile, and so not to be drawn there yet. */
+    public int getSuitsInFlight() {
+        return suitsInFlight;
+    }
+
+    private Tween obtain() {
+        if (poolSize == 0 || activeCount == CAPACITY) return null;
+        Tween tween = pool[--poolSize];
+        pool[poolSize] = null;
+        tween.col = -1;
+        tween.time = 0f;
+        tween.completesSuit = false;
+        active[activeCount++] = tween;
+        return tween;
+    }
+
+    // Take a tween out of the active list before it is done
+    private void cancel(Tween tween) {
+        for (int i = 0; i < activeCount; i++) {
+            if (active[i] == tween) {
+                System.arraycopy(active, i + 1, active, i, activeCount - i - 1);
+                active[--activeCount] = null;
+                break;
+            }
+        }
+        release(tween);
+    }
+
+    private void release(Tween tween) {
+        if (!tween.isFlight() && slots[tween.col][tween.row] == tween) {
+            slots[tween.col][tween.row] = null;
+        }
+        if (tween.completesSuit) {
+            suitsInFlight--;
+        }
+        pool[poolSize++] = tween;
+    }
+}
@@ -0,0 +1,235 @@
+package ape.spider;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import ape.spider.engine.Cards;
+
+import java.nio.IntBuffer;
+
+/**
+ * Every card image the table needs, painted once into a single texture so the whole board
+ * can be drawn by one {@link SpriteBatch} without switching textures.
+ * <p>
+ * The images are drawn with the same shapes and fonts the screen used to draw per frame,
+ * into a {@link FrameBuffer} at the screen's pixels per virtual unit, so they stay sharp.
+ * Build a new atlas when that density changes.
+ */
+public class CardAtlas implements Disposable {
+    // Highest "deals remaining" number painted on the stock; 6 suits have 10 deals
+    private static final int MAX_STOCK_DEALS = 10;
+    // Transparent pixels around each cell so linear filtering never bleeds in a neighbor
+    private static final int GUTTER = 1;
+    private static final int ATLAS_COLUMNS = 10;
+
+    private static final Color BACK_COLOR = new Color(0.15f, 0.15f, 0.5f, 1f);
+    private static final Color BACK_BORDER_COLOR = new Color(0.3f, 0.3f, 0.7f, 1f);
+    private static final Color BLOCKED_COLOR = new Color(0.3f, 0.3f, 0.35f, 1f);
+    private static final Color BLOCKED_BORDER_COLOR = new Color(0.4f, 0.4f, 0.45f, 1f);
+    private static final Color BLOCKED_TEXT_COLOR = new Color(0.7f, 0.7f, 0.7f, 1f);
+    // Empty slot colors as they appeared on screen, where shapes were drawn without blending
+    private static final Color PLACEHOLDER_COLOR = new Color(0.0f, 0.3f, 0.15f, 1f);
+    private static final Color PLACEHOLDER_BORDER_COLOR = new Color(0.3f, 0.5f, 0.3f, 1f);
+    private static final Color COMPLETED_COLOR = new Color(0.85f, 0.75f, 0.3f, 1f);
+    private static final Color COMPLETED_BORDER_COLOR = new Color(0.6f, 0.5f, 0.1f, 1f);
+    private static final Color COMPLETED_INNER_COLOR = new Color(0.95f, 0.85f, 0.4f, 1f);
+
+    private final float cardWidth;
+    private final float cardHeight;
+    private final float cornerRadius;
+    private final float density;
+
+    private final FrameBuffer frameBuffer;
+    private final TextureRegion[] faces = new TextureRegion[Cards.NUM_SUITS * Cards.RANKS_PER_SUIT];
+    private final TextureRegion[] stock = new TextureRegion[MAX_STOCK_DEALS + 1];
+    private TextureRegion back;
+    private TextureRegion placeholder;
+    private TextureRegion completed;
+    private TextureRegion stockBlocked;
+
+    /**
+     * Paint the atlas for cards of the given size in virtual units, at density pixels per
+     * unit (lowered if the texture would exceed the GPU's limit). Must run on the render thread.
+     */
+    public CardAtlas(float cardWidth, float cardHeight, float cornerRadius, float density) {
+        this.cardWidth = cardWidth;
+        this.cardHeight = cardHeight;
+        this.cornerRadius = cornerRadius;
+
+        int cellCount = faces.length + stock.length + 4;
+        int rows = (cellCount + ATLAS_COLUMNS - 1) / ATLAS_COLUMNS;
+        int maxSize = maxTextureSize();
+        float fitDensity = Math.min((maxSize / ATLAS_COLUMNS - GUTTER * 2) / cardWidth,
+            (maxSize / rows - GUTTER * 2) / cardHeight);
+        this.density = Math.max(1f, Math.min(density, fitDensity));
+
+        int cellWidth = (int) Math.ceil(cardWidth * this.density) + GUTTER * 2;
+        int cellHeight = (int) Math.ceil(cardHeight * this.density) + GUTTER * 2;
+        int width = cellWidth * ATLAS_COLUMNS;
+        int height = cellHeight * rows;
+
+        frameBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, width, height, false);
+        Texture texture = frameBuffer.getColorBufferTexture();
+        texture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+
+        ShapeRenderer shapeRenderer = new ShapeRenderer();
+        SpriteBatch batch = new SpriteBatch(64);
+        // Blend label colors as usual but keep the card's own alpha, so text doesn't punch holes
+        batch.setBlendFunctionSeparate(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA,
+            GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        BitmapFont font = new BitmapFont();
+        try {
+            // Paint in virtual units; the projection scales them to atlas pixels
+            Matrix4 projection = new Matrix4().setToOrtho2D(0, 0, width / this.density, height / this.density);
+            shapeRenderer.setProjectionMatrix(projection);
+            batch.setProjectionMatrix(projection);
+
+            frameBuffer.begin();
+            Gdx.gl.glClearColor(0f, 0f, 0f, 0f);
+            Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+            // Shapes go in unblended, just as the screen used to draw them
+            Gdx.gl.glDisable(GL20.GL_BLEND);
+
+            int cell = 0;
+            for (int suit = 0; suit < Cards.NUM_SUITS; suit++) {
+                for (int rank = 1; rank <= Cards.RANKS_PER_SUIT; rank++) {
+                    byte card = Cards.faceUp(Cards.make(suit, rank));
+                    float x = cellX(cell, cellWidth);
+                    float y = cellY(cell, cellHeight);
+                    RoundedShapes.fill(shapeRenderer, x, y, cardWidth, cardHeight, cornerRadius, Color.WHITE, Color.BLACK);
+                    GameScreen.Suit suitStyle = GameScreen.Suit.of(card);
+                    drawText(batch, font, 1.8f, suitStyle.getColor(),
+                        Cards.rankSymbol(rank) + suitStyle.getSymbol(), x + 8, y + cardHeight - 8);
+                    faces[index(card)] = region(texture, cell++, cellWidth, cellHeight);
+                }
+            }
+
+            paintBack(shapeRenderer, cellX(cell, cellWidth), cellY(cell, cellHeight), BACK_COLOR, BACK_BORDER_COLOR);
+            back = region(texture, cell++, cellWidth, cellHeight);
+
+            RoundedShapes.fill(shapeRenderer, cellX(cell, cellWidth), cellY(cell, cellHeight), cardWidth, cardHeight,
+                cornerRadius, PLACEHOLDER_COLOR, PLACEHOLDER_BORDER_COLOR);
+            placeholder = region(texture, cell++, cellWidth, cellHeight);
+
+            float x = cellX(cell, cellWidth);
+            float y = cellY(cell, cellHeight);
+            RoundedShapes.fill(shapeRenderer, x, y, cardWidth, cardHeight, cornerRadius,
+                COMPLETED_COLOR, COMPLETED_BORDER_COLOR);
+            float inset = 4f;
+            RoundedShapes.border(shapeRenderer, x + inset, y + inset, cardWidth - inset * 2, cardHeight - inset * 2,
+                cornerRadius - 2, COMPLETED_INNER_COLOR);
+            completed = region(texture, cell++, cellWidth, cellHeight);
+
+            // Stock can't be dealt while a column is empty
+            x = cellX(cell, cellWidth);
+            y = cellY(cell, cellHeight);
+            paintBack(shapeRenderer, x, y, BLOCKED_COLOR, BLOCKED_BORDER_COLOR);
+            drawText(batch, font, 1.2f, BLOCKED_TEXT_COLOR, "FILL", x + 14f, y + cardHeight - 25f);
+            drawText(batch, font, 1.2f, BLOCKED_TEXT_COLOR, "GAPS", x + 12f, y + cardHeight - 50f);
+            stockBlocked = region(texture, cell++, cellWidth, cellHeight);
+
+            // Deals remaining, or "*" for a partial last deal
+            for (int deals = 0; deals <= MAX_STOCK_DEALS; deals++) {
+                x = cellX(cell, cellWidth);
+                y = cellY(cell, cellHeight);
+                paintBack(shapeRenderer, x, y, BACK_COLOR, BACK_BORDER_COLOR);
+                drawText(batch, font, 3.0f, Color.WHITE, deals > 0 ? String.valueOf(deals) : "*",
+                    x + cardWidth / 2 - 15f, y + cardHeight / 2 + 20f);
+                stock[deals] = region(texture, cell++, cellWidth, cellHeight);
+            }
+
+            frameBuffer.end();
+        } finally {
+            font.dispose();
+            batch.dispose();
+            shapeRenderer.dispose();
+        }
+    }
+
+    /** Pixels per virtual unit the atlas was painted at. */
+    public float getDensity() {
+        return density;
+    }
+
+    /** True if an atlas painted for this density would come out noticeably sharper or smaller. */
+    public boolean needsRebuild(float screenDensity) {
+        return Math.abs(screenDensity - density) > density * 0.1f;
+    }
+
+    /** The image for a tableau card, face up or face down. */
+    public TextureRegion card(byte card) {
+        return Cards.isFaceUp(card) ? faces[index(card)] : back;
+    }
+
+    public TextureRegion placeholder() {
+        return placeholder;
+    }
+
+    public TextureRegion completedSuit() {
+        return completed;
+    }
+
+    /** The stock showing deals remaining (0 for a partial last deal), or blocked by an empty column. */
+    public TextureRegion stock(int dealsRemaining, boolean blocked) {
+        return blocked ? stockBlocked : stock[Math.min(dealsRemaining, MAX_STOCK_DEALS)];
+    }
+
+    @Override
+    public void dispose() {
+        frameBuffer.dispose();
+    }
+
+    private void paintBack(ShapeRenderer shapeRenderer, float x, float y, Color fill, Color innerBorder) {
+        RoundedShapes.fill(shapeRenderer, x, y, cardWidth, cardHeight, cornerRadius, fill, Color.BLACK);
+        // Add inner border for card back design
+        float inset = 4f;
+        RoundedShapes.border(shapeRenderer, x + inset, y + inset, cardWidth - inset * 2, cardHeight - inset * 2,
+            cornerRadius - 2, innerBorder);
+    }
+
+    private static void drawText(SpriteBatch batch, BitmapFont font, float scale, Color color, String text,
+                                 float x, float y) {
+        font.getData().setScale(scale);
+        font.setColor(color);
+        batch.begin();
+        font.draw(batch, text, x, y);
+        batch.end();
+    }
+
+    private static int index(byte card) {
+        return Cards.suit(card) * Cards.RANKS_PER_SUIT + Cards.rank(card) - 1;
+    }
+
+    // Cell origins in virtual units, where the card itself starts past the gutter
+    private float cellX(int cell, int cellWidth) {
+        return ((cell % ATLAS_COLUMNS) * cellWidth + GUTTER) / density;
+    }
+
+    private float cellY(int cell, int cellHeight) {
+        return ((cell / ATLAS_COLUMNS) * cellHeight + GUTTER) / density;
+    }
+
+    private TextureRegion region(Texture texture, int cell, int cellWidth, int cellHeight) {
+        int x = (cell % ATLAS_COLUMNS) * cellWidth + GUTTER;
+        int y = (cell / ATLAS_COLUMNS) * cellHeight + GUTTER;
+        TextureRegion region = new TextureRegion(texture, x, y, cellWidth - GUTTER * 2, cellHeight - GUTTER * 2);
+        region.flip(false, true); // Frame buffer contents are stored bottom-up
+        return region;
+    }
+
+    private static int maxTextureSize() {
+        IntBuffer buffer = BufferUtils.newIntBuffer(16);
+        Gdx.gl.glGetIntegerv(GL20.GL_MAX_TEXTURE_SIZE, buffer);
+        return buffer.get(0);
+    }
+}
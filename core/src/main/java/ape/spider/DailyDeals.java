@@ -0,0 +1,123 @@
+package ape.spider;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Calendar;
+
+/**
+ * Solver-verified Daily Grind seeds, stored in a packed file under assets.
+ * <p>
+ * Every date has a base seed (the date itself as a number). The curation tool keeps it
+ * unless the solver proves it unwinnable, and then solves candidate seeds derived from it and
+ * keeps the first winnable one. The file may cover fewer suit counts than the game offers;
+ * the others use the base seed.
+ * <p>
+ * File layout, big-endian: a 16-byte header (magic "SPDD", format version as a short,
+ * suit counts per day as a short, epoch day of the first date, number of days), then one
+ * 4-byte record per date and suit count, dates in order and suit counts 1..N within a date.
+ * A record holds the candidate index (unsigned short), a status byte and a difficulty byte.
+ * Because records sit at fixed offsets, a lookup reads the header and one record, nothing more.
+ */
+public final class DailyDeals {
+    public static final String FILE_NAME = "daily-deals.bin";
+    public static final int MAGIC = 0x53504444; // "SPDD"
+    public static final int FORMAT_VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+    public static final int RECORD_SIZE = 4;
+
+    /** The base seed is used: the solver couldn't settle it, or found nothing winnable to replace it. */
+    public static final int STATUS_UNVERIFIED = 0;
+    /** The candidate seed was solved. */
+    public static final int STATUS_WINNABLE = 1;
+
+    // Candidate seeds step past every base seed (yyyy * 10000 + month * 100 + day < 10^8)
+    public static final long CANDIDATE_STRIDE = 100_000_000L;
+
+    private DailyDeals() {
+    }
+
+    /** The date as a seed, as Daily Grind has always used it. Month is 0-based, as in Calendar. */
+    public static long baseSeed(int year, int month, int day) {
+        return year * 10000L + month * 100L + day;
+    }
+
+    /** Today's base seed in the device's time zone. */
+    public static long baseSeedToday() {
+        Calendar cal = Calendar.getInstance();
+        return baseSeed(cal.get(Calendar.YEAR), cal.get(Calendar.MONTH), cal.get(Calendar.DAY_OF_MONTH));
+    }
+
+    public static long candidateSeed(long baseSeed, int candidate) {
+        return baseSeed + candidate * CANDIDATE_STRIDE;
+    }
+
+    /** Days since 1970-01-01 for a date with a 0-based month, as in Calendar. */
+    public static long epochDay(int year, int month, int day) {
+        return LocalDate.of(year, month + 1, day).toEpochDay();
+    }
+
+    /** Byte offset of the record for a day (counted from the file's first date) and suit count. */
+    public static long recordOffset(long dayIndex, int numSuits, int suitCounts) {
+        return HEADER_SIZE + (dayIndex * suitCounts + (numSuits - 1)) * RECORD_SIZE;
+    }
+
+    /**
+     * The seed to deal for a Daily Grind base seed and suit count: the curated candidate when
+     * the packed file covers that date with a winnable deal, otherwise the base seed itself.
+     */
+    public static long seedFor(long baseSeed, int numSuits) {
+        FileHandle file = Gdx.files.internal(FILE_NAME);
+        if (!file.exists()) {
+            return baseSeed;
+        }
+
+        int year = (int) (baseSeed / 10000);
+        int month = (int) (baseSeed / 100 % 100);
+        int day = (int) (baseSeed % 100);
+
+        DataInputStream in = new DataInputStream(file.read(HEADER_SIZE + RECORD_SIZE));
+        try {
+            if (in.readInt() != MAGIC || in.readUnsignedShort() != FORMAT_VERSION) {
+                return baseSeed;
+            }
+            int suitCounts = in.readUnsignedShort();
+            long firstDay = in.readInt();
+            int dayCount = in.readInt();
+
+            long dayIndex = epochDay(year, month, day) - firstDay;
+            if (dayIndex < 0 || dayIndex >= dayCount || numSuits < 1 || numSuits > suitCounts) {
+                return baseSeed;
+            }
+
+            skipFully(in, recordOffset(dayIndex, numSuits, suitCounts) - HEADER_SIZE);
+            int candidate = in.readUnsignedShort();
+            int status = in.readUnsignedByte();
+            return status == STATUS_WINNABLE ? candidateSeed(baseSeed, candidate) : baseSeed;
+        } catch (IOException | GdxRuntimeException | DateTimeException e) {
+            // A damaged file or a base seed that isn't a date must not keep anyone from playing;
+            // fall back to the plain date seed
+            return baseSeed;
+        } finally {
+            try {
+                in.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static void skipFully(DataInputStream in, long bytes) throws IOException {
+        while (bytes > 0) {
+            long skipped = in.skip(bytes);
+            if (skipped <= 0) {
+                throw new IOException("Unexpected end of " + FILE_NAME);
+            }
+            bytes -= skipped;
+        }
+    }
+}
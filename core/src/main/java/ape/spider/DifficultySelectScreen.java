@@ -2,10 +2,6 @@ package ape.spider;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
-import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
@@ -43,10 +39,10 @@ public class DifficultySelectScreen implements Screen {
 
     @Override
     public void show() {
-        stage = new Stage(new ScreenViewport());
+        stage = new Stage(new ScreenViewport(), game.getBatch());
         Gdx.input.setInputProcessor(stage);
 
-        skin = createBasicSkin();
+        skin = game.getResources().acquireUiSkin();
 
         // Create root table with safe area padding
         Table rootTable = new Table();
@@ -85,11 +81,12 @@ public class DifficultySelectScreen implements Screen {
                 public void changed(ChangeEvent event, Actor actor) {
                     GameConfig config;
                     if (mode == GameConfig.GameMode.DAILY_GRIND) {
-                        config = GameConfig.dailyGrind(numSuits, seed);
+                        // Swap in the solver-verified deal for today, if one was curated
+                        config = GameConfig.dailyGrind(numSuits, DailyDeals.seedFor(seed, numSuits));
                     } else {
                         config = GameConfig.soloPractice(numSuits);
                     }
-                    game.setScreen(new GameScreen(game, config));
+                    game.startGame(config, null);
                     dispose();
                 }
             });
@@ -116,64 +113,6 @@ public class DifficultySelectScreen implements Screen {
         table.add(backButton).colspan(2).width(backWidth).height(backHeight).padTop(titlePadding * 1.5f);
     }
 
-    private Skin createBasicSkin() {
-        Skin skin = new Skin();
-
-        // Scale fonts based on screen density
-        float density = Gdx.graphics.getDensity();
-        float fontScale = Math.max(1.6f, density * 1.3f);  // Button text
-        float titleScale = Math.max(2.2f, density * 1.8f); // Title
-        float smallFontScale = Math.max(1.4f, density * 1.1f); // Back button
-
-        BitmapFont font = new BitmapFont();
-        font.getData().setScale(fontScale);
-        skin.add("default-font", font);
-
-        BitmapFont titleFont = new BitmapFont();
-        titleFont.getData().setScale(titleScale);
-        skin.add("title-font", titleFont);
-
-        BitmapFont smallFont = new BitmapFont();
-        smallFont.getData().setScale(smallFontScale);
-        skin.add("small-font", smallFont);
-
-        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        pixmap.setColor(Color.WHITE);
-        pixmap.fill();
-        skin.add("white", new Texture(pixmap));
-        pixmap.dispose();
-
-        // Primary button style (difficulty buttons)
-        TextButton.TextButtonStyle textButtonStyle = new TextButton.TextButtonStyle();
-        textButtonStyle.up = skin.newDrawable("white", new Color(0.25f, 0.45f, 0.35f, 1f));
-        textButtonStyle.down = skin.newDrawable("white", new Color(0.15f, 0.35f, 0.25f, 1f));
-        textButtonStyle.over = skin.newDrawable("white", new Color(0.3f, 0.5f, 0.4f, 1f));
-        textButtonStyle.font = font;
-        textButtonStyle.fontColor = Color.WHITE;
-        skin.add("default", textButtonStyle);
-
-        // Secondary button style (back button)
-        TextButton.TextButtonStyle secondaryStyle = new TextButton.TextButtonStyle();
-        secondaryStyle.up = skin.newDrawable("white", new Color(0.35f, 0.35f, 0.4f, 1f));
-        secondaryStyle.down = skin.newDrawable("white", new Color(0.25f, 0.25f, 0.3f, 1f));
-        secondaryStyle.over = skin.newDrawable("white", new Color(0.4f, 0.4f, 0.45f, 1f));
-        secondaryStyle.font = smallFont;
-        secondaryStyle.fontColor = Color.WHITE;
-        skin.add("secondary", secondaryStyle);
-
-        Label.LabelStyle titleStyle = new Label.LabelStyle();
-        titleStyle.font = titleFont;
-        titleStyle.fontColor = Color.WHITE;
-        skin.add("title", titleStyle);
-
-        Label.LabelStyle labelStyle = new Label.LabelStyle();
-        labelStyle.font = font;
-        labelStyle.fontColor = Color.WHITE;
-        skin.add("default", labelStyle);
-
-        return skin;
-    }
-
     @Override
     public void render(float delta) {
         ScreenUtils.clear(0.1f, 0.3f, 0.2f, 1f);
@@ -198,6 +137,6 @@ public class DifficultySelectScreen implements Screen {
     @Override
     public void dispose() {
         stage.dispose();
-        skin.dispose();
+        game.getResources().release(ResourceRegistry.UI_SKIN);
     }
 }
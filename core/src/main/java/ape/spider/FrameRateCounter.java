@@ -0,0 +1,50 @@
+package ape.spider;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Counts the frames a screen actually renders and reports them once per minute.
+ * With on-demand rendering this is the number that matters for battery life: close to
+ * zero while the player thinks, up to the display's refresh rate while dragging.
+ */
+public class FrameRateCounter {
+    private static final long WINDOW_NANOS = 60_000_000_000L;
+
+    private final String tag;
+    private long windowStart = -1;
+    private int frames;
+    private int lastFramesPerMinute = -1;
+
+    /** Reports are logged under tag. */
+    public FrameRateCounter(String tag) {
+        this.tag = tag;
+    }
+
+    /** Call once per rendered frame. */
+    public void frame() {
+        long now = TimeUtils.nanoTime();
+        if (windowStart < 0) {
+            windowStart = now;
+        }
+        // Close the window on the first frame after the minute; idle time still counts toward it
+        if (now - windowStart >= WINDOW_NANOS) {
+            lastFramesPerMinute = (int) (frames * WINDOW_NANOS / (now - windowStart));
+            Gdx.app.log(tag, lastFramesPerMinute + " frames/min");
+            windowStart = now;
+            frames = 0;
+        }
+        frames++;
+    }
+
+    /** Frames rendered in the last full minute, or -1 before the first minute has passed. */
+    public int getFramesPerMinute() {
+        return lastFramesPerMinute;
+    }
+
+    /** Start counting afresh, e.g. when the screen is shown again. */
+    public void reset() {
+        windowStart = -1;
+        frames = 0;
+    }
+}
@@ -1,5 +1,7 @@
 package ape.spider;
 
+import ape.spider.engine.DealGenerator;
+
 /**
  * Configuration for a Spider Solitaire game.
  */
@@ -12,11 +14,21 @@ public class GameConfig {
     private final GameMode mode;
     private final int numSuits;
     private final long seed;
+    private final int dealVersion;
 
+    /** A config dealt with the original {@link DealGenerator#V1} shuffle. */
     public GameConfig(GameMode mode, int numSuits, long seed) {
+        this(mode, numSuits, seed, DealGenerator.V1);
+    }
+
+    public GameConfig(GameMode mode, int numSuits, long seed, int dealVersion) {
+        if (!DealGenerator.isSupported(dealVersion)) {
+            throw new IllegalArgumentException("Unknown deal version: " + dealVersion);
+        }
         this.mode = mode;
         this.numSuits = Math.max(1, Math.min(6, numSuits)); // Clamp between 1-6
         this.seed = seed;
+        this.dealVersion = dealVersion;
     }
 
     public GameMode getMode() {
@@ -31,11 +43,17 @@ public class GameConfig {
         return seed;
     }
 
+    /** The {@link DealGenerator} version that turns the seed into a deal. */
+    public int getDealVersion() {
+        return dealVersion;
+    }
+
     // Factory methods for convenience
     public static GameConfig soloPractice(int numSuits) {
-        return new GameConfig(GameMode.SOLO_PRACTICE, numSuits, System.currentTimeMillis());
+        return new GameConfig(GameMode.SOLO_PRACTICE, numSuits, System.currentTimeMillis(), DealGenerator.LATEST);
     }
 
+    // Daily seeds stay on V1: the curated deals in daily-deals.bin were solved as V1 deals
     public static GameConfig dailyGrind(int numSuits, long dailySeed) {
         return new GameConfig(GameMode.DAILY_GRIND, numSuits, dailySeed);
     }
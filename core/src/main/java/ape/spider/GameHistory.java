@@ -0,0 +1,431 @@
+package ape.spider;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Every finished game, appended to a file in local storage, and indexed by deal (mode, suit
+ * count, deal version and seed) so the result screen can show the personal best and earlier
+ * attempts on any deal in constant time.
+ * <p>
+ * File layout, big-endian: an 8-byte header (magic "SPGH", format version as a short, a
+ * reserved short), then one 32-byte record per game in the order played: mode, suit count,
+ * outcome, completed suits and deal version as bytes, three reserved bytes, the seed, score,
+ * moves, undos and time played. Records are never rewritten, so adding a game is one small
+ * append; a record torn by a crash is dropped the next time the file is read.
+ * <p>
+ * In memory the records are kept as parallel primitive arrays, each linked to the previous
+ * attempt on its deal, and an open-addressing table maps each deal to its latest and best
+ * attempts. The file is read and appended to on the {@link BackgroundFiles} thread, the read
+ * posted at launch so it is long done by the end of the first game; reading tens of thousands
+ * of games is one bulk read and a single pass. {@link #add} never waits for it, and the
+ * queries wait only if it is still running. Call everything from the render thread.
+ */
+public final class GameHistory {
+    public static final String FILE_NAME = "game-history.bin";
+    public static final int MAGIC = 0x53504748; // "SPGH"
+    public static final int FORMAT_VERSION = 1;
+    public static final int HEADER_SIZE = 8;
+    public static final int RECORD_SIZE = 8 + 8 + 3 * 4 + 4;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final String TAG = "GameHistory";
+
+    private final BackgroundFiles files;
+    private boolean loaded;  // Guarded by this; until then added games wait in early
+    private final List<GameResult> early = new ArrayList<GameResult>();
+    private boolean writable = true;  // Files thread only: false if the file is there but isn't ours to append to
+
+    // One entry per game, in the order played
+    private int size;
+    private byte[] modes = new byte[INITIAL_CAPACITY];
+    private byte[] suits = new byte[INITIAL_CAPACITY];
+    private byte[] dealVersions = new byte[INITIAL_CAPACITY];
+    private byte[] outcomes = new byte[INITIAL_CAPACITY];
+    private byte[] completedSuits = new byte[INITIAL_CAPACITY];
+    private long[] seeds = new long[INITIAL_CAPACITY];
+    private int[] scores = new int[INITIAL_CAPACITY];
+    private int[] moves = new int[INITIAL_CAPACITY];
+    private int[] undos = new int[INITIAL_CAPACITY];
+    private float[] times = new float[INITIAL_CAPACITY];
+    private int[] previousAttempt = new int[INITIAL_CAPACITY];  // Same deal, or -1
+
+    // One entry per deal; table holds deal + 1 at the deal's hash slot, 0 when free
+    private int dealCount;
+    private int[] table = new int[INITIAL_CAPACITY * 2];
+    private int[] dealLatest = new int[INITIAL_CAPACITY];
+    private int[] dealBest = new int[INITIAL_CAPACITY];
+    private int[] dealAttempts = new int[INITIAL_CAPACITY];
+
+    /** Start reading the history on files' thread, which also appends every game added. */
+    public GameHistory(BackgroundFiles files) {
+        this.files = files;
+        files.post(new Runnable() {
+            @Override
+            public void run() {
+                load();
+            }
+        });
+    }
+
+    // A history to read the file into, off to the side until it is complete
+    private GameHistory() {
+        files = null;
+    }
+
+    /** Record a finished game, in memory now and on disk in the background. */
+    public void add(GameResult result) {
+        synchronized (this) {
+            if (loaded) {
+                append(result);
+            } else {
+                early.add(result);
+            }
+        }
+
+        final byte[] record = new byte[RECORD_SIZE];
+        writeRecord(ByteBuffer.wrap(record), result);
+        files.post(new Runnable() {
+            @Override
+            public void run() {
+                write(record);
+            }
+        });
+    }
+
+    /** Games played on config's deal, including any just added. */
+    public synchronized int getAttemptCount(GameConfig config) {
+        awaitLoad();
+        int deal = findDeal(config);
+        return deal >= 0 ? dealAttempts[deal] : 0;
+    }
+
+    /**
+     * An attempt on config's deal, counting back from the latest: 0 is the latest, 1 the one
+     * before. Null if there aren't that many.
+     */
+    public synchronized GameResult getAttempt(GameConfig config, int back) {
+        awaitLoad();
+        int deal = findDeal(config);
+        if (deal < 0) return null;
+        int index = dealLatest[deal];
+        for (int i = 0; i < back && index >= 0; i++) {
+            index = previousAttempt[index];
+        }
+        return index >= 0 ? toResult(config, index) : null;
+    }
+
+    /** The best attempt on config's deal (see {@link #isBetter}), or null if it was never played. */
+    public synchronized GameResult getBest(GameConfig config) {
+        awaitLoad();
+        int deal = findDeal(config);
+        return deal >= 0 ? toResult(config, dealBest[deal]) : null;
+    }
+
+    /** True if the latest attempt on config's deal is also its best. */
+    public synchronized boolean isLatestBest(GameConfig config) {
+        awaitLoad();
+        int deal = findDeal(config);
+        return deal >= 0 && dealBest[deal] == dealLatest[deal];
+    }
+
+    /** Games recorded, on every deal. */
+    public synchronized int size() {
+        awaitLoad();
+        return size;
+    }
+
+    /**
+     * Whether a beats b: a win beats a loss, then more completed suits, then a higher score,
+     * then a shorter time. Ties go to b, the earlier attempt.
+     */
+    public static boolean isBetter(GameResult a, GameResult b) {
+        return compare(a.getOutcome().ordinal(), a.getCompletedSuits(), a.getScore(), a.getTimeSeconds(),
+            b.getOutcome().ordinal(), b.getCompletedSuits(), b.getScore(), b.getTimeSeconds()) > 0;
+    }
+
+    // Positive if the first attempt is better; a lower outcome ordinal is better (WON first)
+    private static int compare(int outcomeA, int suitsA, int scoreA, float timeA,
+                               int outcomeB, int suitsB, int scoreB, float timeB) {
+        if (outcomeA != outcomeB) return outcomeB - outcomeA;
+        if (suitsA != suitsB) return suitsA - suitsB;
+        if (scoreA != scoreB) return scoreA - scoreB;
+        return Float.compare(timeB, timeA);
+    }
+
+    private GameResult toResult(GameConfig config, int index) {
+        return new GameResult(config, GameResult.Outcome.values()[outcomes[index]], scores[index], moves[index],
+            undos[index], times[index], completedSuits[index]);
+    }
+
+    // Block until the file has been read; only ever waits just after launch
+    private void awaitLoad() {
+        boolean interrupted = false;
+        while (!loaded) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Files thread: read the file into a history of its own, then take it over with the games added meanwhile
+    private void load() {
+        GameHistory parsed = new GameHistory();
+        try {
+            writable = parsed.read();
+        } finally {
+            synchronized (this) {
+                adopt(parsed);
+                for (int i = 0; i < early.size(); i++) {
+                    append(early.get(i));
+                }
+                early.clear();
+                loaded = true;
+                notifyAll();
+            }
+        }
+    }
+
+    // Parse the file into this empty history; false if it is there but isn't ours to append to
+    private boolean read() {
+        if (!Gdx.files.isLocalStorageAvailable()) return true;
+        FileHandle file = Gdx.files.local(FILE_NAME);
+        if (!file.exists()) return true;
+
+        long start = TimeUtils.nanoTime();
+        try {
+            byte[] bytes = file.readBytes();
+            ByteBuffer in = ByteBuffer.wrap(bytes);
+            if (bytes.length < HEADER_SIZE || in.getInt() != MAGIC || in.getShort() != FORMAT_VERSION) {
+                Gdx.app.error(TAG, "Ignoring a damaged or outdated " + FILE_NAME);
+                return false; // Left alone: a newer version's history isn't ours to overwrite
+            }
+            in.getShort();
+            int count = (bytes.length - HEADER_SIZE) / RECORD_SIZE;
+            reserve(count + INITIAL_CAPACITY);
+            in.position(HEADER_SIZE);
+            for (int i = 0; i < count; i++) {
+                readRecord(in);
+            }
+
+            // Whole records only, so the next append lines up
+            int length = HEADER_SIZE + count * RECORD_SIZE;
+            if (length != bytes.length) {
+                Gdx.app.error(TAG, "Dropping a torn record at the end of " + FILE_NAME);
+                file.writeBytes(bytes, 0, length, false);
+            }
+        } catch (RuntimeException e) {
+            Gdx.app.error(TAG, "Couldn't read " + FILE_NAME, e);
+            return false;
+        }
+        Gdx.app.debug(TAG, "Read " + size + " games on " + dealCount + " deals in "
+            + TimeUtils.timeSinceNanos(start) / 1000 + " us");
+        return true;
+    }
+
+    private void adopt(GameHistory parsed) {
+        size = parsed.size;
+        modes = parsed.modes;
+        suits = parsed.suits;
+        dealVersions = parsed.dealVersions;
+        outcomes = parsed.outcomes;
+        completedSuits = parsed.completedSuits;
+        seeds = parsed.seeds;
+        scores = parsed.scores;
+        moves = parsed.moves;
+        undos = parsed.undos;
+        times = parsed.times;
+        previousAttempt = parsed.previousAttempt;
+        dealCount = parsed.dealCount;
+        table = parsed.table;
+        dealLatest = parsed.dealLatest;
+        dealBest = parsed.dealBest;
+        dealAttempts = parsed.dealAttempts;
+    }
+
+    // Files thread: append a record, starting the file if there isn't one
+    private void write(byte[] record) {
+        if (!writable || !Gdx.files.isLocalStorageAvailable()) return;
+        FileHandle file = Gdx.files.local(FILE_NAME);
+        try {
+            if (!file.exists()) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC);
+                header.putShort((short) FORMAT_VERSION);
+                header.putShort((short) 0);
+                file.writeBytes(header.array(), false);
+            }
+            file.writeBytes(record, true);
+        } catch (GdxRuntimeException e) {
+            Gdx.app.error(TAG, "Couldn't record the game", e);
+        }
+    }
+
+    private void readRecord(ByteBuffer in) {
+        int mode = in.get() & 0xFF;
+        int numSuits = in.get() & 0xFF;
+        int outcome = in.get() & 0xFF;
+        int completed = in.get() & 0xFF;
+        int dealVersion = in.get() & 0xFF;
+        in.position(in.position() + 3);
+        long seed = in.getLong();
+        int score = in.getInt();
+        int moveCount = in.getInt();
+        int undoCount = in.getInt();
+        float time = in.getFloat();
+        if (mode >= GameConfig.GameMode.values().length || outcome >= GameResult.Outcome.values().length) {
+            return; // A mode or outcome this version doesn't know; nothing to compare it with
+        }
+        append(mode, numSuits, dealVersion, outcome, completed, seed, score, moveCount, undoCount, time);
+    }
+
+    private static void writeRecord(ByteBuffer out, GameResult result) {
+        GameConfig config = result.getConfig();
+        out.put((byte) config.getMode().ordinal());
+        out.put((byte) config.getNumSuits());
+        out.put((byte) result.getOutcome().ordinal());
+        out.put((byte) result.getCompletedSuits());
+        out.put((byte) config.getDealVersion());
+        out.put((byte) 0);
+        out.put((byte) 0);
+        out.put((byte) 0);
+        out.putLong(config.getSeed());
+        out.putInt(result.getScore());
+        out.putInt(result.getMoves());
+        out.putInt(result.getUndos());
+        out.putFloat(result.getTimeSeconds());
+    }
+
+    private void append(GameResult result) {
+        GameConfig config = result.getConfig();
+        append(config.getMode().ordinal(), config.getNumSuits(), config.getDealVersion(), result.getOutcome().ordinal(),
+            result.getCompletedSuits(), config.getSeed(), result.getScore(), result.getMoves(), result.getUndos(),
+            result.getTimeSeconds());
+    }
+
+    private void append(int mode, int numSuits, int dealVersion, int outcome, int completed, long seed, int score,
+                        int moveCount, int undoCount, float time) {
+        if (size == modes.length) {
+            reserve(size * 2);
+        }
+        int index = size++;
+        modes[index] = (byte) mode;
+        suits[index] = (byte) numSuits;
+        dealVersions[index] = (byte) dealVersion;
+        outcomes[index] = (byte) outcome;
+        completedSuits[index] = (byte) completed;
+        seeds[index] = seed;
+        scores[index] = score;
+        moves[index] = moveCount;
+        undos[index] = undoCount;
+        times[index] = time;
+
+        int deal = findDeal(mode, numSuits, dealVersion, seed);
+        if (deal < 0) {
+            previousAttempt[index] = -1;
+            addDeal(index);
+            return;
+        }
+        previousAttempt[index] = dealLatest[deal];
+        dealLatest[deal] = index;
+        dealAttempts[deal]++;
+        int best = dealBest[deal];
+        if (compare(outcome, completed, score, time, outcomes[best], completedSuits[best], scores[best], times[best]) > 0) {
+            dealBest[deal] = index;
+        }
+    }
+
+    private int findDeal(GameConfig config) {
+        return findDeal(config.getMode().ordinal(), config.getNumSuits(), config.getDealVersion(), config.getSeed());
+    }
+
+    // The deal's entry, or -1 if it has never been played
+    private int findDeal(int mode, int numSuits, int dealVersion, long seed) {
+        int mask = table.length - 1;
+        for (int slot = hash(mode, numSuits, dealVersion, seed) & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            if (entry == 0) return -1;
+            int index = dealLatest[entry - 1];
+            if (seeds[index] == seed && modes[index] == mode && suits[index] == numSuits
+                    && dealVersions[index] == dealVersion) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private void addDeal(int index) {
+        if ((dealCount + 1) * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        if (dealCount == dealLatest.length) {
+            int capacity = dealCount * 2;
+            dealLatest = Arrays.copyOf(dealLatest, capacity);
+            dealBest = Arrays.copyOf(dealBest, capacity);
+            dealAttempts = Arrays.copyOf(dealAttempts, capacity);
+        }
+        int deal = dealCount++;
+        dealLatest[deal] = index;
+        dealBest[deal] = index;
+        dealAttempts[deal] = 1;
+        insert(deal, index);
+    }
+
+    private void insert(int deal, int index) {
+        int mask = table.length - 1;
+        int slot = hash(modes[index], suits[index], dealVersions[index], seeds[index]) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = deal + 1;
+    }
+
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        for (int deal = 0; deal < dealCount; deal++) {
+            insert(deal, dealLatest[deal]);
+        }
+    }
+
+    // Room for capacity games, and a table sized for as many deals
+    private void reserve(int capacity) {
+        if (capacity <= modes.length) return;
+        modes = Arrays.copyOf(modes, capacity);
+        suits = Arrays.copyOf(suits, capacity);
+        dealVersions = Arrays.copyOf(dealVersions, capacity);
+        outcomes = Arrays.copyOf(outcomes, capacity);
+        completedSuits = Arrays.copyOf(completedSuits, capacity);
+        seeds = Arrays.copyOf(seeds, capacity);
+        scores = Arrays.copyOf(scores, capacity);
+        moves = Arrays.copyOf(moves, capacity);
+        undos = Arrays.copyOf(undos, capacity);
+        times = Arrays.copyOf(times, capacity);
+        previousAttempt = Arrays.copyOf(previousAttempt, capacity);
+        if (dealLatest.length < capacity) {
+            dealLatest = Arrays.copyOf(dealLatest, capacity);
+            dealBest = Arrays.copyOf(dealBest, capacity);
+            dealAttempts = Arrays.copyOf(dealAttempts, capacity);
+            rehash(Integer.highestOneBit(capacity - 1) << 2);
+        }
+    }
+
+    // Seeds are dates and clock times, so mix every bit into the slot
+    private static int hash(int mode, int numSuits, int dealVersion, long seed) {
+        long h = (seed ^ ((long) mode << 59) ^ ((long) numSuits << 52) ^ ((long) dealVersion << 44))
+            * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 29;
+        h *= 0xBF58476D1CE4E5B9L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
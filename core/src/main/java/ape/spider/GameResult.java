@@ -1,5 +1,7 @@
 package ape.spider;
 
+import ape.spider.engine.Replay;
+
 /**
  * Result of a completed Spider Solitaire game.
  */
@@ -16,8 +18,14 @@ public class GameResult {
     private final int undos;
     private final float timeSeconds;
     private final int completedSuits;
+    private final Replay replay;  // Null unless the whole game was recorded
 
     public GameResult(GameConfig config, Outcome outcome, int score, int moves, int undos, float timeSeconds, int completedSuits) {
+        this(config, outcome, score, moves, undos, timeSeconds, completedSuits, null);
+    }
+
+    public GameResult(GameConfig config, Outcome outcome, int score, int moves, int undos, float timeSeconds,
+                      int completedSuits, Replay replay) {
         this.config = config;
         this.outcome = outcome;
         this.score = score;
@@ -25,6 +33,7 @@ public class GameResult {
         this.undos = undos;
         this.timeSeconds = timeSeconds;
         this.completedSuits = completedSuits;
+        this.replay = replay;
     }
 
     public GameConfig getConfig() {
@@ -55,6 +64,11 @@ public class GameResult {
         return completedSuits;
     }
 
+    /** Every action of the game, to save and play back, or null if it wasn't recorded. */
+    public Replay getReplay() {
+        return replay;
+    }
+
     public String getFormattedTime() {
         int totalSeconds = (int) timeSeconds;
         int minutes = totalSeconds / 60;
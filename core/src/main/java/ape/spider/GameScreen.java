@@ -5,33 +5,36 @@ import com.badlogic.gdx.Input;
 import com.badlogic.gdx.InputProcessor;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Group;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Dialog;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.utils.ScreenUtils;
+import com.badlogic.gdx.utils.Timer;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
-
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Random;
+import ape.spider.engine.Cards;
+import ape.spider.engine.Moves;
+import ape.spider.engine.Replay;
+import ape.spider.engine.SpiderEngine;
+import ape.spider.solver.HintResult;
 
 public class GameScreen implements Screen, InputProcessor {
     private final Main game;
-    private final GameConfig config;
+    private GameConfig config;
     private ShapeRenderer shapeRenderer;
     private BitmapFont font;
-    private BitmapFont cardFont;
+    private CardAtlas cardAtlas;  // Painted in resize() once the screen density is known
 
     // Virtual screen size for consistent layout
     private static final float VIRTUAL_WIDTH = 900f;
@@ -45,15 +48,23 @@ public class GameScreen implements Screen, InputProcessor {
     private static final float EDGE_MARGIN = 2f;
     private static final float CARD_WIDTH = (VIRTUAL_WIDTH - EDGE_MARGIN * 2 - CARD_GAP * 9) / 10f;  // ~87.8
     private static final float CARD_HEIGHT = CARD_WIDTH * (100f / 70f);  // Maintain aspect ratio ~125.4
-    private static final float CARD_SPACING_REVEALED = 30f;  // Standard spacing for revealed cards (scaled up)
-    private static final float CARD_SPACING_HIDDEN_EXPANDED = 10f;  // Hidden cards when expanded
-    private static final float CARD_SPACING_HIDDEN_COLLAPSED = 4f; // Hidden cards when collapsed (single card height)
-    private static final float MIN_REVEALED_SPACING = 15f;  // Minimum spacing when compressed
     private static final float TABLEAU_SPACING = CARD_WIDTH + CARD_GAP;  // Card width + 2px gap
     private static final float CARD_CORNER_RADIUS = 10f;  // Slightly larger for bigger cards
     private static final float BASE_TOP_MARGIN = 10f;  // Base space from top of screen
     private static final float BASE_BOTTOM_MARGIN = 30f;  // Base space for HUD at bottom
 
+    // Steady frames and drags allocate nothing: colors are constants, and matrices, hit
+    // results and HUD text live in fields that are refilled in place
+    private static final Color OVERLAY_COLOR = new Color(0.2f, 0.2f, 0.2f, 0.85f); // Gray transparent overlay
+    private static final Color HUD_BACKGROUND_COLOR = new Color(0.0f, 0.35f, 0.18f, 1f); // Off-green
+    private static final Color HUD_TEXT_COLOR = new Color(0.8f, 0.9f, 0.8f, 1f); // Light greenish white
+    private static final Color BUTTON_COLOR = new Color(0.2f, 0.2f, 0.3f, 0.8f);
+    private static final Color BUTTON_BORDER_COLOR = new Color(0.4f, 0.4f, 0.5f, 1f);
+    private static final Color DISABLED_ICON_COLOR = new Color(0.5f, 0.5f, 0.5f, 0.5f);
+    private final Matrix4 screenMatrix = new Matrix4();
+    private final Vector2 worldCoords = new Vector2();
+    private int hitCol, hitRow;  // Set by getCardAtPosition
+
     // Dynamic safe area margins (calculated at runtime)
     private float safeTopMargin;
     private float safeBottomMargin;
@@ -66,40 +77,67 @@ public class GameScreen implements Screen, InputProcessor {
     private float stockX;
     private float stockY;
 
-    // Collapsed state per tableau (for unrevealed cards)
-    private boolean[] tableauCollapsed;
+    // Card positions per tableau, including each column's collapsed state (for unrevealed cards)
+    private TableauLayout layout;
 
-    // Game state
-    private List<List<Card>> tableaus;
-    private List<Card> stock;
-    private List<List<Card>> foundations;
+    // Game state - rules, scoring and undo history live in the headless engine
+    private SpiderEngine engine;
     private long randomSeed;
 
-    // Scoring - Based on competitive Spider Solitaire rules
-    // Starting score of 500, -1 per move, -10 per undo, +100 per completed suit
-    private static final int STARTING_SCORE = 500;
-    private static final int POINTS_PER_MOVE = -1;
-    private static final int POINTS_PER_UNDO = -10;
-    private static final int POINTS_PER_COMPLETED_SUIT = 100;
-
-    private int score;
-    private int completedSuits;
-    private int requiredSuitsToWin;
-    private int totalMoves;
-    private int totalUndos;
-
-    // Undo system - stores complete game state history
-    private List<GameState> moveHistory;
-
     // Timer
     private float elapsedGameTime;
 
+    // Moves, deals, completed suits and undos glide into place; the engine has already moved on
+    private static final float MAX_ANIMATION_STEP = 1f / 30f;  // The first frame after idling has a long delta
+    private CardAnimator animator;
+    private float suitsPileX;  // Where completed suits fly to, the middle of their pile
+    private boolean winPending;  // Won, but the last suit is still on its way to the pile
+
+    // HUD text, laid out again only when the value shown changes
+    private final StringBuilder hudText = new StringBuilder(64);
+    private final GlyphLayout seedText = new GlyphLayout();
+    private final GlyphLayout timeText = new GlyphLayout();
+    private final GlyphLayout scoreText = new GlyphLayout();
+    private int shownSeconds;
+    private boolean shownNoMoves;
+    private int shownScore, shownMoves, shownUndos;
+
+    // Frames are rendered on demand: on input, while dragging or animating, and once a second
+    // so the HUD clock keeps up. An idle board costs about one frame per second.
+    private final Timer.Task hudTick = new Timer.Task() {
+        @Override
+        public void run() {
+            Gdx.graphics.requestRendering();
+        }
+    };
+    private final FrameRateCounter frameCounter = new FrameRateCounter("GameScreen");
+
+    // Debug readout of frame time and GL work: F3 or a three-finger tap shows it, F4 or a
+    // four-finger tap writes the recent frame times to perf/ in local storage
+    private PerfOverlay perfOverlay;
+    private int shapeFlushes;  // ShapeRenderer flushes this frame
+
     // Undo button position - sized for touch targets
     private static final float BASE_ICON_SIZE = 40f;  // Base size, scaled for mobile
     private float iconSize;  // Actual icon size after scaling
     private float undoIconX;
     private float undoIconY;
 
+    // Hint button sits to the right of undo
+    private float hintIconX;
+    private float hintIconY;
+
+    // Hints - searched in the background, speculatively once the player pauses
+    private static final long HINT_BUDGET_MS = 250;
+    private static final float HINT_IDLE_DELAY = 1.5f;  // Seconds without input before searching
+    private static final float HINT_DISPLAY_TIME = 3f;  // Seconds the suggested move stays highlighted
+    private static final Color HINT_COLOR = new Color(1f, 0.85f, 0.1f, 1f);
+    private HintService hintService;
+    private HintResult hint;  // Ranking for the current board, null until a search finishes
+    private boolean hintWanted;  // Player asked for a hint before the search finished
+    private float idleTime;
+    private float hintDisplayTime;
+
     // Undo debounce to prevent double-firing
     private static final long UNDO_DEBOUNCE_MS = 300;
     private long lastUndoTime;
@@ -108,9 +146,14 @@ public class GameScreen implements Screen, InputProcessor {
     private boolean isDragging;
     private int dragSourceCol;
     private int dragSourceCardIndex;
-    private List<Card> draggedCards;
+    private int dragCardCount;  // Cards being dragged, from dragSourceCardIndex to end of column
     private float dragOffsetX, dragOffsetY;
     private float dragCurrentX, dragCurrentY;
+    // Columns that accept the dragged run, found once when the drag starts, so following the
+    // pointer only looks at the two or three columns within reach
+    private static final Color DROP_TARGET_COLOR = new Color(0.7f, 1f, 0.7f, 1f);
+    private final boolean[] dropAllowed = new boolean[SpiderEngine.NUM_COLUMNS];
+    private int dropTargetCol = -1;  // Where the run would land if let go now
 
     // Tap/double-click detection
     private long lastTapTime;
@@ -129,7 +172,16 @@ public class GameScreen implements Screen, InputProcessor {
     private float iconPadding;  // Actual padding after safe area calculation
 
     // Prior result for retry comparison (null if first attempt)
-    private final GameResult priorResult;
+    private GameResult priorResult;
+
+    // The game in progress is written out on pause(), so it survives the app being killed, and
+    // every action since is journaled as it happens, so it survives a crash
+    private final SavedGame savedGame = new SavedGame();
+    private SavedGame resumeFrom;  // Read at launch, to carry on with instead of a fresh deal
+    private MoveJournal journal;
+
+    // Every action of the game as an index into its legal moves, for the result screen to save
+    private final Replay.Recorder recorder = new Replay.Recorder();
 
     public GameScreen(Main game) {
         this(game, GameConfig.soloPractice(4), null); // Default to 4 suits for backwards compatibility
@@ -145,8 +197,52 @@ public class GameScreen implements Screen, InputProcessor {
         this.priorResult = priorResult;
     }
 
+    /**
+     * Start over with a fresh deal of config, keeping every GPU resource, the engine and the
+     * hint thread. Takes effect at once if the screen was shown before, otherwise on show().
+     */
+    public void reset(GameConfig config, GameResult priorResult) {
+        this.config = config;
+        this.priorResult = priorResult;
+        if (engine != null) {
+            startGame();
+        }
+    }
+
+    /** Carry on with a game saved by an earlier run, from where it was left. */
+    public void resume(SavedGame saved) {
+        resumeFrom = saved;
+        reset(saved.getConfig(), saved.getPriorResult());
+    }
+
+    /**
+     * Create the resources, deal and card atlas for a window of the given size ahead of the
+     * first show(), so the first frame has nothing left to build.
+     */
+    public void prepare(int width, int height) {
+        if (engine == null) {
+            createResources();
+            startGame();
+        }
+        resize(width, height);
+    }
+
     @Override
     public void show() {
+        if (engine == null) {
+            createResources();
+            startGame();
+        }
+
+        Gdx.input.setInputProcessor(menuOpen ? menuStage : this);
+        Gdx.graphics.setContinuousRendering(false);
+        Gdx.graphics.requestRendering();
+        frameCounter.reset();
+        StartupTimeline.mark("GameScreen.show");
+    }
+
+    // Everything that outlives a single deal; runs on the first show()
+    private void createResources() {
         // Set up viewport for proper resizing
         viewport = new FitViewport(VIRTUAL_WIDTH, VIRTUAL_HEIGHT);
         viewport.apply(true);
@@ -158,130 +254,112 @@ public class GameScreen implements Screen, InputProcessor {
         iconSize = SafeAreaHelper.isMobile() ? BASE_ICON_SIZE * 1.25f : BASE_ICON_SIZE;
         iconPadding = BASE_ICON_PADDING + (safeTopMargin > BASE_TOP_MARGIN ? 5f : 0f);
 
-        shapeRenderer = new ShapeRenderer();
-        font = new BitmapFont();
-        cardFont = new BitmapFont();
-        cardFont.getData().setScale(1.8f); // Larger font for card numbers
+        // Every flush, whether explicit or because the shape type or matrix changed, goes through end()
+        shapeRenderer = new ShapeRenderer() {
+            @Override
+            public void end() {
+                shapeFlushes++;
+                super.end();
+            }
+        };
+        font = game.getResources().acquireHudFont();
+
+        engine = new SpiderEngine();
+        engine.setCollapseRepetitions(true); // Shuffling a stack back and forth leaves no undo entries
+        animator = new CardAnimator(engine);
+        engine.setListener(animator);
+        hintService = new HintService();
+        layout = new TableauLayout(engine, CARD_HEIGHT);
+
+        // Menu uses a FitViewport to match the game viewport for proper overlay
+        menuStage = new Stage(new FitViewport(VIRTUAL_WIDTH, VIRTUAL_HEIGHT), game.getBatch());
+        menuSkin = game.getResources().acquireUiSkin();
+        perfOverlay = new PerfOverlay();
+        journal = new MoveJournal();
+        StartupTimeline.mark("GameScreen resources");
+    }
 
+    // Deal config and clear everything left from the previous game
+    private void startGame() {
         randomSeed = config.getSeed();
-        initializeGame(randomSeed);
+        engine.initializeGame(config);
+        recorder.start(engine, randomSeed);
+        float resumedTime = resumeSavedGame();
+        StartupTimeline.mark("initializeGame");
+        animator.finishAll();
+        winPending = false;
+        boardChanged();
+
+        font.setColor(HUD_TEXT_COLOR); // The HUD layouts take their color from the font
+        seedText.setText(font, "Seed: " + randomSeed);
+        shownSeconds = -1; // Lay out the rest of the HUD on the first frame
+        shownUndos = -1;
 
         // Initialize drag state
         isDragging = false;
-        draggedCards = new ArrayList<>();
-        elapsedGameTime = 0f;
-
-        // Initialize collapsed state for each tableau (start expanded)
-        tableauCollapsed = new boolean[10];
-        for (int i = 0; i < 10; i++) {
-            tableauCollapsed[i] = false;
-        }
-
-        // Initialize scoring and move tracking
-        score = STARTING_SCORE;
-        completedSuits = 0;
-        totalMoves = 0;
-        totalUndos = 0;
-
-        // Initialize undo history
-        moveHistory = new ArrayList<>();
-        saveGameState(); // Save initial state
-
-        // Initialize menu - use FitViewport to match game viewport for proper overlay
-        menuOpen = false;
-        menuStage = new Stage(new FitViewport(VIRTUAL_WIDTH, VIRTUAL_HEIGHT));
-        menuSkin = createMenuSkin();
-
-        Gdx.input.setInputProcessor(this);
-    }
-
-    private void initializeGame(long seed) {
-        Random random = new Random(seed);
-
-        // Get suits to use based on config (1-6 suits)
-        int numSuits = config.getNumSuits();
-        Suit[] suitsToUse = new Suit[numSuits];
-        Suit[] allSuits = Suit.values();
-        for (int i = 0; i < numSuits; i++) {
-            suitsToUse[i] = allSuits[i];
-        }
-
-        // Determine total cards based on number of suits:
-        // 1-4 suits: 104 cards (8 completed suits to win)
-        // 5 suits: 130 cards (10 completed suits to win)
-        // 6 suits: 156 cards (12 completed suits to win)
-        int totalCards;
-        if (numSuits <= 4) {
-            totalCards = 104;
-            requiredSuitsToWin = 8;
-        } else if (numSuits == 5) {
-            totalCards = 130;
-            requiredSuitsToWin = 10;
+        dragCardCount = 0;
+        lastTapTime = 0;
+        elapsedGameTime = Math.max(0f, resumedTime);
+        if (resumedTime >= 0f) {
+            saveGame(); // Fold the replayed journal into a fresh save
         } else {
-            totalCards = 156;
-            requiredSuitsToWin = 12;
+            journal.stop(); // Until the first action: a prepared deal may never be played
         }
 
-        // Create deck with cards distributed evenly across suits
-        List<Card> deck = new ArrayList<>();
-        int cardsPerSuit = totalCards / numSuits;
+        // Every tableau starts expanded
+        layout.reset();
 
-        for (int suitIndex = 0; suitIndex < numSuits; suitIndex++) {
-            Suit suit = suitsToUse[suitIndex];
-            int fullDecks = cardsPerSuit / 13;
-
-            // Add full decks (13 cards each: A through K)
-            for (int deckNum = 0; deckNum < fullDecks; deckNum++) {
-                for (int rank = 1; rank <= 13; rank++) {
-                    deck.add(new Card(suit, rank));
-                }
-            }
-        }
-
-        // Shuffle the deck
-        Collections.shuffle(deck, random);
+        menuOpen = false;
+        menuStage.clear();
+        Gdx.graphics.requestRendering();
+    }
 
-        // Initialize 10 tableaus
-        tableaus = new ArrayList<>();
-        for (int i = 0; i < 10; i++) {
-            tableaus.add(new ArrayList<>());
-        }
+    // Put the saved game, if one is waiting, into the engine; returns the time already played on
+    // it, or -1 if this is a new game
+    private float resumeSavedGame() {
+        SavedGame saved = resumeFrom;
+        resumeFrom = null;
+        if (saved == null) return -1f;
+        if (!saved.restoreEngine(engine, recorder)) {
+            engine.initializeGame(config); // The same deal from the start is the best we can do
+            recorder.start(engine, randomSeed);
+            return -1f;
+        }
+        return saved.getTimeSeconds();
+    }
 
-        // Deal cards to tableaus
-        // First 4 tableaus get 6 cards each, remaining 6 tableaus get 5 cards each
-        // Total: 4*6 + 6*5 = 24 + 30 = 54 cards dealt
-        int cardIndex = 0;
-        for (int col = 0; col < 10; col++) {
-            int cardsInColumn = (col < 4) ? 6 : 5;
-            for (int row = 0; row < cardsInColumn; row++) {
-                Card card = deck.get(cardIndex++);
-                // Only the top card (last dealt to each column) is face up
-                if (row == cardsInColumn - 1) {
-                    card.setFaceUp(true);
-                }
-                tableaus.get(col).add(card);
-            }
+    // Write the whole game out and start the journal over from there
+    private void saveGame() {
+        if (savedGame.save(config, priorResult, elapsedGameTime, engine, recorder)) {
+            journal.start(config, priorResult, elapsedGameTime, savedGame);
         }
+    }
 
-        // Remaining 50 cards go to stock
-        stock = new ArrayList<>();
-        while (cardIndex < deck.size()) {
-            stock.add(deck.get(cardIndex++));
+    // Record an action, and the suits it completed, in the journal; a new game's first action starts it
+    private void journalAction(int type, int a, int b, int c, int suitsBefore) {
+        if (!journal.isStarted()) {
+            journal.start(config, priorResult, 0f, null);
         }
-
-        // Initialize 8 foundation piles (for completed suits)
-        foundations = new ArrayList<>();
-        for (int i = 0; i < 8; i++) {
-            foundations.add(new ArrayList<>());
+        journal.append(type, a, b, c, elapsedGameTime);
+        for (int suits = suitsBefore + 1; suits <= engine.getCompletedSuits(); suits++) {
+            journal.append(MoveJournal.TYPE_SUIT, suits, 0, 0, elapsedGameTime);
         }
     }
 
     @Override
     public void render(float delta) {
+        frameCounter.frame();
+        perfOverlay.beginFrame();
+        shapeFlushes = 0;
+
         // Update timer if not paused
         if (!menuOpen) {
             elapsedGameTime += delta;
         }
+        updateHint(delta);
+        if (animator.update(Math.min(delta, MAX_ANIMATION_STEP))) {
+            Gdx.graphics.requestRendering();
+        }
 
         ScreenUtils.clear(0.0f, 0.4f, 0.2f, 1f); // Green table color
 
@@ -302,6 +380,7 @@ public class GameScreen implements Screen, InputProcessor {
 
         // Available height for card stacks (from startY down to safe bottom margin)
         float availableHeight = startY - safeBottomMargin;
+        layout.setBounds(startY, availableHeight);
 
         // Set projection matrix for shape renderer
         shapeRenderer.setProjectionMatrix(viewport.getCamera().combined);
@@ -309,24 +388,23 @@ public class GameScreen implements Screen, InputProcessor {
         // Draw bottom HUD background using screen coordinates so it anchors to actual bottom
         drawBottomHudBackground();
 
+        // Cards, stock, placeholders and completed suits come from one atlas texture, so the
+        // whole table is a single SpriteBatch pass
+        SpriteBatch batch = game.getBatch();
+        batch.setProjectionMatrix(viewport.getCamera().combined);
+        batch.setColor(Color.WHITE); // The batch is shared with every Stage, which may leave a tint
+        batch.begin();
+
         // Draw stock pile at top right - show deals remaining as large number
-        int dealsRemaining = stock.size() / 10;
-        int remainingCards = stock.size() % 10;
-        boolean stockBlocked = hasEmptyTableau();
-        if (!stock.isEmpty()) {
-            // Draw stock card back with pattern (grayed out if blocked)
-            Color stockColor = stockBlocked ? new Color(0.3f, 0.3f, 0.35f, 1f) : new Color(0.15f, 0.15f, 0.5f, 1f);
-            Color stockBorderColor = stockBlocked ? new Color(0.4f, 0.4f, 0.45f, 1f) : new Color(0.3f, 0.3f, 0.7f, 1f);
-            drawRoundedRect(stockX, stockY, CARD_WIDTH, CARD_HEIGHT,
-                CARD_CORNER_RADIUS, stockColor, Color.BLACK);
-            // Add inner border for card back design
-            float inset = 4f;
-            drawRoundedBorder(stockX + inset, stockY + inset, CARD_WIDTH - inset * 2, CARD_HEIGHT - inset * 2,
-                CARD_CORNER_RADIUS - 2, stockBorderColor);
-            // Number will be drawn in batch section below
+        int stockSize = engine.getStockSize();
+        int dealsRemaining = stockSize / SpiderEngine.NUM_COLUMNS;
+        boolean stockBlocked = engine.hasEmptyTableau();
+        if (stockSize > 0) {
+            // Grayed out with "FILL GAPS" if blocked, otherwise deals remaining or "*" for a partial last deal
+            batch.draw(cardAtlas.stock(dealsRemaining, stockBlocked), stockX, stockY, CARD_WIDTH, CARD_HEIGHT);
         } else {
             // Draw empty stock placeholder - just outline
-            drawCardPlaceholder(stockX, stockY);
+            batch.draw(cardAtlas.placeholder(), stockX, stockY, CARD_WIDTH, CARD_HEIGHT);
         }
 
         // Draw completed suits as cascaded pile centered in available space
@@ -335,59 +413,76 @@ public class GameScreen implements Screen, InputProcessor {
         float completedAreaRight = stockX - 20f;
         float completedAreaWidth = completedAreaRight - completedAreaLeft;
         float cascadeOffset = 18f; // Offset between cascaded cards
+        int completedSuits = engine.getCompletedSuits() - animator.getSuitsInFlight();
         float completedPileWidth = CARD_WIDTH + (completedSuits > 0 ? (completedSuits - 1) * cascadeOffset : 0);
         float completedStartX = completedAreaLeft + (completedAreaWidth - completedPileWidth) / 2f;
 
         // Always draw placeholder for completed suits area
-        drawCardPlaceholder(completedAreaLeft + (completedAreaWidth - CARD_WIDTH) / 2f, stockY);
+        suitsPileX = completedAreaLeft + (completedAreaWidth - CARD_WIDTH) / 2f;
+        batch.draw(cardAtlas.placeholder(), suitsPileX, stockY, CARD_WIDTH, CARD_HEIGHT);
 
         // Draw completed suits on top of placeholder
         for (int i = 0; i < completedSuits; i++) {
             float fx = completedStartX + i * cascadeOffset;
             // Completed suit - show gold/bronze card with proper card styling
-            drawCompletedSuitCard(fx, stockY);
+            batch.draw(cardAtlas.completedSuit(), fx, stockY, CARD_WIDTH, CARD_HEIGHT);
         }
 
         // Draw tableaus with dynamic spacing
-        for (int col = 0; col < 10; col++) {
+        for (int col = 0; col < SpiderEngine.NUM_COLUMNS; col++) {
             float x = startX + col * TABLEAU_SPACING;
-            List<Card> tableau = tableaus.get(col);
+            int columnLength = engine.getColumnLength(col);
 
-            if (tableau.isEmpty()) {
+            if (columnLength == 0) {
                 // Draw empty placeholder - just outline
-                drawCardPlaceholder(x, startY - CARD_HEIGHT);
+                batch.draw(cardAtlas.placeholder(), x, startY - CARD_HEIGHT, CARD_WIDTH, CARD_HEIGHT);
             } else {
-                // Calculate dynamic spacing for this column
-                float[] spacings = calculateCardSpacings(col, availableHeight);
-
                 // Draw cards in tableau (skip dragged cards)
-                float currentY = startY;
-                for (int row = 0; row < tableau.size(); row++) {
-                    // Skip cards being dragged
+                for (int row = 0; row < columnLength; row++) {
+                    // Skip cards being dragged, and cards still on their way here
                     if (isDragging && col == dragSourceCol && row >= dragSourceCardIndex) {
                         continue;
                     }
-                    Card card = tableau.get(row);
-                    float cardY = currentY - CARD_HEIGHT;
-                    drawCardRounded(x, cardY, card);
-
-                    // Move down for next card using dynamic spacing
-                    if (row < tableau.size() - 1) {
-                        currentY -= spacings[row];
+                    if (animator.getSlot(col, row) != null) {
+                        continue;
                     }
+                    byte card = engine.getCard(col, row);
+                    batch.draw(cardAtlas.card(card), x, layout.getCardY(col, row), CARD_WIDTH, CARD_HEIGHT);
                 }
             }
         }
 
+        // Moving cards above the table, in the order they set off; those waiting for their turn aren't shown yet
+        for (int i = 0; i < animator.getActiveCount(); i++) {
+            CardAnimator.Tween tween = animator.getActive(i);
+            if (!tween.isStarted()) continue;
+            if (tween.isFlight()) {
+                batch.draw(cardAtlas.card(tween.card), tween.x(tween.toX), tween.y(tween.toY), CARD_WIDTH, CARD_HEIGHT);
+            } else {
+                batch.draw(cardAtlas.card(engine.getCard(tween.col, tween.row)),
+                    tween.x(startX + tween.col * TABLEAU_SPACING), tween.y(layout.getCardY(tween.col, tween.row)),
+                    CARD_WIDTH, CARD_HEIGHT);
+            }
+        }
+
         // Draw dragged cards with standard spacing
-        if (isDragging && !draggedCards.isEmpty()) {
+        if (isDragging && dragCardCount > 0) {
             float dragX = dragCurrentX - dragOffsetX;
             float dragY = dragCurrentY - dragOffsetY;
-            for (int i = 0; i < draggedCards.size(); i++) {
-                Card card = draggedCards.get(i);
-                drawCardRounded(dragX, dragY - i * CARD_SPACING_REVEALED, card);
+            for (int i = 0; i < dragCardCount; i++) {
+                byte card = engine.getCard(dragSourceCol, dragSourceCardIndex + i);
+                batch.draw(cardAtlas.card(card), dragX, dragY - i * TableauLayout.CARD_SPACING_REVEALED,
+                    CARD_WIDTH, CARD_HEIGHT);
             }
         }
+        batch.end();
+
+        if (isDragging && dropTargetCol >= 0) {
+            drawTargetBorder(dropTargetCol, DROP_TARGET_COLOR);
+        }
+        if (hintDisplayTime > 0 && hint != null && hint.hasMove()) {
+            drawHintHighlight(hint.getBestMove());
+        }
 
         // Draw menu and undo buttons adjacent (menu left of undo)
         // Position respects safe area for notches/status bar
@@ -404,82 +499,18 @@ public class GameScreen implements Screen, InputProcessor {
         undoIconY = menuButtonY;
         drawButtonBackground(undoIconX - buttonMargin, undoIconY - buttonMargin,
             iconSize + buttonMargin * 2, iconSize + buttonMargin * 2);
-        drawUndoIcon(undoIconX, undoIconY, canUndo());
+        drawUndoIcon(undoIconX, undoIconY, engine.canUndo());
+
+        // Draw hint button to the right of undo
+        hintIconX = undoIconX + iconSize + buttonMargin * 2 + buttonSpacing;
+        hintIconY = undoIconY;
+        drawButtonBackground(hintIconX - buttonMargin, hintIconY - buttonMargin,
+            iconSize + buttonMargin * 2, iconSize + buttonMargin * 2);
+        drawHintIcon(hintIconX, hintIconY, hint == null || hint.hasMove());
 
         // Draw bottom HUD text using screen coordinates (anchored to bottom)
         drawBottomHudText();
 
-        // Draw text labels for cards
-        SpriteBatch batch = game.getBatch();
-        batch.setProjectionMatrix(viewport.getCamera().combined);
-        batch.begin();
-
-        // Draw stock deals remaining as large number on card
-        if (!stock.isEmpty()) {
-            if (stockBlocked) {
-                // Show "FILL GAPS" message when stock is blocked
-                cardFont.getData().setScale(1.2f);
-                cardFont.setColor(new Color(0.7f, 0.7f, 0.7f, 1f));
-                cardFont.draw(batch, "FILL", stockX + 14f, stockY + CARD_HEIGHT - 25f);
-                cardFont.draw(batch, "GAPS", stockX + 12f, stockY + CARD_HEIGHT - 50f);
-                cardFont.getData().setScale(1.8f); // Restore normal scale
-            } else {
-                // Use a large font scale for the number
-                cardFont.getData().setScale(3.0f);
-                cardFont.setColor(Color.WHITE);
-                // Show full deals remaining, or "*" for partial last deal
-                String dealsStr = dealsRemaining > 0 ? String.valueOf(dealsRemaining) : "*";
-                // Center the number on the card
-                float textX = stockX + CARD_WIDTH / 2 - 15f;
-                float textY = stockY + CARD_HEIGHT / 2 + 20f;
-                cardFont.draw(batch, dealsStr, textX, textY);
-                cardFont.getData().setScale(1.8f); // Restore normal scale
-            }
-        }
-
-        // Draw card values on face-up cards (using same dynamic spacing as card rendering)
-        for (int col = 0; col < 10; col++) {
-            float x = startX + col * TABLEAU_SPACING;
-            List<Card> tableau = tableaus.get(col);
-            if (tableau.isEmpty()) continue;
-
-            float[] spacings = calculateCardSpacings(col, availableHeight);
-            float currentY = startY;
-
-            for (int row = 0; row < tableau.size(); row++) {
-                // Skip cards being dragged
-                if (isDragging && col == dragSourceCol && row >= dragSourceCardIndex) {
-                    continue;
-                }
-                Card card = tableau.get(row);
-                if (card.isFaceUp()) {
-                    float cardY = currentY - CARD_HEIGHT;
-                    String cardText = card.getRankSymbol() + card.getSuit().getSymbol();
-                    cardFont.setColor(card.getSuit().getColor());
-                    cardFont.draw(batch, cardText, x + 8, cardY + CARD_HEIGHT - 8);
-                }
-                if (row < tableau.size() - 1) {
-                    currentY -= spacings[row];
-                }
-            }
-        }
-
-        // Draw values on dragged cards
-        if (isDragging && !draggedCards.isEmpty()) {
-            float dragX = dragCurrentX - dragOffsetX;
-            float dragY = dragCurrentY - dragOffsetY;
-            for (int i = 0; i < draggedCards.size(); i++) {
-                Card card = draggedCards.get(i);
-                if (card.isFaceUp()) {
-                    float cardY = dragY - i * CARD_SPACING_REVEALED;
-                    String cardText = card.getRankSymbol() + card.getSuit().getSymbol();
-                    cardFont.setColor(card.getSuit().getColor());
-                    cardFont.draw(batch, cardText, dragX + 8, cardY + CARD_HEIGHT - 8);
-                }
-            }
-        }
-        batch.end();
-
         // Draw menu overlay if open
         if (menuOpen) {
             // Draw full-screen overlay using screen coordinates (covers letterbox areas too)
@@ -493,9 +524,40 @@ public class GameScreen implements Screen, InputProcessor {
 
             menuStage.act(delta);
             menuStage.draw();
+            if (hasActions(menuStage.getRoot())) {
+                Gdx.graphics.requestRendering(); // Keep dialog fades running
+            }
+        }
+
+        perfOverlay.endFrame(shapeFlushes, engine.getUndoDepth());
+        if (perfOverlay.isVisible()) {
+            drawPerfOverlay();
+        }
+        StartupTimeline.finish("first game frame");
+
+        // Wake up when the clock reaches its next whole second
+        if (!menuOpen && !hudTick.isScheduled()) {
+            Timer.schedule(hudTick, 1f - elapsedGameTime % 1f);
+        }
+
+        // Leave once the winning suit has reached its pile
+        if (winPending && !animator.isRunning()) {
+            winPending = false;
+            showWinDialog();
         }
     }
 
+    private static boolean hasActions(Actor actor) {
+        if (actor.hasActions()) return true;
+        if (actor instanceof Group) {
+            com.badlogic.gdx.utils.SnapshotArray<Actor> children = ((Group) actor).getChildren();
+            for (int i = 0; i < children.size; i++) {
+                if (hasActions(children.get(i))) return true;
+            }
+        }
+        return false;
+    }
+
     private void drawFullScreenOverlay() {
         // Use actual screen coordinates to draw overlay that covers entire window
         int screenW = Gdx.graphics.getWidth();
@@ -508,13 +570,11 @@ public class GameScreen implements Screen, InputProcessor {
         Gdx.gl.glEnable(com.badlogic.gdx.graphics.GL20.GL_BLEND);
         Gdx.gl.glBlendFunc(com.badlogic.gdx.graphics.GL20.GL_SRC_ALPHA, com.badlogic.gdx.graphics.GL20.GL_ONE_MINUS_SRC_ALPHA);
 
-        // Create fresh matrix for screen coordinates
-        com.badlogic.gdx.math.Matrix4 screenMatrix = new com.badlogic.gdx.math.Matrix4();
         screenMatrix.setToOrtho2D(0, 0, screenW, screenH);
         shapeRenderer.setProjectionMatrix(screenMatrix);
 
         shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-        shapeRenderer.setColor(new Color(0.2f, 0.2f, 0.2f, 0.85f)); // Gray transparent overlay
+        shapeRenderer.setColor(OVERLAY_COLOR);
         shapeRenderer.rect(0, 0, screenW, screenH);
         shapeRenderer.end();
 
@@ -536,13 +596,11 @@ public class GameScreen implements Screen, InputProcessor {
         // Reset GL viewport to full screen (override the game viewport's offset)
         Gdx.gl.glViewport(0, 0, screenW, screenH);
 
-        // Create fresh matrix for screen coordinates
-        com.badlogic.gdx.math.Matrix4 screenMatrix = new com.badlogic.gdx.math.Matrix4();
         screenMatrix.setToOrtho2D(0, 0, screenW, screenH);
         shapeRenderer.setProjectionMatrix(screenMatrix);
 
         shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-        shapeRenderer.setColor(new Color(0.0f, 0.35f, 0.18f, 1f)); // Off-green
+        shapeRenderer.setColor(HUD_BACKGROUND_COLOR);
         shapeRenderer.rect(0, 0, screenW, totalHudHeight);
         shapeRenderer.end();
 
@@ -564,15 +622,13 @@ public class GameScreen implements Screen, InputProcessor {
         // Reset GL viewport to full screen (override the game viewport's offset)
         Gdx.gl.glViewport(0, 0, screenW, screenH);
 
-        // Create fresh matrix for screen coordinates
-        com.badlogic.gdx.math.Matrix4 screenMatrix = new com.badlogic.gdx.math.Matrix4();
         screenMatrix.setToOrtho2D(0, 0, screenW, screenH);
 
         SpriteBatch batch = game.getBatch();
         batch.setProjectionMatrix(screenMatrix);
 
+        updateHudText();
         batch.begin();
-        font.setColor(new Color(0.8f, 0.9f, 0.8f, 1f)); // Light greenish white
 
         // Position text above the safe area bottom inset
         float hudY = bottomInset + 8f; // Y position from bottom, above safe area
@@ -580,12 +636,10 @@ public class GameScreen implements Screen, InputProcessor {
         float rightPadding = rightInset + 10f;
 
         // Seed - left aligned with safe padding
-        font.draw(batch, "Seed: " + randomSeed, leftPadding, hudY + font.getCapHeight());
+        font.draw(batch, seedText, leftPadding, hudY + font.getCapHeight());
         // Time - centered
-        String timeStr = formatTime(elapsedGameTime);
-        font.draw(batch, timeStr, screenW / 2f - 25, hudY + font.getCapHeight());
+        font.draw(batch, timeText, screenW / 2f - 25, hudY + font.getCapHeight());
         // Score, moves, and undos - right aligned with safe padding
-        String scoreText = "Score: " + score + "  Moves: " + totalMoves + "  Undos: " + totalUndos;
         font.draw(batch, scoreText, screenW - 230 - rightPadding, hudY + font.getCapHeight());
 
         batch.end();
@@ -595,16 +649,79 @@ public class GameScreen implements Screen, InputProcessor {
         batch.setProjectionMatrix(viewport.getCamera().combined);
     }
 
+    // Lay out the time and score lines again if what they show has changed since the last frame
+    private void updateHudText() {
+        int seconds = (int) elapsedGameTime;
+        boolean noMoves = hintDisplayTime > 0 && hint != null && !hint.hasMove();
+        if (seconds != shownSeconds || noMoves != shownNoMoves) {
+            shownSeconds = seconds;
+            shownNoMoves = noMoves;
+            hudText.setLength(0);
+            appendTime(hudText, seconds);
+            if (noMoves) {
+                hudText.append("  No moves left - try undo");
+            }
+            timeText.setText(font, hudText);
+        }
+
+        int score = engine.getScore();
+        int moves = engine.getTotalMoves();
+        int undos = engine.getTotalUndos();
+        if (score != shownScore || moves != shownMoves || undos != shownUndos) {
+            shownScore = score;
+            shownMoves = moves;
+            shownUndos = undos;
+            hudText.setLength(0);
+            hudText.append("Score: ").append(score).append("  Moves: ").append(moves)
+                .append("  Undos: ").append(undos);
+            scoreText.setText(font, hudText);
+        }
+    }
+
+    private void drawPerfOverlay() {
+        int screenW = Gdx.graphics.getWidth();
+        int screenH = Gdx.graphics.getHeight();
+        Gdx.gl.glViewport(0, 0, screenW, screenH);
+        screenMatrix.setToOrtho2D(0, 0, screenW, screenH);
+
+        SpriteBatch batch = game.getBatch();
+        batch.setProjectionMatrix(screenMatrix);
+        batch.begin();
+        // Bottom left, just above the HUD bar
+        float top = SafeAreaHelper.getBottomInset() + 30f + font.getLineHeight() * 3;
+        perfOverlay.draw(batch, font, SafeAreaHelper.getLeftInset() + 10f, top);
+        batch.end();
+
+        viewport.apply();
+        batch.setProjectionMatrix(viewport.getCamera().combined);
+    }
+
+    private void togglePerfOverlay() {
+        perfOverlay.setVisible(!perfOverlay.isVisible());
+        Gdx.graphics.requestRendering();
+    }
+
+    private void dumpFrameTimes() {
+        com.badlogic.gdx.files.FileHandle file = perfOverlay.dump(Gdx.files.local("perf"));
+        if (file != null) {
+            Gdx.app.log("GameScreen", "Frame times written to " + file.file().getAbsolutePath());
+        }
+        file = StartupTimeline.writeJson(Gdx.files.local("perf"));
+        if (file != null) {
+            Gdx.app.log("GameScreen", "Startup timeline written to " + file.file().getAbsolutePath());
+        }
+    }
+
     private void drawButtonBackground(float x, float y, float width, float height) {
         // Draw button background with slight transparency
         shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-        shapeRenderer.setColor(new Color(0.2f, 0.2f, 0.3f, 0.8f));
+        shapeRenderer.setColor(BUTTON_COLOR);
         shapeRenderer.rect(x, y, width, height);
         shapeRenderer.end();
 
         // Draw button border
         shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
-        shapeRenderer.setColor(new Color(0.4f, 0.4f, 0.5f, 1f));
+        shapeRenderer.setColor(BUTTON_BORDER_COLOR);
         shapeRenderer.rect(x, y, width, height);
         shapeRenderer.end();
     }
@@ -631,7 +748,7 @@ public class GameScreen implements Screen, InputProcessor {
     }
 
     private void drawUndoIcon(float x, float y, boolean enabled) {
-        Color color = enabled ? Color.WHITE : new Color(0.5f, 0.5f, 0.5f, 0.5f);
+        Color color = enabled ? Color.WHITE : DISABLED_ICON_COLOR;
 
         // Scale icon based on icon size
         float scale = iconSize / BASE_ICON_SIZE;
@@ -666,178 +783,64 @@ public class GameScreen implements Screen, InputProcessor {
         shapeRenderer.end();
     }
 
-    private void drawRoundedRect(float x, float y, float width, float height, float radius, Color fillColor, Color borderColor) {
-        // Draw filled rounded rectangle
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-        shapeRenderer.setColor(fillColor);
-
-        // Center rectangle
-        shapeRenderer.rect(x + radius, y, width - 2 * radius, height);
-        // Left rectangle
-        shapeRenderer.rect(x, y + radius, radius, height - 2 * radius);
-        // Right rectangle
-        shapeRenderer.rect(x + width - radius, y + radius, radius, height - 2 * radius);
-
-        // Corners (arcs)
-        int segments = 10;
-        // Bottom-left
-        shapeRenderer.arc(x + radius, y + radius, radius, 180, 90, segments);
-        // Bottom-right
-        shapeRenderer.arc(x + width - radius, y + radius, radius, 270, 90, segments);
-        // Top-right
-        shapeRenderer.arc(x + width - radius, y + height - radius, radius, 0, 90, segments);
-        // Top-left
-        shapeRenderer.arc(x + radius, y + height - radius, radius, 90, 90, segments);
-
-        shapeRenderer.end();
+    private void drawHintIcon(float x, float y, boolean enabled) {
+        Color color = enabled ? Color.WHITE : DISABLED_ICON_COLOR;
+        float scale = iconSize / BASE_ICON_SIZE;
 
-        // Draw border
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
-        shapeRenderer.setColor(borderColor);
-
-        // Bottom edge
-        shapeRenderer.line(x + radius, y, x + width - radius, y);
-        // Top edge
-        shapeRenderer.line(x + radius, y + height, x + width - radius, y + height);
-        // Left edge
-        shapeRenderer.line(x, y + radius, x, y + height - radius);
-        // Right edge
-        shapeRenderer.line(x + width, y + radius, x + width, y + height - radius);
-
-        // Corner arcs
-        shapeRenderer.arc(x + radius, y + radius, radius, 180, 90, segments);
-        shapeRenderer.arc(x + width - radius, y + radius, radius, 270, 90, segments);
-        shapeRenderer.arc(x + width - radius, y + height - radius, radius, 0, 90, segments);
-        shapeRenderer.arc(x + radius, y + height - radius, radius, 90, 90, segments);
+        // Light bulb: round glass over a narrow base
+        float centerX = x + iconSize / 2;
+        float bulbRadius = iconSize / 4;
+        float bulbY = y + iconSize * 0.6f;
+        float baseWidth = bulbRadius;
+        float baseHeight = 8f * scale;
 
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer.setColor(color);
+        shapeRenderer.circle(centerX, bulbY, bulbRadius, 20);
+        shapeRenderer.rect(centerX - baseWidth / 2, bulbY - bulbRadius - baseHeight + 2f * scale, baseWidth, baseHeight);
         shapeRenderer.end();
     }
 
-    private void drawCardRounded(float x, float y, Card card) {
-        if (card.isFaceUp()) {
-            // Face-up card - white with black border, looks like playing card
-            drawRoundedRect(x, y, CARD_WIDTH, CARD_HEIGHT, CARD_CORNER_RADIUS, Color.WHITE, Color.BLACK);
-        } else {
-            // Face-down card - blue pattern back
-            drawRoundedRect(x, y, CARD_WIDTH, CARD_HEIGHT, CARD_CORNER_RADIUS,
-                new Color(0.15f, 0.15f, 0.5f, 1f), Color.BLACK);
-            // Add inner border for card back design
-            float inset = 4f;
-            drawRoundedBorder(x + inset, y + inset, CARD_WIDTH - inset * 2, CARD_HEIGHT - inset * 2,
-                CARD_CORNER_RADIUS - 2, new Color(0.3f, 0.3f, 0.7f, 1f));
+    // Outline the run the best hint moves and the column it goes to (or the stock for a deal)
+    private void drawHintHighlight(int move) {
+        float inset = -2f;
+        if (Moves.isDeal(move)) {
+            drawRoundedBorder(stockX + inset, stockY + inset, CARD_WIDTH - inset * 2, CARD_HEIGHT - inset * 2,
+                CARD_CORNER_RADIUS, HINT_COLOR);
+            return;
         }
-    }
 
-    private void drawCardPlaceholder(float x, float y) {
-        // Empty card slot - semi-transparent fill with visible border
-        drawRoundedRect(x, y, CARD_WIDTH, CARD_HEIGHT, CARD_CORNER_RADIUS,
-            new Color(0.0f, 0.3f, 0.15f, 0.5f), new Color(0.3f, 0.5f, 0.3f, 0.8f));
-    }
+        int source = Moves.source(move);
+        int cardIndex = Moves.cardIndex(move);
+        int target = Moves.target(move);
 
-    private void drawCompletedSuitCard(float x, float y) {
-        // Completed suit card - gold/bronze colored card
-        drawRoundedRect(x, y, CARD_WIDTH, CARD_HEIGHT, CARD_CORNER_RADIUS,
-            new Color(0.85f, 0.75f, 0.3f, 1f), new Color(0.6f, 0.5f, 0.1f, 1f));
-        // Add decorative inner border
-        float inset = 4f;
-        drawRoundedBorder(x + inset, y + inset, CARD_WIDTH - inset * 2, CARD_HEIGHT - inset * 2,
-            CARD_CORNER_RADIUS - 2, new Color(0.95f, 0.85f, 0.4f, 1f));
-    }
+        float runTop = layout.getCardY(source, cardIndex) + CARD_HEIGHT;
+        float runBottom = layout.getCardY(source, engine.getColumnLength(source) - 1);
+        float sourceX = startX + source * TABLEAU_SPACING;
+        drawRoundedBorder(sourceX + inset, runBottom + inset, CARD_WIDTH - inset * 2, runTop - runBottom - inset * 2,
+            CARD_CORNER_RADIUS, HINT_COLOR);
 
-    private void drawRoundedBorder(float x, float y, float width, float height, float radius, Color borderColor) {
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
-        shapeRenderer.setColor(borderColor);
-
-        // Bottom edge
-        shapeRenderer.line(x + radius, y, x + width - radius, y);
-        // Top edge
-        shapeRenderer.line(x + radius, y + height, x + width - radius, y + height);
-        // Left edge
-        shapeRenderer.line(x, y + radius, x, y + height - radius);
-        // Right edge
-        shapeRenderer.line(x + width, y + radius, x + width, y + height - radius);
-
-        // Draw corner curves using line segments (avoids arc's extra center lines)
-        int segments = 8;
-        // Bottom-left corner (180 to 270 degrees)
-        drawCornerCurve(x + radius, y + radius, radius, 180, 270, segments);
-        // Bottom-right corner (270 to 360 degrees)
-        drawCornerCurve(x + width - radius, y + radius, radius, 270, 360, segments);
-        // Top-right corner (0 to 90 degrees)
-        drawCornerCurve(x + width - radius, y + height - radius, radius, 0, 90, segments);
-        // Top-left corner (90 to 180 degrees)
-        drawCornerCurve(x + radius, y + height - radius, radius, 90, 180, segments);
-
-        shapeRenderer.end();
+        drawTargetBorder(target, HINT_COLOR);
     }
 
-    // Draw a corner curve using line segments (no center lines like arc does)
-    private void drawCornerCurve(float cx, float cy, float radius, float startAngle, float endAngle, int segments) {
-        float angleStep = (endAngle - startAngle) / segments;
-        for (int i = 0; i < segments; i++) {
-            float angle1 = (float) Math.toRadians(startAngle + i * angleStep);
-            float angle2 = (float) Math.toRadians(startAngle + (i + 1) * angleStep);
-            float x1 = cx + radius * (float) Math.cos(angle1);
-            float y1 = cy + radius * (float) Math.sin(angle1);
-            float x2 = cx + radius * (float) Math.cos(angle2);
-            float y2 = cy + radius * (float) Math.sin(angle2);
-            shapeRenderer.line(x1, y1, x2, y2);
-        }
+    // Around where cards dropped on col would land: its top card, or the empty slot
+    private void drawTargetBorder(int col, Color color) {
+        float inset = -2f;
+        float targetX = startX + col * TABLEAU_SPACING;
+        int targetLength = engine.getColumnLength(col);
+        float targetY = targetLength > 0 ? layout.getCardY(col, targetLength - 1) : startY - CARD_HEIGHT;
+        drawRoundedBorder(targetX + inset, targetY + inset, CARD_WIDTH - inset * 2, CARD_HEIGHT - inset * 2,
+            CARD_CORNER_RADIUS, color);
     }
 
-    // Calculate dynamic card spacings for a tableau based on available height
-    private float[] calculateCardSpacings(int col, float availableHeight) {
-        List<Card> tableau = tableaus.get(col);
-        int numCards = tableau.size();
-        if (numCards <= 1) {
-            return new float[0];
-        }
-
-        float[] spacings = new float[numCards - 1];
-
-        // Count hidden and revealed cards
-        int hiddenCount = 0;
-        int revealedCount = 0;
-        for (Card card : tableau) {
-            if (card.isFaceUp()) {
-                revealedCount++;
-            } else {
-                hiddenCount++;
-            }
-        }
-
-        // Determine hidden card spacing based on collapsed state
-        float hiddenSpacing = tableauCollapsed[col] ? CARD_SPACING_HIDDEN_COLLAPSED : CARD_SPACING_HIDDEN_EXPANDED;
-
-        // Calculate total height needed with current spacing
-        float hiddenHeight = hiddenCount > 0 ? hiddenCount * hiddenSpacing : 0;
-        float revealedHeight = revealedCount > 1 ? (revealedCount - 1) * CARD_SPACING_REVEALED : 0;
-        float totalNeededHeight = CARD_HEIGHT + hiddenHeight + revealedHeight;
-
-        // Determine revealed card spacing (may need compression)
-        float revealedSpacing = CARD_SPACING_REVEALED;
-        if (totalNeededHeight > availableHeight && revealedCount > 1) {
-            // Need to compress revealed cards
-            float availableForRevealed = availableHeight - CARD_HEIGHT - hiddenHeight;
-            revealedSpacing = Math.max(MIN_REVEALED_SPACING, availableForRevealed / (revealedCount - 1));
-        }
-
-        // Fill in spacings array
-        for (int i = 0; i < numCards - 1; i++) {
-            Card card = tableau.get(i);
-            if (!card.isFaceUp()) {
-                spacings[i] = hiddenSpacing;
-            } else {
-                spacings[i] = revealedSpacing;
-            }
-        }
-
-        return spacings;
+    private void drawRoundedBorder(float x, float y, float width, float height, float radius, Color borderColor) {
+        RoundedShapes.border(shapeRenderer, x, y, width, height, radius, borderColor);
     }
 
     @Override
     public void resize(int width, int height) {
         viewport.update(width, height, true);
+        layout.invalidateAll();
 
         // Recalculate safe areas on resize (orientation changes, etc.)
         calculateSafeAreas();
@@ -860,6 +863,16 @@ public class GameScreen implements Screen, InputProcessor {
             menuStage.getViewport().setScreenY(yOffset);
             menuStage.getViewport().apply();
         }
+
+        // Repaint the card images when the pixels per virtual unit change (not for a minimized window)
+        float density = viewport.getScreenWidth() / VIRTUAL_WIDTH;
+        if (width > 0 && height > 0 && (cardAtlas == null || cardAtlas.needsRebuild(density))) {
+            if (cardAtlas != null) {
+                cardAtlas.dispose();
+            }
+            cardAtlas = new CardAtlas(CARD_WIDTH, CARD_HEIGHT, CARD_CORNER_RADIUS, density);
+            StartupTimeline.mark("card atlas");
+        }
     }
 
     /**
@@ -887,77 +900,53 @@ public class GameScreen implements Screen, InputProcessor {
 
     @Override
     public void pause() {
+        // Paused is the last the app may hear before being killed in the background
+        if (engine == null) return;
+        if (engine.isWon()) {
+            // Nothing left to resume, even if the result screen never shows
+            SavedGame.delete();
+            journal.delete();
+        } else {
+            saveGame();
+        }
     }
 
     @Override
     public void resume() {
+        // Frame buffer contents don't survive a lost GL context (Android), so paint them again
+        if (cardAtlas != null) {
+            float density = cardAtlas.getDensity();
+            cardAtlas.dispose();
+            cardAtlas = new CardAtlas(CARD_WIDTH, CARD_HEIGHT, CARD_CORNER_RADIUS, density);
+        }
     }
 
     @Override
     public void hide() {
+        // The game screen is only left when the game has been won or abandoned
+        SavedGame.delete();
+        journal.delete();
+
+        // Other screens animate freely
+        hudTick.cancel();
+        hintService.cancel();
+        Gdx.graphics.setContinuousRendering(true);
+        perfOverlay.setVisible(false); // Hand other screens the plain GL
     }
 
     @Override
     public void dispose() {
+        hudTick.cancel();
+        hintService.dispose();
+        journal.dispose();
+        perfOverlay.dispose();
         shapeRenderer.dispose();
-        font.dispose();
-        cardFont.dispose();
+        if (cardAtlas != null) {
+            cardAtlas.dispose();
+        }
         menuStage.dispose();
-        menuSkin.dispose();
-    }
-
-    // --- Menu Skin Creation ---
-
-    private Skin createMenuSkin() {
-        Skin skin = new Skin();
-
-        // Scale fonts based on screen density for readable text on all devices
-        float density = Gdx.graphics.getDensity();
-        float menuFontScale = Math.max(1.6f, density * 1.3f);  // Button/body text
-        float titleFontScale = Math.max(2.2f, density * 1.8f); // Title
-
-        BitmapFont menuFont = new BitmapFont();
-        menuFont.getData().setScale(menuFontScale);
-        skin.add("default-font", menuFont);
-
-        BitmapFont titleFont = new BitmapFont();
-        titleFont.getData().setScale(titleFontScale);
-        skin.add("title-font", titleFont);
-
-        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        pixmap.setColor(Color.WHITE);
-        pixmap.fill();
-        skin.add("white", new Texture(pixmap));
-        pixmap.dispose();
-
-        TextButton.TextButtonStyle textButtonStyle = new TextButton.TextButtonStyle();
-        textButtonStyle.up = skin.newDrawable("white", new Color(0.25f, 0.45f, 0.35f, 1f));
-        textButtonStyle.down = skin.newDrawable("white", new Color(0.15f, 0.35f, 0.25f, 1f));
-        textButtonStyle.over = skin.newDrawable("white", new Color(0.3f, 0.5f, 0.4f, 1f));
-        textButtonStyle.font = menuFont;
-        textButtonStyle.fontColor = Color.WHITE;
-        skin.add("default", textButtonStyle);
-
-        com.badlogic.gdx.scenes.scene2d.ui.Window.WindowStyle windowStyle =
-            new com.badlogic.gdx.scenes.scene2d.ui.Window.WindowStyle();
-        windowStyle.titleFont = titleFont;
-        windowStyle.titleFontColor = Color.WHITE;
-        windowStyle.background = skin.newDrawable("white", new Color(0.15f, 0.25f, 0.2f, 0.95f));
-        skin.add("default", windowStyle);
-
-        com.badlogic.gdx.scenes.scene2d.ui.Label.LabelStyle labelStyle =
-            new com.badlogic.gdx.scenes.scene2d.ui.Label.LabelStyle();
-        labelStyle.font = menuFont;
-        labelStyle.fontColor = Color.WHITE;
-        skin.add("default", labelStyle);
-
-        com.badlogic.gdx.scenes.scene2d.ui.Label.LabelStyle titleStyle =
-            new com.badlogic.gdx.scenes.scene2d.ui.Label.LabelStyle();
-        titleStyle.font = titleFont;
-        titleStyle.fontColor = Color.WHITE;
-        skin.add("title", titleStyle);
-
-        return skin;
+        game.getResources().release(ResourceRegistry.HUD_FONT);
+        game.getResources().release(ResourceRegistry.UI_SKIN);
     }
 
     private void showPauseMenu() {
@@ -987,9 +976,9 @@ public class GameScreen implements Screen, InputProcessor {
 
         // Stats
         String statsText = "Time: " + formatTime(elapsedGameTime) + "\n" +
-                          "Score: " + score + "\n" +
-                          "Moves: " + totalMoves + "\n" +
-                          "Undos: " + totalUndos;
+                          "Score: " + engine.getScore() + "\n" +
+                          "Moves: " + engine.getTotalMoves() + "\n" +
+                          "Undos: " + engine.getTotalUndos();
         com.badlogic.gdx.scenes.scene2d.ui.Label statsLabel = new com.badlogic.gdx.scenes.scene2d.ui.Label(
             statsText, menuSkin);
         menuTable.add(statsLabel).padBottom(titlePadding);
@@ -1013,7 +1002,8 @@ public class GameScreen implements Screen, InputProcessor {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
                 // Create aborted game result
-                GameResult result = new GameResult(config, GameResult.Outcome.ABORTED, score, totalMoves, totalUndos, elapsedGameTime, completedSuits);
+                GameResult result = createResult(GameResult.Outcome.ABORTED);
+                game.getHistory().add(result);
 
                 // Navigate based on game mode
                 if (config.getMode() == GameConfig.GameMode.SOLO_PRACTICE) {
@@ -1023,7 +1013,6 @@ public class GameScreen implements Screen, InputProcessor {
                     // Daily Grind returns to main menu
                     game.setScreen(new MainMenuScreen(game));
                 }
-                dispose();
             }
         });
         menuTable.add(abortButton).width(buttonWidth).height(buttonHeight);
@@ -1033,16 +1022,26 @@ public class GameScreen implements Screen, InputProcessor {
     }
 
     private String formatTime(float seconds) {
-        int totalSeconds = (int) seconds;
+        StringBuilder text = new StringBuilder(5);
+        appendTime(text, (int) seconds);
+        return text.toString();
+    }
+
+    // mm:ss, without going through String.format
+    private static void appendTime(StringBuilder text, int totalSeconds) {
         int minutes = totalSeconds / 60;
         int secs = totalSeconds % 60;
-        return String.format("%02d:%02d", minutes, secs);
+        if (minutes < 10) text.append('0');
+        text.append(minutes).append(':');
+        if (secs < 10) text.append('0');
+        text.append(secs);
     }
 
     // --- InputProcessor Implementation ---
 
     @Override
     public boolean keyDown(int keycode) {
+        idleTime = 0;
         if (keycode == Input.Keys.ESCAPE) {
             if (menuOpen) {
                 menuOpen = false;
@@ -1056,12 +1055,26 @@ public class GameScreen implements Screen, InputProcessor {
         // Ctrl+Z for undo
         if (keycode == Input.Keys.Z && (Gdx.input.isKeyPressed(Input.Keys.CONTROL_LEFT) ||
                                          Gdx.input.isKeyPressed(Input.Keys.CONTROL_RIGHT))) {
-            if (canUndo()) {
+            if (engine.canUndo()) {
                 undo();
             }
             return true;
         }
 
+        if (keycode == Input.Keys.H && !menuOpen) {
+            showHint();
+            return true;
+        }
+
+        if (keycode == Input.Keys.F3) {
+            togglePerfOverlay();
+            return true;
+        }
+        if (keycode == Input.Keys.F4) {
+            dumpFrameTimes();
+            return true;
+        }
+
         return false;
     }
 
@@ -1075,20 +1088,31 @@ public class GameScreen implements Screen, InputProcessor {
         return false;
     }
 
-    private float[] screenToWorld(int screenX, int screenY) {
-        // Convert screen coordinates to world coordinates using viewport
-        com.badlogic.gdx.math.Vector2 worldCoords = viewport.unproject(
-            new com.badlogic.gdx.math.Vector2(screenX, screenY));
-        return new float[]{worldCoords.x, worldCoords.y};
+    // Convert screen coordinates to world coordinates using viewport; the result is only
+    // valid until the next call
+    private Vector2 screenToWorld(int screenX, int screenY) {
+        return viewport.unproject(worldCoords.set(screenX, screenY));
     }
 
     @Override
     public boolean touchDown(int screenX, int screenY, int pointer, int button) {
         if (menuOpen) return false;
+        idleTime = 0;
 
-        float[] world = screenToWorld(screenX, screenY);
-        float worldX = world[0];
-        float worldY = world[1];
+        // Debug gestures for phones without a keyboard: a third finger toggles the
+        // performance overlay, a fourth dumps the frame times
+        if (pointer == 2) {
+            togglePerfOverlay();
+            return true;
+        }
+        if (pointer == 3) {
+            dumpFrameTimes();
+            return true;
+        }
+
+        Vector2 world = screenToWorld(screenX, screenY);
+        float worldX = world.x;
+        float worldY = world.y;
 
         // Check hamburger menu click
         if (isOnMenuIcon(worldX, worldY)) {
@@ -1101,10 +1125,25 @@ public class GameScreen implements Screen, InputProcessor {
         if (isOnUndoIcon(worldX, worldY)) {
             return true; // Consume the event but don't undo yet
         }
+        if (isOnHintIcon(worldX, worldY)) {
+            return true; // Hint also fires on touchUp
+        }
 
         // Check stock pile click
         if (isOnStock(worldX, worldY)) {
-            dealFromStock();
+            int suitsBefore = engine.getCompletedSuits();
+            if (engine.canDeal()) {
+                recorder.recordMove(engine, Moves.DEAL);
+            }
+            beginAnimation();
+            boolean dealt = engine.dealFromStock();
+            animator.end();
+            if (dealt) {
+                journalAction(MoveJournal.TYPE_DEAL, 0, 0, 0, suitsBefore);
+                layout.invalidateAll();
+                boardChanged();
+                checkForWin();
+            }
             return true;
         }
 
@@ -1112,20 +1151,18 @@ public class GameScreen implements Screen, InputProcessor {
         touchDownY = worldY;
 
         // Find which card was clicked
-        int[] hit = getCardAtPosition(worldX, worldY);
-        if (hit != null) {
-            int col = hit[0];
-            int cardIndex = hit[1];
-            List<Card> tableau = tableaus.get(col);
-            Card card = tableau.get(cardIndex);
-
-            if (!card.isFaceUp()) {
+        if (getCardAtPosition(worldX, worldY)) {
+            int col = hitCol;
+            int cardIndex = hitRow;
+            byte card = engine.getCard(col, cardIndex);
+
+            if (!Cards.isFaceUp(card)) {
                 // Tapped on unrevealed card - toggle collapsed state for this column
-                tableauCollapsed[col] = !tableauCollapsed[col];
+                layout.toggleCollapsed(col);
                 return true;
             }
 
-            if (card.isFaceUp()) {
+            if (Cards.isFaceUp(card)) {
                 // Check for double-click / quick tap
                 long currentTime = System.currentTimeMillis();
                 if (col == lastTapCol && cardIndex == lastTapCardIndex &&
@@ -1134,7 +1171,7 @@ public class GameScreen implements Screen, InputProcessor {
                     tryAutoMove(col, cardIndex);
                     lastTapTime = 0;
                     // Clear any drag state to prevent accidental moves
-                    draggedCards = new ArrayList<>();
+                    dragCardCount = 0;
                     isDragging = false;
                     return true;
                 }
@@ -1144,28 +1181,25 @@ public class GameScreen implements Screen, InputProcessor {
                 lastTapCardIndex = cardIndex;
 
                 // Start potential drag
-                List<Card> validStack = getValidStackFromCard(col, cardIndex);
-                if (validStack != null && !validStack.isEmpty()) {
+                int validStackSize = engine.getValidStackFromCard(col, cardIndex);
+                if (validStackSize > 0) {
                     dragSourceCol = col;
                     dragSourceCardIndex = cardIndex;
-                    draggedCards = validStack;
+                    dragCardCount = validStackSize;
 
-                    // Calculate card Y position using dynamic spacing
-                    float availableHeight = startY - safeBottomMargin;
-                    float[] spacings = calculateCardSpacings(col, availableHeight);
                     float cardX = startX + col * TABLEAU_SPACING;
-                    float cardY = startY;
-                    for (int i = 0; i < cardIndex; i++) {
-                        cardY -= spacings[i];
-                    }
-                    cardY -= CARD_HEIGHT;
+                    float cardY = layout.getCardY(col, cardIndex);
 
                     dragOffsetX = worldX - cardX;
                     dragOffsetY = worldY - cardY;
                     dragCurrentX = worldX;
                     dragCurrentY = worldY;
+                    findLegalDrops(col, card);
                 }
             }
+        } else {
+            // A tap on the felt skips whatever is still moving
+            animator.finishAll();
         }
         return true;
     }
@@ -1174,26 +1208,38 @@ public class GameScreen implements Screen, InputProcessor {
     public boolean touchUp(int screenX, int screenY, int pointer, int button) {
         if (menuOpen) return false;
 
-        float[] world = screenToWorld(screenX, screenY);
-        float worldX = world[0];
-        float worldY = world[1];
+        Vector2 world = screenToWorld(screenX, screenY);
+        float worldX = world.x;
+        float worldY = world.y;
 
         // Check undo icon click - trigger on touchUp for proper button behavior
-        if (isOnUndoIcon(worldX, worldY) && canUndo()) {
+        if (isOnUndoIcon(worldX, worldY) && engine.canUndo()) {
             undo();
             // Reset drag state just in case
             isDragging = false;
-            draggedCards = new ArrayList<>();
+            dragCardCount = 0;
+            return true;
+        }
+
+        if (isOnHintIcon(worldX, worldY) && !isDragging) {
+            showHint();
+            dragCardCount = 0;
             return true;
         }
 
-        if (isDragging && !draggedCards.isEmpty()) {
-            // Find the best valid drop target (closest column that accepts the cards)
-            int targetCol = findBestDropTarget(worldX, draggedCards.get(0), dragSourceCol);
-            if (targetCol >= 0 && targetCol != dragSourceCol) {
+        if (isDragging && dragCardCount > 0) {
+            // Closest column that accepts the cards; checked again in case a deal came in mid-drag
+            byte topCard = engine.getCard(dragSourceCol, dragSourceCardIndex);
+            int targetCol = findBestDropTarget(worldX);
+            if (targetCol >= 0 && engine.canDropOnColumn(targetCol, topCard)) {
                 moveCards(dragSourceCol, dragSourceCardIndex, targetCol);
+            } else {
+                // Glide back from where they were let go
+                beginAnimation();
+                animator.returnToSlots(dragSourceCol, dragSourceCardIndex);
+                animator.end();
             }
-        } else if (!isDragging && draggedCards != null && !draggedCards.isEmpty()) {
+        } else if (!isDragging && dragCardCount > 0) {
             // Was a tap, not a drag - check for quick tap auto-move
             long currentTime = System.currentTimeMillis();
             if ((currentTime - lastTapTime) < TAP_THRESHOLD_MS) {
@@ -1203,14 +1249,14 @@ public class GameScreen implements Screen, InputProcessor {
 
         // Reset drag state
         isDragging = false;
-        draggedCards = new ArrayList<>();
+        dragCardCount = 0;
         return true;
     }
 
     @Override
     public boolean touchCancelled(int screenX, int screenY, int pointer, int button) {
         isDragging = false;
-        draggedCards = new ArrayList<>();
+        dragCardCount = 0;
         return false;
     }
 
@@ -1218,19 +1264,22 @@ public class GameScreen implements Screen, InputProcessor {
     public boolean touchDragged(int screenX, int screenY, int pointer) {
         if (menuOpen) return false;
 
-        float[] world = screenToWorld(screenX, screenY);
-        float worldX = world[0];
-        float worldY = world[1];
+        Vector2 world = screenToWorld(screenX, screenY);
+        float worldX = world.x;
+        float worldY = world.y;
 
-        if (draggedCards != null && !draggedCards.isEmpty()) {
+        if (dragCardCount > 0) {
             float dx = worldX - touchDownX;
             float dy = worldY - touchDownY;
             if (!isDragging && (Math.abs(dx) > DRAG_THRESHOLD || Math.abs(dy) > DRAG_THRESHOLD)) {
                 isDragging = true;
+                animator.finish(dragSourceCol, dragSourceCardIndex); // Picked up, so they follow the pointer instead
             }
             if (isDragging) {
                 dragCurrentX = worldX;
                 dragCurrentY = worldY;
+                dropTargetCol = findBestDropTarget(worldX);
+                Gdx.graphics.requestRendering(); // Full frame rate while cards follow the pointer
             }
         }
         return true;
@@ -1266,69 +1315,62 @@ public class GameScreen implements Screen, InputProcessor {
                worldY >= y && worldY <= y + buttonSize;
     }
 
+    private boolean isOnHintIcon(float worldX, float worldY) {
+        float buttonMargin = 8f;
+        float x = hintIconX - buttonMargin;
+        float y = hintIconY - buttonMargin;
+        float buttonSize = iconSize + buttonMargin * 2;
+        return worldX >= x && worldX <= x + buttonSize &&
+               worldY >= y && worldY <= y + buttonSize;
+    }
+
     private boolean isOnStock(float worldX, float worldY) {
         return worldX >= stockX && worldX <= stockX + CARD_WIDTH &&
                worldY >= stockY && worldY <= stockY + CARD_HEIGHT;
     }
 
-    private int[] getCardAtPosition(float worldX, float worldY) {
-        float availableHeight = startY - safeBottomMargin;
-
-        for (int col = 0; col < 10; col++) {
-            List<Card> tableau = tableaus.get(col);
-            float cardX = startX + col * TABLEAU_SPACING;
-
-            if (worldX >= cardX && worldX <= cardX + CARD_WIDTH) {
-                if (tableau.isEmpty()) continue;
-
-                // Calculate card positions using dynamic spacing
-                float[] spacings = calculateCardSpacings(col, availableHeight);
-                float[] cardYPositions = new float[tableau.size()];
-
-                float currentY = startY;
-                for (int row = 0; row < tableau.size(); row++) {
-                    cardYPositions[row] = currentY - CARD_HEIGHT;
-                    if (row < tableau.size() - 1) {
-                        currentY -= spacings[row];
-                    }
-                }
-
-                // Check from top card down (reverse order for proper overlap detection)
-                for (int row = tableau.size() - 1; row >= 0; row--) {
-                    float cardY = cardYPositions[row];
-                    float cardTop = cardY + CARD_HEIGHT;
-                    float cardBottom = cardY;
+    // On a hit, leaves the card's column and row in hitCol and hitRow
+    private boolean getCardAtPosition(float worldX, float worldY) {
+        int col = getColumnAt(worldX);
+        if (col < 0) return false;
+        int row = layout.getCardAt(col, worldY);
+        if (row < 0) return false;
+        hitCol = col;
+        hitRow = row;
+        return true;
+    }
 
-                    // For non-top cards, only the visible portion is clickable
-                    if (row < tableau.size() - 1) {
-                        float spacing = spacings[row];
-                        cardBottom = cardY + CARD_HEIGHT - spacing;
-                    }
+    // Columns sit at a fixed pitch, so the one under worldX is a division away; -1 in a gap
+    private int getColumnAt(float worldX) {
+        if (worldX < startX) return -1;
+        int col = (int) ((worldX - startX) / TABLEAU_SPACING);
+        if (col >= SpiderEngine.NUM_COLUMNS || worldX > startX + col * TABLEAU_SPACING + CARD_WIDTH) return -1;
+        return col;
+    }
 
-                    if (worldY >= cardBottom && worldY <= cardTop) {
-                        return new int[]{col, row};
-                    }
-                }
-            }
+    private void findLegalDrops(int sourceCol, byte topCard) {
+        for (int col = 0; col < SpiderEngine.NUM_COLUMNS; col++) {
+            dropAllowed[col] = col != sourceCol && engine.canDropOnColumn(col, topCard);
         }
-        return null;
+        dropTargetCol = -1;
     }
 
-    private int findBestDropTarget(float worldX, Card topCard, int sourceCol) {
-        // Find the closest valid column to drop the card
-        // Must be within 1.5x card width to count as a valid drop
+    private int findBestDropTarget(float worldX) {
+        // Find the closest legal column to drop the cards on
+        // Must be within 1.5x card width to count as a valid drop, so only nearby columns are candidates
         float maxDropDistance = CARD_WIDTH * 1.5f;
+        float firstCenterX = startX + CARD_WIDTH / 2f;
+        int first = Math.max(0, (int) Math.ceil((worldX - maxDropDistance - firstCenterX) / TABLEAU_SPACING));
+        int last = Math.min(SpiderEngine.NUM_COLUMNS - 1,
+            (int) Math.floor((worldX + maxDropDistance - firstCenterX) / TABLEAU_SPACING));
         int bestCol = -1;
         float bestDistance = Float.MAX_VALUE;
 
-        for (int col = 0; col < 10; col++) {
-            if (col == sourceCol) continue; // Skip source column
-
-            // Check if this column can accept the card
-            if (!canDropOnColumn(col, topCard)) continue;
+        for (int col = first; col <= last; col++) {
+            if (!dropAllowed[col]) continue;
 
             // Calculate distance to this column's center
-            float colCenterX = startX + col * TABLEAU_SPACING + CARD_WIDTH / 2f;
+            float colCenterX = firstCenterX + col * TABLEAU_SPACING;
             float distance = Math.abs(worldX - colCenterX);
 
             // Only consider if within max drop distance
@@ -1343,12 +1385,8 @@ public class GameScreen implements Screen, InputProcessor {
 
     // --- Undo System ---
 
-    private void saveGameState() {
-        moveHistory.add(new GameState(tableaus, stock, completedSuits, score, totalMoves));
-    }
-
     private void undo() {
-        if (moveHistory.size() <= 1) return; // Can't undo initial state
+        if (!engine.canUndo()) return; // Can't undo initial state
 
         // Debounce to prevent double-firing within 300ms
         long currentTime = System.currentTimeMillis();
@@ -1357,254 +1395,143 @@ public class GameScreen implements Screen, InputProcessor {
         }
         lastUndoTime = currentTime;
 
-        // History contains states saved BEFORE each move
-        // The last entry is the state before the most recent move
-        // We restore that state and remove it from history
-        GameState stateToRestore = moveHistory.remove(moveHistory.size() - 1);
-
-        // Deep copy back from saved state
-        tableaus = new ArrayList<>();
-        for (List<Card> tableau : stateToRestore.tableaus) {
-            List<Card> tableCopy = new ArrayList<>();
-            for (Card card : tableau) {
-                tableCopy.add(card.copy());
-            }
-            tableaus.add(tableCopy);
-        }
-
-        stock = new ArrayList<>();
-        for (Card card : stateToRestore.stock) {
-            stock.add(card.copy());
-        }
-
-        completedSuits = stateToRestore.completedSuits;
-
-        // Restore the score and moves from the saved state, then apply undo penalty
-        score = stateToRestore.score + POINTS_PER_MOVE;
-        totalMoves = stateToRestore.totalMoves + 1;
-        totalUndos++;
+        recorder.recordUndo(engine);
+        beginAnimation();
+        engine.undo();
+        animator.end();
+        journalAction(MoveJournal.TYPE_UNDO, 0, 0, 0, engine.getCompletedSuits());
+        layout.invalidateAll(); // Undo can restore a completed suit or a deal anywhere
+        boardChanged();
     }
 
-    private boolean canUndo() {
-        return moveHistory.size() > 1;
-    }
+    // --- Moves ---
 
-    private boolean hasEmptyTableau() {
-        for (List<Card> tableau : tableaus) {
-            if (tableau.isEmpty()) {
-                return true;
-            }
-        }
-        return false;
+    private void moveCards(int sourceCol, int sourceCardIndex, int targetCol) {
+        int suitsBefore = engine.getCompletedSuits();
+        recorder.recordMove(engine, Moves.encode(sourceCol, sourceCardIndex, targetCol));
+        beginAnimation();
+        engine.moveCards(sourceCol, sourceCardIndex, targetCol);
+        animator.end();
+        journalAction(MoveJournal.TYPE_MOVE, sourceCol, sourceCardIndex, targetCol, suitsBefore);
+        layout.invalidate(sourceCol);
+        layout.invalidate(targetCol);
+        boardChanged();
+        checkForWin();
     }
 
-    // --- Stock Dealing ---
-
-    private void dealFromStock() {
-        if (stock.isEmpty()) return;
-
-        // Check that all tableaus have at least one card (spider solitaire rule)
-        for (List<Card> tableau : tableaus) {
-            if (tableau.isEmpty()) {
-                // Can't deal if any tableau is empty
-                return;
-            }
-        }
-
-        // Save state before dealing
-        saveGameState();
-
-        // Deal one card to each tableau (10 cards total per deal)
-        for (int col = 0; col < 10; col++) {
-            if (!stock.isEmpty()) {
-                Card card = stock.remove(stock.size() - 1);
-                card.setFaceUp(true);
-                tableaus.get(col).add(card);
+    // Before the engine changes the board: where every card is drawn now, for the animation to start from
+    private void beginAnimation() {
+        animator.begin(stockX, stockY, suitsPileX, stockY);
+        for (int col = 0; col < SpiderEngine.NUM_COLUMNS; col++) {
+            float slotX = startX + col * TABLEAU_SPACING;
+            int length = engine.getColumnLength(col);
+            for (int row = 0; row < length; row++) {
+                float slotY = layout.getCardY(col, row);
+                if (isDragging && col == dragSourceCol && row >= dragSourceCardIndex) {
+                    animator.setOrigin(col, row, dragCurrentX - dragOffsetX,
+                        dragCurrentY - dragOffsetY - (row - dragSourceCardIndex) * TableauLayout.CARD_SPACING_REVEALED);
+                    continue;
+                }
+                CardAnimator.Tween tween = animator.getSlot(col, row);
+                if (tween != null) {
+                    animator.setOrigin(col, row, tween.x(slotX), tween.y(slotY));
+                } else {
+                    animator.setOrigin(col, row, slotX, slotY);
+                }
             }
         }
-
-        // Count as a move
-        totalMoves++;
-        score += POINTS_PER_MOVE;
-
-        // Check all columns for completed suits after dealing
-        for (int col = 0; col < 10; col++) {
-            checkAndRemoveCompletedSuit(col);
-        }
-    }
-
-    // --- Stack Validation ---
-
-    private List<Card> getValidStackFromCard(int col, int cardIndex) {
-        List<Card> tableau = tableaus.get(col);
-        List<Card> stack = new ArrayList<>();
-
-        if (cardIndex < 0 || cardIndex >= tableau.size()) return null;
-
-        Card firstCard = tableau.get(cardIndex);
-        if (!firstCard.isFaceUp()) return null;
-
-        stack.add(firstCard);
-
-        // Check if all cards below form a same-suit descending sequence
-        for (int i = cardIndex + 1; i < tableau.size(); i++) {
-            Card prevCard = tableau.get(i - 1);
-            Card card = tableau.get(i);
-
-            if (!card.isFaceUp()) return null;
-            if (card.getSuit() != prevCard.getSuit()) return null;
-            if (card.getRank() != prevCard.getRank() - 1) return null;
-
-            stack.add(card);
-        }
-
-        return stack;
-    }
-
-    private boolean canDropOnColumn(int targetCol, Card topDraggedCard) {
-        List<Card> targetTableau = tableaus.get(targetCol);
-
-        if (targetTableau.isEmpty()) {
-            return true; // Can always drop on empty column
-        }
-
-        Card targetTopCard = targetTableau.get(targetTableau.size() - 1);
-        // Can drop if target card is exactly one rank higher
-        return targetTopCard.getRank() == topDraggedCard.getRank() + 1;
     }
 
-    private void moveCards(int sourceCol, int sourceCardIndex, int targetCol) {
-        // Save state before move
-        saveGameState();
-
-        List<Card> sourceTableau = tableaus.get(sourceCol);
-        List<Card> targetTableau = tableaus.get(targetCol);
-
-        // Move cards from source to target
-        List<Card> cardsToMove = new ArrayList<>(sourceTableau.subList(sourceCardIndex, sourceTableau.size()));
-        targetTableau.addAll(cardsToMove);
-
-        // Remove from source
-        sourceTableau.subList(sourceCardIndex, sourceTableau.size()).clear();
-
-        // Flip the new top card if face down
-        if (!sourceTableau.isEmpty()) {
-            Card newTopCard = sourceTableau.get(sourceTableau.size() - 1);
-            if (!newTopCard.isFaceUp()) {
-                newTopCard.setFaceUp(true);
-            }
+    private void checkForWin() {
+        if (engine.isWon()) {
+            winPending = true; // Shown once the animations are done
+            Gdx.graphics.requestRendering();
         }
-
-        // Track move and update score
-        totalMoves++;
-        score += POINTS_PER_MOVE;
-
-        // Check for completed suit
-        checkAndRemoveCompletedSuit(targetCol);
     }
 
-    private void checkAndRemoveCompletedSuit(int col) {
-        List<Card> tableau = tableaus.get(col);
-        if (tableau.size() < 13) return;
-
-        // Check if the last 13 cards form a complete same-suit sequence K to A
-        int startIndex = tableau.size() - 13;
-        Card firstCard = tableau.get(startIndex);
-
-        if (firstCard.getRank() != 13) return; // Must start with King
-
-        Suit suit = firstCard.getSuit();
-        for (int i = 0; i < 13; i++) {
-            Card card = tableau.get(startIndex + i);
-            if (card.getSuit() != suit || card.getRank() != 13 - i || !card.isFaceUp()) {
-                return;
-            }
-        }
-
-        // Found a complete suit! Remove from tableau
-        tableau.subList(startIndex, tableau.size()).clear();
-
-        // Flip new top card
-        if (!tableau.isEmpty()) {
-            Card newTop = tableau.get(tableau.size() - 1);
-            if (!newTop.isFaceUp()) {
-                newTop.setFaceUp(true);
-            }
-        }
-
-        // Update scoring
-        completedSuits++;
-        score += POINTS_PER_COMPLETED_SUIT;
-
-        // Check for win
-        if (completedSuits >= requiredSuitsToWin) {
-            showWinDialog();
-        }
+    private GameResult createResult(GameResult.Outcome outcome) {
+        return new GameResult(config, outcome, engine.getScore(), engine.getTotalMoves(),
+            engine.getTotalUndos(), elapsedGameTime, engine.getCompletedSuits(),
+            recorder.isRecording() ? recorder.toReplay() : null);
     }
 
     private void showWinDialog() {
         // Create game result
-        GameResult result = new GameResult(config, GameResult.Outcome.WON, score, totalMoves, totalUndos, elapsedGameTime, completedSuits);
+        GameResult result = createResult(GameResult.Outcome.WON);
+        game.getHistory().add(result);
 
         // Navigate based on game mode
         if (config.getMode() == GameConfig.GameMode.SOLO_PRACTICE) {
             // Solo Practice shows result screen with play again option (pass prior result for comparison)
             game.setScreen(new ResultScreen(game, result, priorResult));
-            dispose();
         } else {
-            // Daily Grind returns to main menu (future: could show leaderboard)
+            // Daily Grind returns to main menu (future: could show leaderboard), keeping the
+            // replay as the submission a leaderboard would verify
+            ReplayFile.save(result, game.getFiles(), null);
             game.setScreen(new MainMenuScreen(game));
-            dispose();
         }
     }
 
     // --- Auto-Move ---
 
     private void tryAutoMove(int col, int cardIndex) {
-        List<Card> stack = getValidStackFromCard(col, cardIndex);
-        if (stack == null || stack.isEmpty()) return;
+        int bestTarget = engine.findAutoMoveTarget(col, cardIndex);
+        if (bestTarget >= 0) {
+            moveCards(col, cardIndex, bestTarget);
+        }
+    }
 
-        Card topCard = stack.get(0);
-        int bestTarget = -1;
-        int priority = Integer.MAX_VALUE;
+    // --- Hints ---
 
-        for (int targetCol = 0; targetCol < 10; targetCol++) {
-            if (targetCol == col) continue;
+    private void updateHint(float delta) {
+        if (hintDisplayTime > 0) {
+            hintDisplayTime -= delta;
+        }
+        if (menuOpen) return;
 
-            List<Card> targetTableau = tableaus.get(targetCol);
+        // Search speculatively while the player thinks, so the hint button answers at once
+        idleTime += delta;
+        if (idleTime >= HINT_IDLE_DELAY && hint == null && !hintService.isSearching()) {
+            requestHint();
+        }
+    }
 
-            if (targetTableau.isEmpty()) {
-                // Priority 3: Empty column (only if we don't have a better option)
-                if (priority > 3) {
-                    bestTarget = targetCol;
-                    priority = 3;
-                }
-            } else {
-                Card targetTop = targetTableau.get(targetTableau.size() - 1);
-                if (targetTop.getRank() == topCard.getRank() + 1) {
-                    if (targetTop.getSuit() == topCard.getSuit()) {
-                        // Priority 1: Same suit, one rank higher
-                        if (priority > 1) {
-                            bestTarget = targetCol;
-                            priority = 1;
-                        }
-                    } else {
-                        // Priority 2: Different suit, one rank higher
-                        if (priority > 2) {
-                            bestTarget = targetCol;
-                            priority = 2;
-                        }
-                    }
+    private void requestHint() {
+        hintService.request(engine, HINT_BUDGET_MS, new HintService.Listener() {
+            @Override
+            public void onHint(HintResult result) {
+                hint = result;
+                if (hintWanted) {
+                    hintWanted = false;
+                    hintDisplayTime = HINT_DISPLAY_TIME;
+                    Gdx.graphics.requestRendering();
                 }
             }
-        }
+        });
+    }
 
-        if (bestTarget >= 0) {
-            moveCards(col, cardIndex, bestTarget);
+    private void showHint() {
+        if (hint != null) {
+            hintDisplayTime = HINT_DISPLAY_TIME;
+        } else {
+            // Shown as soon as the search posts its result
+            hintWanted = true;
+            if (!hintService.isSearching()) {
+                requestHint();
+            }
         }
     }
 
-    // --- Inner classes for card data model ---
+    // Any earlier ranking is for a board that no longer exists
+    private void boardChanged() {
+        hintService.cancel();
+        hint = null;
+        hintWanted = false;
+        hintDisplayTime = 0;
+        idleTime = 0;
+    }
+
+    // --- Suit colors and symbols for the engine's packed suit indices ---
 
     enum Suit {
         SPADES("S", new Color(0.1f, 0.1f, 0.1f, 1f)),      // Dark gray/black
@@ -1614,6 +1541,8 @@ public class GameScreen implements Screen, InputProcessor {
         HORSES("O", new Color(0.7f, 0.4f, 0.0f, 1f)),      // Orange (horseshoe)
         BALLS("B", new Color(0.6f, 0.1f, 0.6f, 1f));       // Purple
 
+        private static final Suit[] VALUES = values();
+
         private final String symbol;
         private final Color color;
 
@@ -1622,6 +1551,10 @@ public class GameScreen implements Screen, InputProcessor {
             this.color = color;
         }
 
+        public static Suit of(byte card) {
+            return VALUES[Cards.suit(card)];
+        }
+
         public String getSymbol() {
             return symbol;
         }
@@ -1630,79 +1563,4 @@ public class GameScreen implements Screen, InputProcessor {
             return color;
         }
     }
-
-    static class Card {
-        private final Suit suit;
-        private final int rank; // 1 = Ace, 11 = Jack, 12 = Queen, 13 = King
-        private boolean faceUp;
-
-        public Card(Suit suit, int rank) {
-            this.suit = suit;
-            this.rank = rank;
-            this.faceUp = false;
-        }
-
-        public Suit getSuit() {
-            return suit;
-        }
-
-        public int getRank() {
-            return rank;
-        }
-
-        public boolean isFaceUp() {
-            return faceUp;
-        }
-
-        public void setFaceUp(boolean faceUp) {
-            this.faceUp = faceUp;
-        }
-
-        public String getRankSymbol() {
-            switch (rank) {
-                case 1: return "A";
-                case 11: return "J";
-                case 12: return "Q";
-                case 13: return "K";
-                default: return String.valueOf(rank);
-            }
-        }
-
-        public Card copy() {
-            Card copy = new Card(this.suit, this.rank);
-            copy.faceUp = this.faceUp;
-            return copy;
-        }
-    }
-
-    // Stores a complete snapshot of game state for undo
-    static class GameState {
-        final List<List<Card>> tableaus;
-        final List<Card> stock;
-        final int completedSuits;
-        final int score;
-        final int totalMoves;
-
-        GameState(List<List<Card>> tableaus, List<Card> stock, int completedSuits, int score, int totalMoves) {
-            // Deep copy tableaus
-            this.tableaus = new ArrayList<>();
-            for (List<Card> tableau : tableaus) {
-                List<Card> tableCopy = new ArrayList<>();
-                for (Card card : tableau) {
-                    tableCopy.add(card.copy());
-                }
-                this.tableaus.add(tableCopy);
-            }
-
-            // Deep copy stock
-            this.stock = new ArrayList<>();
-            for (Card card : stock) {
-                this.stock.add(card.copy());
-            }
-
-            this.completedSuits = completedSuits;
-            this.score = score;
-            this.totalMoves = totalMoves;
-        }
-    }
 }
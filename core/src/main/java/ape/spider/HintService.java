@@ -0,0 +1,86 @@
+package ape.spider;
+
+import com.badlogic.gdx.Gdx;
+import ape.spider.engine.SpiderEngine;
+import ape.spider.solver.HintResult;
+import ape.spider.solver.HintSearch;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runs {@link HintSearch} on a background thread so the render thread never waits for it.
+ * Each request searches a copy of the position; results are handed back on the render
+ * thread through {@link com.badlogic.gdx.Application#postRunnable}, and a result whose
+ * request was cancelled or superseded in the meantime is dropped.
+ * All methods must be called from the render thread.
+ */
+public class HintService {
+    /** Receives a finished hint on the render thread. */
+    public interface Listener {
+        void onHint(HintResult result);
+    }
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "hint-search");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY); // Leave the cores to rendering
+            return thread;
+        }
+    });
+
+    private HintSearch running;
+    private int generation;
+
+    /**
+     * Start ranking moves for the engine's current position, cancelling any earlier request.
+     * The listener is called on the render thread unless the request is cancelled first.
+     */
+    public void request(SpiderEngine engine, final long budgetMillis, final Listener listener) {
+        cancel();
+
+        final int requestGeneration = generation;
+        final SpiderEngine position = engine.copy();
+        position.setCollapseRepetitions(false); // The search backtracks through undo
+        final HintSearch search = new HintSearch();
+        running = search;
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final HintResult result = search.search(position, budgetMillis);
+                if (result.isCancelled()) return;
+
+                Gdx.app.postRunnable(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (requestGeneration != generation) return; // Board changed since
+                        running = null;
+                        listener.onHint(result);
+                    }
+                });
+            }
+        });
+    }
+
+    /** Stop the current search, if any, and drop its result. */
+    public void cancel() {
+        generation++;
+        if (running != null) {
+            running.cancel();
+            running = null;
+        }
+    }
+
+    public boolean isSearching() {
+        return running != null;
+    }
+
+    public void dispose() {
+        cancel();
+        executor.shutdownNow();
+    }
+}
@@ -2,10 +2,6 @@ package ape.spider;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
-import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
@@ -27,10 +23,10 @@ public class InfoScreen implements Screen {
 
     @Override
     public void show() {
-        stage = new Stage(new ScreenViewport());
+        stage = new Stage(new ScreenViewport(), game.getBatch());
         Gdx.input.setInputProcessor(stage);
 
-        skin = createBasicSkin();
+        skin = game.getResources().acquireUiSkin();
 
         // Create root table with safe area padding
         Table rootTable = new Table();
@@ -93,48 +89,6 @@ public class InfoScreen implements Screen {
         table.add(backButton).width(buttonWidth).height(buttonHeight).padTop(titlePadding * 1.5f);
     }
 
-    private Skin createBasicSkin() {
-        Skin skin = new Skin();
-
-        float density = Gdx.graphics.getDensity();
-        float fontScale = Math.max(1.6f, density * 1.3f);  // Body text
-        float titleScale = Math.max(2.2f, density * 1.8f); // Title
-
-        BitmapFont font = new BitmapFont();
-        font.getData().setScale(fontScale);
-        skin.add("default-font", font);
-
-        BitmapFont titleFont = new BitmapFont();
-        titleFont.getData().setScale(titleScale);
-        skin.add("title-font", titleFont);
-
-        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        pixmap.setColor(Color.WHITE);
-        pixmap.fill();
-        skin.add("white", new Texture(pixmap));
-        pixmap.dispose();
-
-        TextButton.TextButtonStyle textButtonStyle = new TextButton.TextButtonStyle();
-        textButtonStyle.up = skin.newDrawable("white", new Color(0.25f, 0.45f, 0.35f, 1f));
-        textButtonStyle.down = skin.newDrawable("white", new Color(0.15f, 0.35f, 0.25f, 1f));
-        textButtonStyle.over = skin.newDrawable("white", new Color(0.3f, 0.5f, 0.4f, 1f));
-        textButtonStyle.font = font;
-        textButtonStyle.fontColor = Color.WHITE;
-        skin.add("default", textButtonStyle);
-
-        Label.LabelStyle titleStyle = new Label.LabelStyle();
-        titleStyle.font = titleFont;
-        titleStyle.fontColor = Color.WHITE;
-        skin.add("title", titleStyle);
-
-        Label.LabelStyle labelStyle = new Label.LabelStyle();
-        labelStyle.font = font;
-        labelStyle.fontColor = Color.WHITE;
-        skin.add("default", labelStyle);
-
-        return skin;
-    }
-
     @Override
     public void render(float delta) {
         ScreenUtils.clear(0.1f, 0.3f, 0.2f, 1f);
@@ -159,6 +113,6 @@ public class InfoScreen implements Screen {
     @Override
     public void dispose() {
         stage.dispose();
-        skin.dispose();
+        game.getResources().release(ResourceRegistry.UI_SKIN);
     }
 }
@@ -1,27 +1,128 @@
 package ape.spider;
 
 import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Preferences;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 
 /** {@link com.badlogic.gdx.ApplicationListener} implementation shared by all platforms. */
 public class Main extends Game {
+    // The mode and suit count of the last game started, to guess what the next will be
+    private static final String PREFERENCES = "ape.spider";
+    private static final String LAST_MODE = "lastMode";
+    private static final String LAST_SUITS = "lastSuits";
+
     private SpriteBatch batch;
+    private ResourceRegistry resources;
+    // Kept for the whole session and reset for each deal, so a new game costs no GPU work
+    private GameScreen gameScreen;
+    private GameConfig preparedConfig;  // The deal gameScreen holds ready, until a game starts
+    private BackgroundFiles files;
+    private GameHistory history;
 
     @Override
     public void create() {
+        StartupTimeline.mark("Main.create");
+        files = new BackgroundFiles();
+        history = new GameHistory(files);  // Read on the files thread while the splash loads
         batch = new SpriteBatch();
+        resources = new ResourceRegistry();
+
+        // Straight back into a game the system closed in the background, or that crashed
+        SavedGame saved = MoveJournal.recover(SavedGame.load());
+        if (saved != null) {
+            StartupTimeline.mark("saved game read");
+            gameScreen = new GameScreen(this, saved.getConfig(), saved.getPriorResult());
+            gameScreen.resume(saved);
+            setScreen(gameScreen);
+            return;
+        }
         setScreen(new SplashScreen(this));
     }
 
+    /** Shared by every screen, including their Stages. */
     public SpriteBatch getBatch() {
         return batch;
     }
 
+    public ResourceRegistry getResources() {
+        return resources;
+    }
+
+    /** The thread files written at the end of a game are written on. */
+    public BackgroundFiles getFiles() {
+        return files;
+    }
+
+    /** Every game finished on this device, by deal. */
+    public GameHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Build the game screen with everything its first frame needs, dealt for the mode and
+     * difficulty played last time, so starting that game costs nothing. Called by the splash.
+     */
+    public void prepareGame() {
+        Preferences prefs = Gdx.app.getPreferences(PREFERENCES);
+        int numSuits = prefs.getInteger(LAST_SUITS, 1);
+        if (GameConfig.GameMode.DAILY_GRIND.name().equals(prefs.getString(LAST_MODE))) {
+            preparedConfig = GameConfig.dailyGrind(numSuits, DailyDeals.seedFor(DailyDeals.baseSeedToday(), numSuits));
+        } else {
+            preparedConfig = GameConfig.soloPractice(numSuits);
+        }
+
+        if (gameScreen == null) {
+            gameScreen = new GameScreen(this, preparedConfig, null);
+        } else {
+            gameScreen.reset(preparedConfig, null);
+        }
+        gameScreen.prepare(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+    }
+
+    /**
+     * Switch to the game screen with a fresh deal of config. The caller still disposes the
+     * screen it leaves; the game screen itself lives until the application exits.
+     */
+    public void startGame(GameConfig config, GameResult priorResult) {
+        StartupTimeline.mark(StartupTimeline.GAME_REQUESTED);
+        if (gameScreen == null) {
+            gameScreen = new GameScreen(this, config, priorResult);
+        } else if (priorResult != null || !isPrepared(config)) {
+            gameScreen.reset(config, priorResult);
+        }
+        preparedConfig = null;
+        rememberGame(config);
+        setScreen(gameScreen);
+    }
+
+    // A practice deal is as random dealt now as dealt at startup; a daily deal must be today's
+    private boolean isPrepared(GameConfig config) {
+        return preparedConfig != null
+            && preparedConfig.getMode() == config.getMode()
+            && preparedConfig.getNumSuits() == config.getNumSuits()
+            && (config.getMode() == GameConfig.GameMode.SOLO_PRACTICE || preparedConfig.getSeed() == config.getSeed());
+    }
+
+    private void rememberGame(GameConfig config) {
+        Preferences prefs = Gdx.app.getPreferences(PREFERENCES);
+        if (!config.getMode().name().equals(prefs.getString(LAST_MODE)) || config.getNumSuits() != prefs.getInteger(LAST_SUITS)) {
+            prefs.putString(LAST_MODE, config.getMode().name());
+            prefs.putInteger(LAST_SUITS, config.getNumSuits());
+            prefs.flush();
+        }
+    }
+
     @Override
     public void dispose() {
-        if (getScreen() != null) {
+        if (getScreen() != null && getScreen() != gameScreen) {
             getScreen().dispose();
         }
+        if (gameScreen != null) {
+            gameScreen.dispose();
+        }
+        resources.dispose();
         batch.dispose();
+        files.dispose();
     }
 }
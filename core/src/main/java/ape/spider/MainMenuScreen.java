@@ -2,10 +2,6 @@ package ape.spider;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
-import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
@@ -27,10 +23,10 @@ public class MainMenuScreen implements Screen {
 
     @Override
     public void show() {
-        stage = new Stage(new ScreenViewport());
+        stage = new Stage(new ScreenViewport(), game.getBatch());
         Gdx.input.setInputProcessor(stage);
 
-        skin = createBasicSkin();
+        skin = game.getResources().acquireUiSkin();
 
         // Create root table with safe area padding
         Table rootTable = new Table();
@@ -46,9 +42,9 @@ public class MainMenuScreen implements Screen {
             .padLeft(SafeAreaHelper.getLeftInset())
             .padRight(SafeAreaHelper.getRightInset());
 
-        TextButton soloPracticeButton = new TextButton("Solo Practice", skin);
-        TextButton dailyGrindButton = new TextButton("Daily Grind", skin);
-        TextButton infoButton = new TextButton("Info", skin);
+        TextButton soloPracticeButton = new TextButton("Solo Practice", skin, "large");
+        TextButton dailyGrindButton = new TextButton("Daily Grind", skin, "large");
+        TextButton infoButton = new TextButton("Info", skin, "large");
 
         soloPracticeButton.addListener(new ChangeListener() {
             @Override
@@ -61,7 +57,7 @@ public class MainMenuScreen implements Screen {
         dailyGrindButton.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                long dailySeed = getDailySeed();
+                long dailySeed = DailyDeals.baseSeedToday();
                 game.setScreen(new DifficultySelectScreen(game, GameConfig.GameMode.DAILY_GRIND, dailySeed));
                 dispose();
             }
@@ -84,7 +80,7 @@ public class MainMenuScreen implements Screen {
         float titlePadding = screenHeight * 0.05f;  // 5% below title
 
         // Add title
-        Label titleLabel = new Label("SPIDER SOLITAIRE", skin, "title");
+        Label titleLabel = new Label("SPIDER SOLITAIRE", skin, "large-title");
         table.add(titleLabel).padBottom(titlePadding);
         table.row();
 
@@ -93,59 +89,7 @@ public class MainMenuScreen implements Screen {
         table.add(dailyGrindButton).width(buttonWidth).height(buttonHeight).pad(padding);
         table.row();
         table.add(infoButton).width(buttonWidth).height(buttonHeight).pad(padding);
-    }
-
-    private long getDailySeed() {
-        java.util.Calendar cal = java.util.Calendar.getInstance();
-        int year = cal.get(java.util.Calendar.YEAR);
-        int month = cal.get(java.util.Calendar.MONTH);
-        int day = cal.get(java.util.Calendar.DAY_OF_MONTH);
-        return year * 10000L + month * 100L + day;
-    }
-
-    private Skin createBasicSkin() {
-        Skin skin = new Skin();
-
-        // Scale fonts based on screen density for crisp text on all devices
-        float density = Gdx.graphics.getDensity();
-        float fontScale = Math.max(1.8f, density * 1.5f);  // Button text
-        float titleScale = Math.max(2.5f, density * 2.0f); // Title - not too big
-
-        // Button font
-        BitmapFont font = new BitmapFont();
-        font.getData().setScale(fontScale);
-        skin.add("default-font", font);
-
-        // Title font
-        BitmapFont titleFont = new BitmapFont();
-        titleFont.getData().setScale(titleScale);
-        skin.add("title-font", titleFont);
-
-        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        pixmap.setColor(Color.WHITE);
-        pixmap.fill();
-        skin.add("white", new Texture(pixmap));
-        pixmap.dispose();
-
-        TextButton.TextButtonStyle textButtonStyle = new TextButton.TextButtonStyle();
-        textButtonStyle.up = skin.newDrawable("white", new Color(0.25f, 0.45f, 0.35f, 1f));  // Muted green
-        textButtonStyle.down = skin.newDrawable("white", new Color(0.15f, 0.35f, 0.25f, 1f));
-        textButtonStyle.over = skin.newDrawable("white", new Color(0.3f, 0.5f, 0.4f, 1f));
-        textButtonStyle.font = font;
-        textButtonStyle.fontColor = Color.WHITE;
-        skin.add("default", textButtonStyle);
-
-        Label.LabelStyle titleStyle = new Label.LabelStyle();
-        titleStyle.font = titleFont;
-        titleStyle.fontColor = Color.WHITE;
-        skin.add("title", titleStyle);
-
-        Label.LabelStyle labelStyle = new Label.LabelStyle();
-        labelStyle.font = font;
-        labelStyle.fontColor = Color.WHITE;
-        skin.add("default", labelStyle);
-
-        return skin;
+        StartupTimeline.mark(StartupTimeline.MENU_SHOWN);
     }
 
     @Override
@@ -172,6 +116,6 @@ public class MainMenuScreen implements Screen {
     @Override
     public void dispose() {
         stage.dispose();
-        skin.dispose();
+        game.getResources().release(ResourceRegistry.UI_SKIN);
     }
 }
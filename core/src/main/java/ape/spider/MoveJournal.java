@@ -0,0 +1,325 @@
+package ape.spider;
+
+import ape.spider.engine.Moves;
+import ape.spider.engine.Replay;
+import ape.spider.engine.SpiderEngine;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Every move, deal, undo and completed suit of the game in progress, appended to a file in
+ * local storage as it happens, so a crash or force-quit loses at most the last batch of
+ * actions instead of everything since the last {@link SavedGame}.
+ * <p>
+ * A journal starts from a base: the deal of its game, or the save whose checksum it names.
+ * Each time the game is saved the journal starts over from that save, so it only ever holds
+ * what happened since the last pause, and it is deleted with the save when the game ends.
+ * At launch {@link #recover} replays it onto its base.
+ * <p>
+ * File layout, big-endian: a header (magic "SPJL", format version as a short, the base as a
+ * byte, a reserved byte, the base save's checksum, then the game as {@link SavedGame} writes
+ * it), then one 8-byte record per event: the type, three argument bytes and the time played
+ * in milliseconds. A move's arguments are its source column, card index and target column;
+ * a completed suit's first argument is the number of suits completed so far, which replay
+ * checks.
+ * <p>
+ * The render thread only copies records into a buffer. A background thread writes them out
+ * in batches, flushing each to the OS, so a crash of the app loses nothing it has written;
+ * there is no fsync, so a crash of the device can. A record torn by a crash is dropped at
+ * recovery, and replay stops at the first record that doesn't apply, so a damaged journal
+ * costs its tail, not the game. Call everything but the writer from the render thread.
+ */
+public final class MoveJournal {
+    public static final String FILE_NAME = "game-journal.bin";
+    public static final int MAGIC = 0x53504A4C; // "SPJL"
+    public static final int FORMAT_VERSION = 1;
+    public static final int RECORD_SIZE = 8;
+
+    public static final int TYPE_MOVE = 1;
+    public static final int TYPE_DEAL = 2;
+    public static final int TYPE_UNDO = 3;
+    public static final int TYPE_SUIT = 4;
+
+    private static final int BASE_DEAL = 0;
+    private static final int BASE_SAVED_GAME = 1;
+    private static final int HEADER_FIXED_SIZE = 4 + 2 + 2 + 4;
+    private static final int INITIAL_CAPACITY = 64 * RECORD_SIZE;
+    private static final long CLOSE_TIMEOUT_MS = 1000;
+    private static final String TAG = "MoveJournal";
+
+    private final File file;
+    private boolean started;  // Render thread: a journal is open for this game
+
+    // Handed from the render thread to the writer, in the order the writer applies them
+    private final Object lock = new Object();
+    private boolean deletePending;
+    private byte[] pendingHeader;  // Start a new journal with this
+    private byte[] pending = new byte[INITIAL_CAPACITY];  // Then append these records
+    private int pendingSize;
+    private boolean closed;
+
+    // Writer thread only
+    private byte[] batch = new byte[INITIAL_CAPACITY];
+    private FileOutputStream out;
+    private final Thread writer;
+
+    public MoveJournal() {
+        file = Gdx.files.isLocalStorageAvailable() ? Gdx.files.local(FILE_NAME).file() : null;
+        writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeLoop();
+            }
+        }, "move-journal");
+        writer.setDaemon(true);
+        if (file != null) {
+            writer.start();
+        }
+    }
+
+    /** True once {@link #start} has begun a journal that {@link #append} adds to. */
+    public boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * Begin a new journal, replacing the old one. It continues base, the save just written,
+     * or starts from the deal of config when base is null.
+     */
+    public void start(GameConfig config, GameResult priorResult, float timeSeconds, SavedGame base) {
+        if (file == null) return;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_FIXED_SIZE + SavedGame.getMaxGameSize());
+        header.putInt(MAGIC);
+        header.putShort((short) FORMAT_VERSION);
+        header.put((byte) (base != null ? BASE_SAVED_GAME : BASE_DEAL));
+        header.put((byte) 0);
+        header.putInt(base != null ? base.getChecksum() : 0);
+        SavedGame.writeGame(header, config, priorResult, timeSeconds);
+        byte[] bytes = new byte[header.position()];
+        System.arraycopy(header.array(), 0, bytes, 0, bytes.length);
+
+        synchronized (lock) {
+            pendingHeader = bytes;
+            pendingSize = 0; // Records not yet written belong to the journal being replaced
+            lock.notifyAll();
+        }
+        started = true;
+    }
+
+    /**
+     * Add an event to the journal, if one is started. a, b and c are 0-255; time is the time
+     * played so far. Allocates nothing unless records pile up faster than they are written.
+     */
+    public void append(int type, int a, int b, int c, float timeSeconds) {
+        if (!started) return;
+        synchronized (lock) {
+            if (pendingSize + RECORD_SIZE > pending.length) {
+                byte[] grown = new byte[pending.length * 2];
+                System.arraycopy(pending, 0, grown, 0, pendingSize);
+                pending = grown;
+            }
+            int millis = (int) (timeSeconds * 1000f);
+            byte[] record = pending;
+            int i = pendingSize;
+            record[i] = (byte) type;
+            record[i + 1] = (byte) a;
+            record[i + 2] = (byte) b;
+            record[i + 3] = (byte) c;
+            record[i + 4] = (byte) (millis >>> 24);
+            record[i + 5] = (byte) (millis >>> 16);
+            record[i + 6] = (byte) (millis >>> 8);
+            record[i + 7] = (byte) millis;
+            pendingSize += RECORD_SIZE;
+            lock.notifyAll();
+        }
+    }
+
+    /** Drop the journal, once its game has ended; {@link #append} does nothing until the next start. */
+    public void delete() {
+        started = false;
+        if (file == null) return;
+        synchronized (lock) {
+            deletePending = true;
+            pendingHeader = null;
+            pendingSize = 0;
+            lock.notifyAll();
+        }
+    }
+
+    /** Forget the journal without touching the file, for a new deal that may never be played. */
+    public void stop() {
+        started = false;
+    }
+
+    /** Write out whatever is pending and stop the writer. */
+    public void dispose() {
+        started = false;
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        if (file == null) return;
+        try {
+            writer.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            boolean delete;
+            byte[] header;
+            int size;
+            synchronized (lock) {
+                while (!closed && !deletePending && pendingHeader == null && pendingSize == 0) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        closed = true;
+                    }
+                }
+                if (closed && !deletePending && pendingHeader == null && pendingSize == 0) break;
+
+                delete = deletePending;
+                header = pendingHeader;
+                deletePending = false;
+                pendingHeader = null;
+                byte[] records = pending;
+                pending = batch;
+                batch = records;
+                size = pendingSize;
+                pendingSize = 0;
+            }
+            write(delete, header, size);
+        }
+        closeFile();
+    }
+
+    private void write(boolean delete, byte[] header, int size) {
+        try {
+            if (delete || header != null) {
+                closeFile();
+            }
+            if (delete && file.exists() && !file.delete()) {
+                Gdx.app.error(TAG, "Couldn't delete " + file);
+            }
+            if (header != null) {
+                out = new FileOutputStream(file, false);
+                out.write(header);
+            }
+            if (size > 0) {
+                if (out == null) {
+                    out = new FileOutputStream(file, true);
+                }
+                out.write(batch, 0, size);
+            }
+            if (out != null) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            Gdx.app.error(TAG, "Couldn't write " + file, e);
+            closeFile();
+        }
+    }
+
+    private void closeFile() {
+        if (out == null) return;
+        try {
+            out.close();
+        } catch (IOException ignored) {
+        }
+        out = null;
+    }
+
+    /**
+     * The game to resume at launch, given the save {@link SavedGame#load} found: that save
+     * with the journal that continues it, or the journal's own game from the deal when
+     * nothing was saved. Returns saved itself when there is no journal that fits it.
+     */
+    public static SavedGame recover(SavedGame saved) {
+        if (!Gdx.files.isLocalStorageAvailable()) return saved;
+        FileHandle handle = Gdx.files.local(FILE_NAME);
+        if (!handle.exists()) return saved;
+
+        try {
+            ByteBuffer in = ByteBuffer.wrap(handle.readBytes());
+            if (in.remaining() < HEADER_FIXED_SIZE || in.getInt() != MAGIC || in.getShort() != FORMAT_VERSION) {
+                Gdx.app.error(TAG, "Ignoring a damaged or outdated " + FILE_NAME);
+                return saved;
+            }
+            int base = in.get();
+            in.get();
+            int checksum = in.getInt();
+            SavedGame game = SavedGame.readGame(in);
+            if (game == null) return saved;
+
+            // Whole records only: the last may have been cut short
+            in.limit(in.position() + in.remaining() / RECORD_SIZE * RECORD_SIZE);
+            if (base == BASE_DEAL && saved == null) {
+                // Played from the deal and never saved
+                game.setJournal(in);
+                return game;
+            }
+            if (base == BASE_SAVED_GAME && saved != null && saved.getChecksum() == checksum) {
+                saved.setJournal(in);
+            }
+            // Otherwise the journal is older than the save, which then has everything
+            return saved;
+        } catch (RuntimeException e) {
+            Gdx.app.error(TAG, "Couldn't read " + FILE_NAME, e);
+            return saved;
+        }
+    }
+
+    /**
+     * Apply the records in to engine in order, and to recorder's recording of the game,
+     * stopping at the first that doesn't apply. Returns the time played as of the last record
+     * applied, or timeSeconds if none was.
+     */
+    static float replay(SpiderEngine engine, Replay.Recorder recorder, ByteBuffer in, float timeSeconds) {
+        int applied = 0;
+        while (in.remaining() >= RECORD_SIZE) {
+            int type = in.get() & 0xFF;
+            int a = in.get() & 0xFF;
+            int b = in.get() & 0xFF;
+            int c = in.get() & 0xFF;
+            int millis = in.getInt();
+            if (!apply(engine, recorder, type, a, b, c)) {
+                Gdx.app.error(TAG, "Replay stopped at record " + applied + ", type " + type);
+                break;
+            }
+            timeSeconds = Math.max(timeSeconds, millis / 1000f);
+            applied++;
+        }
+        Gdx.app.debug(TAG, "Replayed " + applied + " records");
+        return timeSeconds;
+    }
+
+    private static boolean apply(SpiderEngine engine, Replay.Recorder recorder, int type, int a, int b, int c) {
+        switch (type) {
+            case TYPE_MOVE:
+                if (!engine.isLegalMove(a, b, c)) return false;
+                recorder.recordMove(engine, Moves.encode(a, b, c));
+                engine.moveCards(a, b, c);
+                return true;
+            case TYPE_DEAL:
+                if (!engine.canDeal()) return false;
+                recorder.recordMove(engine, Moves.DEAL);
+                return engine.dealFromStock();
+            case TYPE_UNDO:
+                if (!engine.canUndo()) return false;
+                recorder.recordUndo(engine);
+                return engine.undo();
+            case TYPE_SUIT:
+                return engine.getCompletedSuits() == a;
+            default:
+                return false;
+        }
+    }
+}
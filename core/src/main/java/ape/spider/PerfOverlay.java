@@ -0,0 +1,219 @@
+package ape.spider;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.ref.WeakReference;
+
+/**
+ * Debug readout of where a screen's frame time goes: percentiles of the time spent rendering,
+ * GL work counted by {@link GLProfiler}, ShapeRenderer flushes, heap, GCs, undo history and
+ * the {@link StartupTimeline} startup and game start times.
+ * <p>
+ * The last {@link #CAPACITY} frame times are always kept in a ring buffer, cheaply enough to
+ * leave on, so {@link #dump} can write them out even if the overlay was never shown. The GL
+ * counters are only collected while the overlay is visible, since the profiler wraps every
+ * GL call. Recording and drawing allocate nothing.
+ */
+public class PerfOverlay implements Disposable {
+    public static final int CAPACITY = 1024;
+
+    // Percentiles come from a histogram kept in step with the ring: 0.25 ms buckets up to 100 ms
+    private static final float BUCKET_MS = 0.25f;
+    private static final int BUCKETS = 400;
+    private static final long REFRESH_NANOS = 250_000_000L;
+    private static final Color TEXT_COLOR = new Color(1f, 1f, 0.6f, 1f);
+
+    private final GLProfiler profiler = new GLProfiler(Gdx.graphics);
+    private final float[] frameMs = new float[CAPACITY];
+    private final int[] histogram = new int[BUCKETS];
+    private int next;
+    private int count;
+    private long frameStart;
+    private boolean visible;
+
+    // Counters from the last frame
+    private int drawCalls;
+    private int textureBindings;
+    private int shaderSwitches;
+    private int glCalls;
+    private int shapeFlushes;
+    private int undoDepth;
+
+    // A collection clears the canary; it is re-armed each time, so at most one GC is seen per frame
+    private WeakReference<Object> gcCanary = new WeakReference<>(new Object());
+    private int gcCount;
+
+    private final StringBuilder text = new StringBuilder(320);
+    private final GlyphLayout layout = new GlyphLayout();
+    private long lastRefresh;
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void setVisible(boolean visible) {
+        if (visible == this.visible) return;
+        this.visible = visible;
+        if (visible) {
+            profiler.enable();
+            profiler.reset();
+            lastRefresh = 0; // Show numbers on the first frame
+        } else {
+            profiler.disable();
+        }
+    }
+
+    /** Call first thing in render(). */
+    public void beginFrame() {
+        frameStart = TimeUtils.nanoTime();
+        if (visible) {
+            profiler.reset();
+        }
+    }
+
+    /**
+     * Call once the frame's own drawing is done, before {@link #draw}, with the ShapeRenderer
+     * flushes and undo history depth of the frame.
+     */
+    public void endFrame(int shapeFlushes, int undoDepth) {
+        record((TimeUtils.nanoTime() - frameStart) / 1_000_000f);
+        if (!visible) return;
+
+        drawCalls = profiler.getDrawCalls();
+        textureBindings = profiler.getTextureBindings();
+        shaderSwitches = profiler.getShaderSwitches();
+        glCalls = profiler.getCalls();
+        this.shapeFlushes = shapeFlushes;
+        this.undoDepth = undoDepth;
+        if (gcCanary.get() == null) {
+            gcCount++;
+            gcCanary = new WeakReference<>(new Object());
+        }
+    }
+
+    private void record(float ms) {
+        if (count == CAPACITY) {
+            histogram[bucket(frameMs[next])]--;
+        } else {
+            count++;
+        }
+        frameMs[next] = ms;
+        histogram[bucket(ms)]++;
+        next = (next + 1) % CAPACITY;
+    }
+
+    private static int bucket(float ms) {
+        return Math.min(BUCKETS - 1, (int) (ms / BUCKET_MS));
+    }
+
+    /** Upper edge of the histogram bucket holding the given fraction of frames, in ms. */
+    public float percentile(float fraction) {
+        if (count == 0) return 0f;
+        int rank = (int) Math.ceil(fraction * count);
+        int seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                return (i + 1) * BUCKET_MS;
+            }
+        }
+        return BUCKETS * BUCKET_MS;
+    }
+
+    /** Draw the readout with its top-left corner at x, y, in the batch's coordinates. */
+    public void draw(SpriteBatch batch, BitmapFont font, float x, float y) {
+        long now = TimeUtils.nanoTime();
+        if (now - lastRefresh >= REFRESH_NANOS) {
+            lastRefresh = now;
+            layOutText(font);
+        }
+        font.draw(batch, layout, x, y);
+    }
+
+    private void layOutText(BitmapFont font) {
+        text.setLength(0);
+        text.append("render ms  p50 ");
+        appendHundredths(percentile(0.50f));
+        text.append("  p95 ");
+        appendHundredths(percentile(0.95f));
+        text.append("  p99 ");
+        appendHundredths(percentile(0.99f));
+        text.append("  (").append(count).append(" frames)\n");
+        text.append("draw calls ").append(drawCalls)
+            .append("  textures ").append(textureBindings)
+            .append("  shaders ").append(shaderSwitches)
+            .append("  gl calls ").append(glCalls).append('\n');
+        long heapKb = Gdx.app.getJavaHeap() / 1024;
+        text.append("shape flushes ").append(shapeFlushes)
+            .append("  heap ").append(heapKb / 1024).append('.').append(heapKb % 1024 * 10 / 1024).append(" MB")
+            .append("  gcs ").append(gcCount)
+            .append("  undo ").append(undoDepth);
+        if (StartupTimeline.isFinished()) {
+            text.append("  startup ").append((int) StartupTimeline.getStartupMillis()).append(" ms");
+            float gameStart = StartupTimeline.getGameStartMillis();
+            if (gameStart >= 0f) {
+                text.append("  game start ").append((int) gameStart).append(" ms");
+            }
+        }
+
+        Color color = font.getColor();
+        float r = color.r, g = color.g, b = color.b, a = color.a;
+        font.setColor(TEXT_COLOR);
+        layout.setText(font, text);
+        font.setColor(r, g, b, a);
+    }
+
+    // Two decimals without going through Float.toString
+    private void appendHundredths(float value) {
+        int hundredths = Math.round(value * 100);
+        text.append(hundredths / 100).append('.');
+        int fraction = hundredths % 100;
+        if (fraction < 10) text.append('0');
+        text.append(fraction);
+    }
+
+    /**
+     * Write the buffered frame times, oldest first, one millisecond value per line, to a new
+     * file in dir. Returns the file, or null if it couldn't be written.
+     */
+    public FileHandle dump(FileHandle dir) {
+        FileHandle file = dir.child("frame-times-" + TimeUtils.millis() + ".csv");
+        Writer writer = null;
+        try {
+            writer = file.writer(false, "UTF-8");
+            writer.write("render_ms\n");
+            int first = count == CAPACITY ? next : 0;
+            for (int i = 0; i < count; i++) {
+                writer.write(Float.toString(frameMs[(first + i) % CAPACITY]));
+                writer.write('\n');
+            }
+        } catch (IOException | GdxRuntimeException e) {
+            Gdx.app.error("PerfOverlay", "Couldn't write " + file.path(), e);
+            return null;
+        } finally {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+        return file;
+    }
+
+    @Override
+    public void dispose() {
+        setVisible(false);
+    }
+}
@@ -0,0 +1,159 @@
+package ape.spider;
+
+import ape.spider.engine.Replay;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.nio.ByteBuffer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+/**
+ * A finished game saved from the result screen: the result the player got and the
+ * {@link Replay} it was played from, so the result can be checked by playing it back.
+ * <p>
+ * File layout, big-endian: a 16-byte header (magic "SPRP", format version as a short, a
+ * reserved short, payload length, payload CRC-32), then the payload: mode, outcome and
+ * completed suits as bytes, a reserved byte, score, moves, undos and time played, then the
+ * replay as {@link Replay#write} writes it. The deal itself lives in the replay. A typical
+ * game takes a few hundred bytes.
+ * <p>
+ * Files go under {@link #DIRECTORY} in local storage, written on a {@link BackgroundFiles}
+ * thread. {@link #write} and {@link #read} touch no libGDX state, for tools reading replays
+ * off the disk.
+ */
+public final class ReplayFile {
+    public static final String DIRECTORY = "replays";
+    public static final String EXTENSION = ".sprp";
+    public static final int MAGIC = 0x53505250; // "SPRP"
+    public static final int FORMAT_VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+    private static final int RESULT_SIZE = 4 + 3 * 4 + 4;
+
+    private static final String TAG = "ReplayFile";
+
+    /** Told on the render thread how a {@link #save} went. */
+    public interface SaveListener {
+        /** file is where the replay was saved, or null if it couldn't be written. */
+        void saved(FileHandle file);
+    }
+
+    private ReplayFile() {
+    }
+
+    /**
+     * Write result and its replay to a new file in local storage on files' thread, then tell
+     * listener, if there is one. Returns false, and tells no one, if result has no replay or
+     * there is no local storage.
+     */
+    public static boolean save(GameResult result, BackgroundFiles files, final SaveListener listener) {
+        if (result.getReplay() == null || !Gdx.files.isLocalStorageAvailable()) return false;
+        GameConfig config = result.getConfig();
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.ROOT).format(new Date());
+        String name = config.getMode().name().toLowerCase(Locale.ROOT) + "-" + config.getNumSuits() + "s-"
+            + config.getSeed() + "-" + stamp + EXTENSION;
+        final FileHandle file = Gdx.files.local(DIRECTORY).child(name);
+        final int actions = result.getReplay().getActionCount();
+
+        // A few hundred bytes: encoding them here is cheaper than handing the result across
+        final ByteBuffer out = ByteBuffer.allocate(getSize(result));
+        write(out, result);
+        files.post(new Runnable() {
+            @Override
+            public void run() {
+                FileHandle saved = file;
+                try {
+                    file.writeBytes(out.array(), false);
+                    Gdx.app.log(TAG, "Saved " + actions + " actions in " + out.capacity() + " bytes to " + file.path());
+                } catch (GdxRuntimeException e) {
+                    Gdx.app.error(TAG, "Couldn't save the replay", e);
+                    saved = null;
+                }
+                if (listener == null) return;
+                final FileHandle written = saved;
+                Gdx.app.postRunnable(new Runnable() {
+                    @Override
+                    public void run() {
+                        listener.saved(written);
+                    }
+                });
+            }
+        });
+        return true;
+    }
+
+    /** Bytes {@link #write} needs for result, which must have a replay. */
+    public static int getSize(GameResult result) {
+        return HEADER_SIZE + RESULT_SIZE + result.getReplay().getSize();
+    }
+
+    /** Write result, which must have a replay. */
+    public static void write(ByteBuffer out, GameResult result) {
+        int start = out.position();
+        out.position(start + HEADER_SIZE);
+        out.put((byte) result.getConfig().getMode().ordinal());
+        out.put((byte) result.getOutcome().ordinal());
+        out.put((byte) result.getCompletedSuits());
+        out.put((byte) 0);
+        out.putInt(result.getScore());
+        out.putInt(result.getMoves());
+        out.putInt(result.getUndos());
+        out.putFloat(result.getTimeSeconds());
+        result.getReplay().write(out);
+
+        int length = out.position() - start - HEADER_SIZE;
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), out.arrayOffset() + start + HEADER_SIZE, length);
+        out.putInt(start, MAGIC);
+        out.putShort(start + 4, (short) FORMAT_VERSION);
+        out.putShort(start + 6, (short) 0);
+        out.putInt(start + 8, length);
+        out.putInt(start + 12, (int) crc.getValue());
+    }
+
+    /**
+     * Read what {@link #write} wrote: the result as claimed, with its replay. Throws
+     * IllegalArgumentException if in doesn't hold an intact replay file. The claim is only
+     * as good as the replay's playing out to it.
+     */
+    public static GameResult read(ByteBuffer in) {
+        if (in.remaining() < HEADER_SIZE || in.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a replay file");
+        }
+        int version = in.getShort();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported replay format version " + version);
+        }
+        in.getShort();
+        int length = in.getInt();
+        int checksum = in.getInt();
+        if (length != in.remaining()) {
+            throw new IllegalArgumentException("Replay file is " + in.remaining() + " bytes, header says " + length);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(in.array(), in.arrayOffset() + in.position(), length);
+        if ((int) crc.getValue() != checksum) {
+            throw new IllegalArgumentException("Replay file checksum mismatch");
+        }
+
+        int mode = in.get() & 0xFF;
+        int outcome = in.get() & 0xFF;
+        int completedSuits = in.get() & 0xFF;
+        in.get();
+        int score = in.getInt();
+        int moves = in.getInt();
+        int undos = in.getInt();
+        float timeSeconds = in.getFloat();
+        if (mode >= GameConfig.GameMode.values().length || outcome >= GameResult.Outcome.values().length) {
+            throw new IllegalArgumentException("Bad mode or outcome in replay file");
+        }
+        Replay replay = Replay.read(in);
+        GameConfig config = new GameConfig(GameConfig.GameMode.values()[mode], replay.getNumSuits(),
+            replay.getSeed(), replay.getDealVersion());
+        return new GameResult(config, GameResult.Outcome.values()[outcome], score, moves, undos, timeSeconds,
+            completedSuits, replay);
+    }
+}
@@ -0,0 +1,202 @@
+package ape.spider;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
+import com.badlogic.gdx.scenes.scene2d.ui.Window;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Reference-counted GPU resources shared between screens, owned by {@link Main}.
+ * <p>
+ * A screen acquires what it needs in show() and releases it in dispose(). A resource is
+ * created by the first acquire and disposed when the last holder releases it. Screens switch
+ * with setScreen(next) followed by dispose(), so the next screen acquires before the old one
+ * releases and shared resources survive the switch. Render thread only.
+ * <p>
+ * Files go through the registry's {@link AssetManager}, which {@link SplashScreen} drains in
+ * the background before the first menu. Every font shares the texture of the one default
+ * font file loaded there rather than decoding and uploading its own copy.
+ */
+public class ResourceRegistry implements Disposable {
+    /** The skin with every style the menus, dialogs and result screens use. */
+    public static final String UI_SKIN = "ui-skin";
+    /** The plain libGDX font at its native size, for the game HUD. */
+    public static final String HUD_FONT = "hud-font";
+    /** The default libGDX font, which ships in the gdx jar rather than under assets. */
+    public static final String DEFAULT_FONT = "com/badlogic/gdx/utils/lsans-15.fnt";
+    private static final String CLASSPATH_PREFIX = "com/badlogic/gdx/";
+
+    /** Creates a resource the first time it is acquired. */
+    public interface Factory<T extends Disposable> {
+        T create();
+    }
+
+    private static class Entry {
+        final Disposable resource;
+        int references;
+
+        Entry(Disposable resource) {
+            this.resource = resource;
+        }
+    }
+
+    private final ObjectMap<String, Entry> entries = new ObjectMap<>();
+    private final AssetManager assets = new AssetManager(new FileHandleResolver() {
+        @Override
+        public FileHandle resolve(String fileName) {
+            // The default font and its page image live on the classpath on every backend
+            return fileName.startsWith(CLASSPATH_PREFIX) ? Gdx.files.classpath(fileName) : Gdx.files.internal(fileName);
+        }
+    });
+
+    public AssetManager getAssets() {
+        return assets;
+    }
+
+    /** Queue the files the shared resources are built from, to load alongside the splash. */
+    public void queueAssets() {
+        assets.load(DEFAULT_FONT, BitmapFont.class);
+    }
+
+    /** The resource under key, created by factory if nobody holds it yet. Pair with {@link #release}. */
+    @SuppressWarnings("unchecked")
+    public <T extends Disposable> T acquire(String key, Factory<T> factory) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(factory.create());
+            entries.put(key, entry);
+        }
+        entry.references++;
+        return (T) entry.resource;
+    }
+
+    /** Drop one reference to key, disposing the resource when it was the last. */
+    public void release(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            throw new GdxRuntimeException("Released more often than acquired: " + key);
+        }
+        if (--entry.references == 0) {
+            entries.remove(key);
+            entry.resource.dispose();
+        }
+    }
+
+    public int getReferenceCount(String key) {
+        Entry entry = entries.get(key);
+        return entry != null ? entry.references : 0;
+    }
+
+    public Skin acquireUiSkin() {
+        return acquire(UI_SKIN, new Factory<Skin>() {
+            @Override
+            public Skin create() {
+                return createUiSkin();
+            }
+        });
+    }
+
+    public BitmapFont acquireHudFont() {
+        return acquire(HUD_FONT, new Factory<BitmapFont>() {
+            @Override
+            public BitmapFont create() {
+                return createFont(1f);
+            }
+        });
+    }
+
+    /**
+     * A new default font at the given scale, with its own glyph metrics but drawing from the
+     * shared page texture. The caller disposes it; the texture stays with the asset manager.
+     * Loads the font file on the spot if the splash hasn't already.
+     */
+    public BitmapFont createFont(float scale) {
+        if (!assets.isLoaded(DEFAULT_FONT)) {
+            assets.load(DEFAULT_FONT, BitmapFont.class);
+            assets.finishLoadingAsset(DEFAULT_FONT);
+        }
+        BitmapFont base = assets.get(DEFAULT_FONT, BitmapFont.class);
+        BitmapFont font = new BitmapFont(new BitmapFont.BitmapFontData(base.getData().fontFile, false),
+            base.getRegions(), true);
+        font.getData().setScale(scale);
+        return font;
+    }
+
+    /** Dispose everything still held, e.g. when the application exits. */
+    @Override
+    public void dispose() {
+        for (Entry entry : entries.values()) {
+            entry.resource.dispose();
+        }
+        entries.clear();
+        assets.dispose();
+    }
+
+    // Fonts are the default libGDX font scaled for the screen density; the skin owns and disposes them
+    private Skin createUiSkin() {
+        Skin skin = new Skin();
+
+        float density = Gdx.graphics.getDensity();
+        BitmapFont font = addFont(skin, "default-font", Math.max(1.6f, density * 1.3f));        // Button and body text
+        BitmapFont largeFont = addFont(skin, "large-font", Math.max(1.8f, density * 1.5f));     // Main menu buttons
+        BitmapFont titleFont = addFont(skin, "title-font", Math.max(2.2f, density * 1.8f));     // Titles
+        BitmapFont largeTitleFont = addFont(skin, "large-title-font", Math.max(2.5f, density * 2.0f));
+        BitmapFont statsFont = addFont(skin, "stats-font", Math.max(1.5f, density * 1.2f));     // Result stats
+        BitmapFont smallFont = addFont(skin, "small-font", Math.max(1.4f, density * 1.1f));     // Secondary buttons
+
+        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+        pixmap.setColor(Color.WHITE);
+        pixmap.fill();
+        skin.add("white", new Texture(pixmap));
+        pixmap.dispose();
+
+        // Primary buttons in muted green, secondary ones (back, main menu) in gray
+        skin.add("default", buttonStyle(skin, font, new Color(0.25f, 0.45f, 0.35f, 1f),
+            new Color(0.15f, 0.35f, 0.25f, 1f), new Color(0.3f, 0.5f, 0.4f, 1f)));
+        skin.add("large", buttonStyle(skin, largeFont, new Color(0.25f, 0.45f, 0.35f, 1f),
+            new Color(0.15f, 0.35f, 0.25f, 1f), new Color(0.3f, 0.5f, 0.4f, 1f)));
+        skin.add("secondary", buttonStyle(skin, smallFont, new Color(0.35f, 0.35f, 0.4f, 1f),
+            new Color(0.25f, 0.25f, 0.3f, 1f), new Color(0.4f, 0.4f, 0.45f, 1f)));
+
+        skin.add("default", new Label.LabelStyle(font, Color.WHITE));
+        skin.add("title", new Label.LabelStyle(titleFont, Color.WHITE));
+        skin.add("large-title", new Label.LabelStyle(largeTitleFont, Color.WHITE));
+        skin.add("stats", new Label.LabelStyle(statsFont, Color.WHITE));
+
+        Window.WindowStyle windowStyle = new Window.WindowStyle();
+        windowStyle.titleFont = titleFont;
+        windowStyle.titleFontColor = Color.WHITE;
+        windowStyle.background = skin.newDrawable("white", new Color(0.15f, 0.25f, 0.2f, 0.95f));
+        skin.add("default", windowStyle);
+
+        return skin;
+    }
+
+    private BitmapFont addFont(Skin skin, String name, float scale) {
+        BitmapFont font = createFont(scale);
+        skin.add(name, font);
+        return font;
+    }
+
+    private static TextButton.TextButtonStyle buttonStyle(Skin skin, BitmapFont font, Color up, Color down,
+                                                          Color over) {
+        TextButton.TextButtonStyle style = new TextButton.TextButtonStyle();
+        style.up = skin.newDrawable("white", up);
+        style.down = skin.newDrawable("white", down);
+        style.over = skin.newDrawable("white", over);
+        style.font = font;
+        style.fontColor = Color.WHITE;
+        return style;
+    }
+}
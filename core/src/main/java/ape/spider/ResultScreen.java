@@ -2,10 +2,8 @@ package ape.spider;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
@@ -27,18 +25,22 @@ public class ResultScreen implements Screen {
         this(game, result, null);
     }
 
+    /**
+     * Show result, which is already in the game history, compared with priorResult, or with
+     * the attempt on the same deal before it in the history when priorResult is null.
+     */
     public ResultScreen(Main game, GameResult result, GameResult priorResult) {
         this.game = game;
         this.result = result;
-        this.priorResult = priorResult;
+        this.priorResult = priorResult != null ? priorResult : game.getHistory().getAttempt(result.getConfig(), 1);
     }
 
     @Override
     public void show() {
-        stage = new Stage(new ScreenViewport());
+        stage = new Stage(new ScreenViewport(), game.getBatch());
         Gdx.input.setInputProcessor(stage);
 
-        skin = createBasicSkin();
+        skin = game.getResources().acquireUiSkin();
 
         // Create root table with safe area padding
         Table rootTable = new Table();
@@ -62,7 +64,7 @@ public class ResultScreen implements Screen {
 
         // Title based on outcome
         String titleText = result.getOutcome() == GameResult.Outcome.WON ? "VICTORY!" : "Game Over";
-        Label titleLabel = new Label(titleText, skin, "title");
+        Label titleLabel = new Label(titleText, skin, "large-title");
         if (result.getOutcome() == GameResult.Outcome.WON) {
             titleLabel.setColor(new Color(0.3f, 1f, 0.3f, 1f));
         }
@@ -105,6 +107,28 @@ public class ResultScreen implements Screen {
         }
         table.row();
 
+        // Personal best and attempts on this deal, once it has been played before
+        GameHistory history = game.getHistory();
+        int attempts = history.getAttemptCount(result.getConfig());
+        if (attempts > 1) {
+            GameResult best = history.getBest(result.getConfig());
+            boolean newBest = history.isLatestBest(result.getConfig());
+            Label bestNameLabel = new Label("Best:", skin, "stats");
+            Label bestValueLabel = new Label(newBest ? "New personal best!"
+                : best.getScore() + " in " + best.getFormattedTime(), skin, "stats");
+            if (newBest) {
+                bestValueLabel.setColor(Color.GREEN);
+            }
+            table.add(bestNameLabel).right().padRight(statsPadding).padBottom(statsPadding);
+            table.add(bestValueLabel).left().padBottom(statsPadding);
+            table.row();
+            Label attemptsNameLabel = new Label("Attempts:", skin, "stats");
+            Label attemptsValueLabel = new Label(String.valueOf(attempts), skin, "stats");
+            table.add(attemptsNameLabel).right().padRight(statsPadding).padBottom(statsPadding);
+            table.add(attemptsValueLabel).left().padBottom(statsPadding);
+            table.row();
+        }
+
         // Buttons - stack vertically for better touch targets on mobile
         table.row();
         float buttonWidth = screenWidth * 0.7f;
@@ -119,9 +143,10 @@ public class ResultScreen implements Screen {
                 GameConfig retryConfig = new GameConfig(
                     result.getConfig().getMode(),
                     result.getConfig().getNumSuits(),
-                    result.getConfig().getSeed()
+                    result.getConfig().getSeed(),
+                    result.getConfig().getDealVersion()
                 );
-                game.setScreen(new GameScreen(game, retryConfig, result));
+                game.startGame(retryConfig, result);
                 dispose();
             }
         });
@@ -150,6 +175,26 @@ public class ResultScreen implements Screen {
             }
         });
         table.add(menuButton).colspan(2).width(buttonWidth).height(buttonHeight).pad(buttonPad);
+
+        // Save Replay button, when the whole game was recorded
+        if (result.getReplay() != null) {
+            table.row();
+            final TextButton replayButton = new TextButton("Save Replay", skin, "secondary");
+            replayButton.addListener(new ChangeListener() {
+                @Override
+                public void changed(ChangeEvent event, Actor actor) {
+                    boolean saving = ReplayFile.save(result, game.getFiles(), new ReplayFile.SaveListener() {
+                        @Override
+                        public void saved(FileHandle file) {
+                            replayButton.setText(file != null ? "Replay Saved" : "Couldn't Save Replay");
+                        }
+                    });
+                    replayButton.setText(saving ? "Saving Replay..." : "Couldn't Save Replay");
+                    replayButton.setDisabled(true);
+                }
+            });
+            table.add(replayButton).colspan(2).width(buttonWidth).height(buttonHeight).pad(buttonPad);
+        }
     }
 
     private void addStatRow(Table table, String name, int value, Integer priorValue,
@@ -216,71 +261,6 @@ public class ResultScreen implements Screen {
         table.row();
     }
 
-    private Skin createBasicSkin() {
-        Skin skin = new Skin();
-
-        float density = Gdx.graphics.getDensity();
-        float fontScale = Math.max(1.6f, density * 1.3f);  // Button text
-        float titleScale = Math.max(2.5f, density * 2.0f); // Title
-        float statsScale = Math.max(1.5f, density * 1.2f); // Stats text
-        float smallScale = Math.max(1.4f, density * 1.1f); // Secondary buttons
-
-        BitmapFont font = new BitmapFont();
-        font.getData().setScale(fontScale);
-        skin.add("default-font", font);
-
-        BitmapFont titleFont = new BitmapFont();
-        titleFont.getData().setScale(titleScale);
-        skin.add("title-font", titleFont);
-
-        BitmapFont statsFont = new BitmapFont();
-        statsFont.getData().setScale(statsScale);
-        skin.add("stats-font", statsFont);
-
-        BitmapFont smallFont = new BitmapFont();
-        smallFont.getData().setScale(smallScale);
-        skin.add("small-font", smallFont);
-
-        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        pixmap.setColor(Color.WHITE);
-        pixmap.fill();
-        skin.add("white", new Texture(pixmap));
-        pixmap.dispose();
-
-        TextButton.TextButtonStyle textButtonStyle = new TextButton.TextButtonStyle();
-        textButtonStyle.up = skin.newDrawable("white", new Color(0.25f, 0.45f, 0.35f, 1f));
-        textButtonStyle.down = skin.newDrawable("white", new Color(0.15f, 0.35f, 0.25f, 1f));
-        textButtonStyle.over = skin.newDrawable("white", new Color(0.3f, 0.5f, 0.4f, 1f));
-        textButtonStyle.font = font;
-        textButtonStyle.fontColor = Color.WHITE;
-        skin.add("default", textButtonStyle);
-
-        TextButton.TextButtonStyle secondaryStyle = new TextButton.TextButtonStyle();
-        secondaryStyle.up = skin.newDrawable("white", new Color(0.35f, 0.35f, 0.4f, 1f));
-        secondaryStyle.down = skin.newDrawable("white", new Color(0.25f, 0.25f, 0.3f, 1f));
-        secondaryStyle.over = skin.newDrawable("white", new Color(0.4f, 0.4f, 0.45f, 1f));
-        secondaryStyle.font = smallFont;
-        secondaryStyle.fontColor = Color.WHITE;
-        skin.add("secondary", secondaryStyle);
-
-        Label.LabelStyle titleStyle = new Label.LabelStyle();
-        titleStyle.font = titleFont;
-        titleStyle.fontColor = Color.WHITE;
-        skin.add("title", titleStyle);
-
-        Label.LabelStyle statsStyle = new Label.LabelStyle();
-        statsStyle.font = statsFont;
-        statsStyle.fontColor = Color.WHITE;
-        skin.add("stats", statsStyle);
-
-        Label.LabelStyle labelStyle = new Label.LabelStyle();
-        labelStyle.font = font;
-        labelStyle.fontColor = Color.WHITE;
-        skin.add("default", labelStyle);
-
-        return skin;
-    }
-
     @Override
     public void render(float delta) {
         ScreenUtils.clear(0.1f, 0.3f, 0.2f, 1f);
@@ -305,6 +285,6 @@ public class ResultScreen implements Screen {
     @Override
     public void dispose() {
         stage.dispose();
-        skin.dispose();
+        game.getResources().release(ResourceRegistry.UI_SKIN);
     }
 }
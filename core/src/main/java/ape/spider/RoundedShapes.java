@@ -0,0 +1,106 @@
+package ape.spider;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+
+/**
+ * Rounded rectangles drawn with a {@link ShapeRenderer}, shared by the card atlas and the
+ * game screen's highlights.
+ */
+final class RoundedShapes {
+    private RoundedShapes() {
+    }
+
+    /** Filled rounded rectangle with a one-pixel border. */
+    static void fill(ShapeRenderer shapeRenderer, float x, float y, float width, float height, float radius,
+                     Color fillColor, Color borderColor) {
+        // Draw filled rounded rectangle
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer.setColor(fillColor);
+
+        // Center rectangle
+        shapeRenderer.rect(x + radius, y, width - 2 * radius, height);
+        // Left rectangle
+        shapeRenderer.rect(x, y + radius, radius, height - 2 * radius);
+        // Right rectangle
+        shapeRenderer.rect(x + width - radius, y + radius, radius, height - 2 * radius);
+
+        // Corners (arcs)
+        int segments = 10;
+        // Bottom-left
+        shapeRenderer.arc(x + radius, y + radius, radius, 180, 90, segments);
+        // Bottom-right
+        shapeRenderer.arc(x + width - radius, y + radius, radius, 270, 90, segments);
+        // Top-right
+        shapeRenderer.arc(x + width - radius, y + height - radius, radius, 0, 90, segments);
+        // Top-left
+        shapeRenderer.arc(x + radius, y + height - radius, radius, 90, 90, segments);
+
+        shapeRenderer.end();
+
+        // Draw border
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
+        shapeRenderer.setColor(borderColor);
+
+        // Bottom edge
+        shapeRenderer.line(x + radius, y, x + width - radius, y);
+        // Top edge
+        shapeRenderer.line(x + radius, y + height, x + width - radius, y + height);
+        // Left edge
+        shapeRenderer.line(x, y + radius, x, y + height - radius);
+        // Right edge
+        shapeRenderer.line(x + width, y + radius, x + width, y + height - radius);
+
+        // Corner arcs
+        shapeRenderer.arc(x + radius, y + radius, radius, 180, 90, segments);
+        shapeRenderer.arc(x + width - radius, y + radius, radius, 270, 90, segments);
+        shapeRenderer.arc(x + width - radius, y + height - radius, radius, 0, 90, segments);
+        shapeRenderer.arc(x + radius, y + height - radius, radius, 90, 90, segments);
+
+        shapeRenderer.end();
+    }
+
+    /** Rounded outline only. */
+    static void border(ShapeRenderer shapeRenderer, float x, float y, float width, float height, float radius,
+                       Color borderColor) {
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
+        shapeRenderer.setColor(borderColor);
+
+        // Bottom edge
+        shapeRenderer.line(x + radius, y, x + width - radius, y);
+        // Top edge
+        shapeRenderer.line(x + radius, y + height, x + width - radius, y + height);
+        // Left edge
+        shapeRenderer.line(x, y + radius, x, y + height - radius);
+        // Right edge
+        shapeRenderer.line(x + width, y + radius, x + width, y + height - radius);
+
+        // Draw corner curves using line segments (avoids arc's extra center lines)
+        int segments = 8;
+        // Bottom-left corner (180 to 270 degrees)
+        cornerCurve(shapeRenderer, x + radius, y + radius, radius, 180, 270, segments);
+        // Bottom-right corner (270 to 360 degrees)
+        cornerCurve(shapeRenderer, x + width - radius, y + radius, radius, 270, 360, segments);
+        // Top-right corner (0 to 90 degrees)
+        cornerCurve(shapeRenderer, x + width - radius, y + height - radius, radius, 0, 90, segments);
+        // Top-left corner (90 to 180 degrees)
+        cornerCurve(shapeRenderer, x + radius, y + height - radius, radius, 90, 180, segments);
+
+        shapeRenderer.end();
+    }
+
+    // Draw a corner curve using line segments (no center lines like arc does)
+    private static void cornerCurve(ShapeRenderer shapeRenderer, float cx, float cy, float radius,
+                                    float startAngle, float endAngle, int segments) {
+        float angleStep = (endAngle - startAngle) / segments;
+        for (int i = 0; i < segments; i++) {
+            float angle1 = (float) Math.toRadians(startAngle + i * angleStep);
+            float angle2 = (float) Math.toRadians(startAngle + (i + 1) * angleStep);
+            float x1 = cx + radius * (float) Math.cos(angle1);
+            float y1 = cy + radius * (float) Math.sin(angle1);
+            float x2 = cx + radius * (float) Math.cos(angle2);
+            float y2 = cy + radius * (float) Math.sin(angle2);
+            shapeRenderer.line(x1, y1, x2, y2);
+        }
+    }
+}
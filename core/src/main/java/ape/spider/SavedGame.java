@@ -0,0 +1,253 @@
+package ape.spider;
+
+import ape.spider.engine.Replay;
+import ape.spider.engine.SpiderEngine;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * The game in progress, written to local storage when the app is paused so it can be picked
+ * up again if the system kills the app in the background.
+ * <p>
+ * File layout, big-endian: a 16-byte header (magic "SPSV", format version as a short, a
+ * reserved short, payload length, payload CRC-32), then the payload: mode, suit count,
+ * deal version and whether there is a prior result as bytes, the seed, the time played, the
+ * prior result if any (outcome and completed suits as bytes, score, moves, undos, time),
+ * {@link SpiderEngine#saveState the engine's state}, and last whether the game is being
+ * recorded as a byte and {@link Replay.Recorder#save the recording} if so. A typical game is
+ * well under a kilobyte. The file is written beside the old one and renamed over it, and read
+ * back only if the checksum matches, so a write cut short leaves the previous save or none.
+ * <p>
+ * A {@link MoveJournal} carries on from the last save, or from the deal if there is none;
+ * {@link MoveJournal#recover} brings what {@link #load} read up to date with it.
+ * <p>
+ * One instance is kept for writing, so encoding a save reuses its buffer; {@link #load}
+ * returns a new one holding what was read. Render thread only.
+ */
+public final class SavedGame {
+    public static final String FILE_NAME = "saved-game.bin";
+    private static final String TEMP_FILE_NAME = "saved-game.tmp";
+    public static final int MAGIC = 0x53505356; // "SPSV"
+    public static final int FORMAT_VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+    private static final int GAME_SIZE = 4 + 8 + 4;
+    private static final int PRIOR_RESULT_SIZE = 2 + 3 * 4 + 4;
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+
+    private static final String TAG = "SavedGame";
+
+    private ByteBuffer buffer;
+    private final CRC32 crc = new CRC32();
+
+    // What load() read; the engine state is left in the buffer until restoreEngine()
+    private GameConfig config;
+    private GameResult priorResult;
+    private float timeSeconds;
+    private boolean hasState;  // False for a game recovered from a journal that starts at the deal
+    private int checksum;  // Of the payload last written or read
+    private ByteBuffer journal;  // Records to replay after restoring, or null
+
+    /**
+     * Write the game to local storage, replacing any earlier save. Returns false if it
+     * couldn't be written; the game itself carries on either way.
+     */
+    public boolean save(GameConfig config, GameResult priorResult, float timeSeconds, SpiderEngine engine,
+                        Replay.Recorder recorder) {
+        if (!Gdx.files.isLocalStorageAvailable()) return false;
+        long start = TimeUtils.nanoTime();
+
+        int size = HEADER_SIZE + getMaxGameSize() + engine.getStateSize() + 1 + recorder.getSavedSize();
+        if (buffer == null || buffer.capacity() < size) {
+            buffer = ByteBuffer.allocate(Math.max(size, INITIAL_BUFFER_SIZE));
+        }
+        buffer.clear();
+        buffer.position(HEADER_SIZE);
+        writeGame(buffer, config, priorResult, timeSeconds);
+        engine.saveState(buffer);
+        buffer.put((byte) (recorder.isRecording() ? 1 : 0));
+        if (recorder.isRecording()) {
+            recorder.save(buffer);
+        }
+
+        int length = buffer.position();
+        crc.reset();
+        crc.update(buffer.array(), HEADER_SIZE, length - HEADER_SIZE);
+        checksum = (int) crc.getValue();
+        buffer.putInt(0, MAGIC);
+        buffer.putShort(4, (short) FORMAT_VERSION);
+        buffer.putShort(6, (short) 0);
+        buffer.putInt(8, length - HEADER_SIZE);
+        buffer.putInt(12, checksum);
+
+        FileHandle temp = Gdx.files.local(TEMP_FILE_NAME);
+        try {
+            temp.writeBytes(buffer.array(), 0, length, false);
+            temp.moveTo(Gdx.files.local(FILE_NAME));
+        } catch (GdxRuntimeException e) {
+            Gdx.app.error(TAG, "Couldn't save the game", e);
+            return false;
+        }
+        Gdx.app.debug(TAG, "Saved " + length + " bytes in " + TimeUtils.timeSinceNanos(start) / 1000 + " us");
+        return true;
+    }
+
+    /** The saved game, or null if there is none or it can't be read. */
+    public static SavedGame load() {
+        if (!Gdx.files.isLocalStorageAvailable()) return null;
+        FileHandle file = Gdx.files.local(FILE_NAME);
+        if (!file.exists()) return null;
+
+        try {
+            SavedGame saved = read(ByteBuffer.wrap(file.readBytes()));
+            if (saved != null) {
+                return saved;
+            }
+            Gdx.app.error(TAG, "Ignoring a damaged or outdated " + FILE_NAME);
+        } catch (RuntimeException e) {
+            Gdx.app.error(TAG, "Couldn't read " + FILE_NAME, e);
+        }
+        delete();
+        return null;
+    }
+
+    /** Forget the saved game, once it has ended or been replaced. */
+    public static void delete() {
+        if (!Gdx.files.isLocalStorageAvailable()) return;
+        FileHandle file = Gdx.files.local(FILE_NAME);
+        if (file.exists()) {
+            file.delete();
+        }
+    }
+
+    // Parse everything up to the engine state; null if the file isn't a save this version wrote
+    private static SavedGame read(ByteBuffer in) {
+        if (in.remaining() < HEADER_SIZE || in.getInt() != MAGIC || in.getShort() != FORMAT_VERSION) {
+            return null;
+        }
+        in.getShort();
+        int length = in.getInt();
+        int checksum = in.getInt();
+        if (length != in.remaining()) return null;
+        CRC32 crc = new CRC32();
+        crc.update(in.array(), HEADER_SIZE, length);
+        if ((int) crc.getValue() != checksum) return null;
+
+        SavedGame saved = readGame(in);
+        if (saved == null) return null;
+        saved.hasState = true;
+        saved.checksum = checksum;
+        return saved;
+    }
+
+    /** Bytes {@link #writeGame} needs at most. */
+    static int getMaxGameSize() {
+        return GAME_SIZE + PRIOR_RESULT_SIZE;
+    }
+
+    /** The game's settings, time played and prior result, as both the save and the journal start. */
+    static void writeGame(ByteBuffer out, GameConfig config, GameResult priorResult, float timeSeconds) {
+        out.put((byte) config.getMode().ordinal());
+        out.put((byte) config.getNumSuits());
+        out.put((byte) config.getDealVersion());
+        out.put((byte) (priorResult != null ? 1 : 0));
+        out.putLong(config.getSeed());
+        out.putFloat(timeSeconds);
+        if (priorResult != null) {
+            out.put((byte) priorResult.getOutcome().ordinal());
+            out.put((byte) priorResult.getCompletedSuits());
+            out.putInt(priorResult.getScore());
+            out.putInt(priorResult.getMoves());
+            out.putInt(priorResult.getUndos());
+            out.putFloat(priorResult.getTimeSeconds());
+        }
+    }
+
+    /**
+     * Read what {@link #writeGame} wrote, as a game to deal afresh, leaving in at whatever
+     * follows. Returns null if the values are out of range.
+     */
+    static SavedGame readGame(ByteBuffer in) {
+        int mode = in.get() & 0xFF;
+        int numSuits = in.get() & 0xFF;
+        int dealVersion = in.get() & 0xFF;
+        boolean hasPriorResult = in.get() != 0;
+        long seed = in.getLong();
+        float timeSeconds = in.getFloat();
+        if (mode >= GameConfig.GameMode.values().length) return null;
+
+        SavedGame saved = new SavedGame();
+        saved.buffer = in;
+        saved.config = new GameConfig(GameConfig.GameMode.values()[mode], numSuits, seed, dealVersion);
+        saved.timeSeconds = timeSeconds;
+        if (hasPriorResult) {
+            int outcome = in.get() & 0xFF;
+            int completedSuits = in.get() & 0xFF;
+            int score = in.getInt();
+            int moves = in.getInt();
+            int undos = in.getInt();
+            float priorTime = in.getFloat();
+            if (outcome >= GameResult.Outcome.values().length) return null;
+            saved.priorResult = new GameResult(saved.config, GameResult.Outcome.values()[outcome], score, moves,
+                undos, priorTime, completedSuits);
+        }
+        return saved;
+    }
+
+    /** Checksum of the save last written or read, which a journal continuing it names. */
+    public int getChecksum() {
+        return checksum;
+    }
+
+    // Journal records to replay once the saved state is restored
+    void setJournal(ByteBuffer records) {
+        journal = records;
+    }
+
+    public GameConfig getConfig() {
+        return config;
+    }
+
+    /** The earlier attempt a retry is compared with, or null. */
+    public GameResult getPriorResult() {
+        return priorResult;
+    }
+
+    public float getTimeSeconds() {
+        return timeSeconds;
+    }
+
+    /**
+     * Put the saved board, score and undo history into engine and the recording of the game
+     * so far into recorder, then replay the journal on top of both. Returns false if the
+     * state doesn't hold together, in which case engine must be dealt again.
+     * {@link #getTimeSeconds} includes the replayed actions afterwards.
+     */
+    public boolean restoreEngine(SpiderEngine engine, Replay.Recorder recorder) {
+        try {
+            if (hasState) {
+                engine.restoreState(buffer);
+                if (buffer.get() != 0) {
+                    recorder.restore(buffer);
+                } else {
+                    recorder.stop();
+                }
+            } else {
+                engine.initializeGame(config);
+                recorder.start(engine, config.getSeed());
+            }
+        } catch (RuntimeException e) {
+            Gdx.app.error(TAG, "Couldn't restore the saved game", e);
+            return false;
+        }
+        if (journal != null) {
+            timeSeconds = MoveJournal.replay(engine, recorder, journal, timeSeconds);
+            journal = null;
+        }
+        return true;
+    }
+}
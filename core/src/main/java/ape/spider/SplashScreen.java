@@ -2,25 +2,39 @@ package ape.spider;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.utils.ScreenUtils;
 
+/**
+ * Shows the logo while everything the menus and the first game need is loaded, and hands
+ * over to the main menu as soon as that is done.
+ * <p>
+ * Files load on the asset manager's thread, the logo first, and are uploaded a slice per
+ * frame. Once the queue is empty the GL-side work follows, one step per frame: the menu skin,
+ * then the game screen with its card atlas and a deal of the last mode played.
+ */
 public class SplashScreen implements Screen {
+    private static final String LOGO = "logo.png";
+    private static final int LOAD_SLICE_MS = 12;  // Upload budget per frame, leaving time to draw
+
     private final Main game;
-    private final Texture logo;
+    private final AssetManager assets;
     private final ShapeRenderer shapeRenderer;
-    private float elapsedTime;
+    private int preparedSteps;
+    private boolean holdsSkin;
 
     private static final float OUTER_MARGIN = 5f;  // Black margin from screen edge
     private static final float BORDER_WIDTH = 2f;  // White border thickness
 
     public SplashScreen(Main game) {
         this.game = game;
-        this.logo = new Texture("logo.png");
+        this.assets = game.getResources().getAssets();
         this.shapeRenderer = new ShapeRenderer();
-        this.elapsedTime = 0f;
+        assets.load(LOGO, Texture.class);
+        game.getResources().queueAssets();
     }
 
     @Override
@@ -29,11 +43,41 @@ public class SplashScreen implements Screen {
 
     @Override
     public void render(float delta) {
-        elapsedTime += delta;
+        boolean loaded = assets.update(LOAD_SLICE_MS);
 
-        // Black background
+        // Black background, with the logo once it has arrived
         ScreenUtils.clear(0f, 0f, 0f, 1f);
+        if (assets.isLoaded(LOGO)) {
+            StartupTimeline.mark("logo loaded");
+            drawLogo(assets.get(LOGO, Texture.class));
+        }
+
+        if (loaded && prepareNext()) {
+            game.setScreen(new MainMenuScreen(game));
+            dispose();
+        }
+    }
+
+    // One step of GL-side setup per frame; true once there is nothing left to do
+    private boolean prepareNext() {
+        switch (preparedSteps++) {
+            case 0:
+                StartupTimeline.mark("assets loaded");
+                // Held until dispose(), by which time the main menu has acquired it too
+                game.getResources().acquireUiSkin();
+                holdsSkin = true;
+                StartupTimeline.mark("ui skin");
+                return false;
+            case 1:
+                game.prepareGame();
+                StartupTimeline.mark("game prepared");
+                return false;
+            default:
+                return true;
+        }
+    }
 
+    private void drawLogo(Texture logo) {
         float screenWidth = Gdx.graphics.getWidth();
         float screenHeight = Gdx.graphics.getHeight();
 
@@ -82,11 +126,6 @@ public class SplashScreen implements Screen {
         game.getBatch().begin();
         game.getBatch().draw(logo, logoX, logoY, drawWidth, drawHeight);
         game.getBatch().end();
-
-        if (elapsedTime >= 1.5f) {
-            game.setScreen(new MainMenuScreen(game));
-            dispose();
-        }
     }
 
     @Override
@@ -107,7 +146,12 @@ public class SplashScreen implements Screen {
 
     @Override
     public void dispose() {
-        logo.dispose();
+        if (holdsSkin) {
+            game.getResources().release(ResourceRegistry.UI_SKIN);
+        }
+        if (assets.isLoaded(LOGO)) {
+            assets.unload(LOGO);
+        }
         shapeRenderer.dispose();
     }
 }
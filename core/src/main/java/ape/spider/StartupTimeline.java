@@ -0,0 +1,150 @@
+package ape.spider;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.util.Locale;
+
+/**
+ * Timestamps of the steps from launch to the first rendered game frame, to see which phase
+ * cold start spends its time in on each platform.
+ * <p>
+ * The launcher calls {@link #start} first thing, each step calls {@link #mark} when it has
+ * been reached, and the first game frame calls {@link #finish}, which logs the report. Only
+ * the first mark of each name counts and nothing is recorded after finish, so the calls can
+ * stay in code that runs again later. Marks are cheap and allocate nothing; the launcher may
+ * mark on a different thread than the render thread.
+ * <p>
+ * The timeline runs on until the first game frame, but the player may sit on the main menu
+ * for any length of time before asking for a game, so it is reported as two figures: startup,
+ * from the first mark to {@link #MENU_SHOWN}, and game start, from {@link #GAME_REQUESTED} to
+ * the last mark. A game restored at launch skips the menu, and its startup runs to the last mark.
+ */
+public final class StartupTimeline {
+    private static final String TAG = "Startup";
+    private static final int CAPACITY = 32;
+
+    /** The end of startup: the app is up and waiting for the player. */
+    public static final String MENU_SHOWN = "main menu shown";
+    /** The start of game start: the player has asked for a game. */
+    public static final String GAME_REQUESTED = "game requested";
+
+    private static final String[] names = new String[CAPACITY];
+    private static final long[] nanos = new long[CAPACITY];
+    private static int count;
+    private static volatile boolean finished;
+
+    private StartupTimeline() {
+    }
+
+    /** Begin a timeline at the launcher, discarding anything recorded before. */
+    public static synchronized void start(String name) {
+        count = 0;
+        finished = false;
+        mark(name);
+    }
+
+    /**
+     * Record that the step called name has been reached. Without a {@link #start}, the first
+     * mark is the origin.
+     */
+    public static synchronized void mark(String name) {
+        if (finished || count == CAPACITY || indexOf(name) >= 0) return;
+        names[count] = name;
+        nanos[count] = TimeUtils.nanoTime();
+        count++;
+    }
+
+    /** Mark the last step and log the report. Does nothing once finished, so it can run every frame. */
+    public static void finish(String name) {
+        if (finished) return;
+        synchronized (StartupTimeline.class) {
+            if (finished) return;
+            mark(name);
+            finished = true;
+        }
+        if (Gdx.app != null) {
+            Gdx.app.log(TAG, report());
+        }
+    }
+
+    public static boolean isFinished() {
+        return finished;
+    }
+
+    /** Milliseconds from the first mark to {@link #MENU_SHOWN}, or to the last mark if the menu wasn't shown. */
+    public static synchronized float getStartupMillis() {
+        int end = indexOf(MENU_SHOWN);
+        if (end < 0) end = count - 1;
+        return end > 0 ? millis(end) : 0f;
+    }
+
+    /** Milliseconds from {@link #GAME_REQUESTED} to the last mark, or -1 if no game was requested. */
+    public static synchronized float getGameStartMillis() {
+        int start = indexOf(GAME_REQUESTED);
+        return start >= 0 ? millis(count - 1) - millis(start) : -1f;
+    }
+
+    /**
+     * The startup and game start figures, then one line per step: time since the first mark,
+     * time since the previous mark, and the step.
+     */
+    public static synchronized String report() {
+        StringBuilder out = new StringBuilder(128 + count * 48);
+        int menu = indexOf(MENU_SHOWN);
+        out.append(String.format(Locale.ROOT, "%.1f ms startup, to %s%n", getStartupMillis(),
+            menu >= 0 ? names[menu] : count > 0 ? names[count - 1] : "-"));
+        if (indexOf(GAME_REQUESTED) >= 0) {
+            out.append(String.format(Locale.ROOT, "%.1f ms game start, from %s to %s%n", getGameStartMillis(),
+                GAME_REQUESTED, names[count - 1]));
+        }
+        for (int i = 0; i < count; i++) {
+            out.append(String.format(Locale.ROOT, "%9.1f ms %+9.1f ms  %s%n",
+                millis(i), i > 0 ? millis(i) - millis(i - 1) : 0f, names[i]));
+        }
+        return out.toString();
+    }
+
+    /**
+     * The timeline as a JSON object with the startup and game start figures (-1 if no game was
+     * requested) and a "phases" array of {name, atMs, deltaMs}.
+     */
+    public static synchronized String toJson() {
+        StringBuilder out = new StringBuilder(96 + count * 64);
+        out.append(String.format(Locale.ROOT,
+            "{\n  \"finished\": %b,\n  \"startupMs\": %.3f,\n  \"gameStartMs\": %.3f,\n  \"phases\": [", finished,
+            getStartupMillis(), getGameStartMillis()));
+        for (int i = 0; i < count; i++) {
+            out.append(i > 0 ? ",\n" : "\n");
+            out.append(String.format(Locale.ROOT, "    {\"name\": \"%s\", \"atMs\": %.3f, \"deltaMs\": %.3f}",
+                names[i].replace("\\", "\\\\").replace("\"", "\\\""), millis(i), i > 0 ? millis(i) - millis(i - 1) : 0f));
+        }
+        out.append("\n  ]\n}\n");
+        return out.toString();
+    }
+
+    /** Write {@link #toJson} to a new file in dir. Returns the file, or null if it couldn't be written. */
+    public static FileHandle writeJson(FileHandle dir) {
+        FileHandle file = dir.child("startup-" + TimeUtils.millis() + ".json");
+        try {
+            file.writeString(toJson(), false, "UTF-8");
+        } catch (GdxRuntimeException e) {
+            Gdx.app.error(TAG, "Couldn't write " + file.path(), e);
+            return null;
+        }
+        return file;
+    }
+
+    private static int indexOf(String name) {
+        for (int i = 0; i < count; i++) {
+            if (names[i].equals(name)) return i;
+        }
+        return -1;
+    }
+
+    private static float millis(int index) {
+        return (nanos[index] - nanos[0]) / 1_000_000f;
+    }
+}
@@ -0,0 +1,152 @@
+package ape.spider;
+
+import ape.spider.engine.Cards;
+import ape.spider.engine.DealGenerator;
+import ape.spider.engine.SpiderEngine;
+
+/**
+ * Where every tableau card sits on screen, cached per column. Rendering, dragging and hit
+ * testing all read from here, and a column is only laid out again after it was invalidated:
+ * when its cards change, when its collapsed state flips, or when the screen bounds change.
+ * Pure arithmetic over the engine, with no libGDX dependency, so it can be measured headless.
+ * <p>
+ * The owner must call {@link #invalidate} for every column it changes through the engine.
+ */
+public class TableauLayout {
+    public static final float CARD_SPACING_REVEALED = 30f;  // Standard spacing for revealed cards (scaled up)
+    public static final float CARD_SPACING_HIDDEN_EXPANDED = 10f;  // Hidden cards when expanded
+    public static final float CARD_SPACING_HIDDEN_COLLAPSED = 4f; // Hidden cards when collapsed (single card height)
+    public static final float MIN_REVEALED_SPACING = 15f;  // Minimum spacing when compressed
+
+    private final SpiderEngine engine;
+    private final float cardHeight;
+    private float top;
+    private float availableHeight;
+
+    // Bottom edge of each card, row 0 first; only valid up to the column length when it was laid out
+    private final float[][] cardY = new float[SpiderEngine.NUM_COLUMNS][DealGenerator.MAX_DECK_SIZE];
+    private final boolean[] valid = new boolean[SpiderEngine.NUM_COLUMNS];
+    private final boolean[] collapsed = new boolean[SpiderEngine.NUM_COLUMNS];
+
+    public TableauLayout(SpiderEngine engine, float cardHeight) {
+        this.engine = engine;
+        this.cardHeight = cardHeight;
+    }
+
+    /**
+     * Top edge of the tableau and the height the columns may fill below it.
+     * Cheap to call every frame; the layout only changes when the values do.
+     */
+    public void setBounds(float top, float availableHeight) {
+        if (top != this.top || availableHeight != this.availableHeight) {
+            this.top = top;
+            this.availableHeight = availableHeight;
+            invalidateAll();
+        }
+    }
+
+    public void invalidate(int col) {
+        valid[col] = false;
+    }
+
+    public void invalidateAll() {
+        for (int col = 0; col < SpiderEngine.NUM_COLUMNS; col++) {
+            valid[col] = false;
+        }
+    }
+
+    /** Expand every column again and forget all positions, e.g. for a new deal. */
+    public void reset() {
+        for (int col = 0; col < SpiderEngine.NUM_COLUMNS; col++) {
+            collapsed[col] = false;
+            valid[col] = false;
+        }
+    }
+
+    public boolean isCollapsed(int col) {
+        return collapsed[col];
+    }
+
+    /** Switch the column's face-down cards between collapsed and expanded spacing. */
+    public void toggleCollapsed(int col) {
+        collapsed[col] = !collapsed[col];
+        valid[col] = false;
+    }
+
+    /** Bottom edge of the card at row in col. */
+    public float getCardY(int col, int row) {
+        return layOut(col)[row];
+    }
+
+    /**
+     * Row of the card whose visible part contains y in col, or -1 for none. Cards lower in
+     * the column cover the ones above, so the visible strips are bounded by consecutive top
+     * edges, which fall row by row: the hit is the last row whose top edge is at or above y,
+     * found by binary search. Where two strips touch, the card on top wins.
+     */
+    public int getCardAt(int col, float y) {
+        int length = engine.getColumnLength(col);
+        if (length == 0) return -1;
+        float[] positions = layOut(col);
+        if (y > positions[0] + cardHeight || y < positions[length - 1]) return -1;
+
+        int low = 0;
+        int high = length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (positions[mid] + cardHeight >= y) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private float[] layOut(int col) {
+        float[] positions = cardY[col];
+        if (!valid[col]) {
+            fillCardPositions(engine, col, collapsed[col], cardHeight, top, availableHeight, positions);
+            valid[col] = true;
+        }
+        return positions;
+    }
+
+    /**
+     * Write the bottom edge of each card in col into out, starting from top and compressing
+     * revealed cards when the column would not fit in availableHeight.
+     */
+    public static void fillCardPositions(SpiderEngine engine, int col, boolean collapsed, float cardHeight,
+                                         float top, float availableHeight, float[] out) {
+        int numCards = engine.getColumnLength(col);
+
+        // Hidden cards always sit below the revealed ones
+        int hiddenCount = 0;
+        while (hiddenCount < numCards && !Cards.isFaceUp(engine.getCard(col, hiddenCount))) {
+            hiddenCount++;
+        }
+        int revealedCount = numCards - hiddenCount;
+
+        // Determine hidden card spacing based on collapsed state
+        float hiddenSpacing = collapsed ? CARD_SPACING_HIDDEN_COLLAPSED : CARD_SPACING_HIDDEN_EXPANDED;
+
+        // Calculate total height needed with current spacing
+        float hiddenHeight = hiddenCount > 0 ? hiddenCount * hiddenSpacing : 0;
+        float revealedHeight = revealedCount > 1 ? (revealedCount - 1) * CARD_SPACING_REVEALED : 0;
+        float totalNeededHeight = cardHeight + hiddenHeight + revealedHeight;
+
+        // Determine revealed card spacing (may need compression)
+        float revealedSpacing = CARD_SPACING_REVEALED;
+        if (totalNeededHeight > availableHeight && revealedCount > 1) {
+            // Need to compress revealed cards
+            float availableForRevealed = availableHeight - cardHeight - hiddenHeight;
+            revealedSpacing = Math.max(MIN_REVEALED_SPACING, availableForRevealed / (revealedCount - 1));
+        }
+
+        float y = top - cardHeight;
+        for (int row = 0; row < numCards; row++) {
+            out[row] = y;
+            y -= row < hiddenCount ? hiddenSpacing : revealedSpacing;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ape.spider.engine;
+
+/**
+ * Packed card encoding used by {@link SpiderEngine}.
+ * Each card is a single byte: bits 0-3 hold the rank (1 = Ace .. 13 = King),
+ * bits 4-6 hold the suit index (0-5) and bit 7 is the face-up flag.
+ */
+public final class Cards {
+    public static final int NUM_SUITS = 6;
+    public static final int RANKS_PER_SUIT = 13;
+
+    public static final int RANK_MASK = 0x0F;
+    public static final int SUIT_SHIFT = 4;
+    public static final int SUIT_MASK = 0x07;
+    public static final int FACE_UP = 0x80;
+
+    // Suit indices, matching the order suits are added to the deck
+    public static final int SPADES = 0;
+    public static final int HEARTS = 1;
+    public static final int DIAMONDS = 2;
+    public static final int CLUBS = 3;
+    public static final int HORSES = 4;
+    public static final int BALLS = 5;
+
+    private Cards() {
+    }
+
+    /** Create a face-down card. */
+    public static byte make(int suit, int rank) {
+        return (byte) ((suit << SUIT_SHIFT) | rank);
+    }
+
+    public static int rank(byte card) {
+        return card & RANK_MASK;
+    }
+
+    public static int suit(byte card) {
+        return (card >> SUIT_SHIFT) & SUIT_MASK;
+    }
+
+    public static boolean isFaceUp(byte card) {
+        return (card & FACE_UP) != 0;
+    }
+
+    public static byte faceUp(byte card) {
+        return (byte) (card | FACE_UP);
+    }
+
+    /** Card identity (suit and rank) without the face-up flag, in the range 0-95. */
+    public static int identity(byte card) {
+        return card & 0x7F;
+    }
+
+    public static String rankSymbol(int rank) {
+        switch (rank) {
+            case 1: return "A";
+            case 11: return "J";
+            case 12: return "Q";
+            case 13: return "K";
+            default: return String.valueOf(rank);
+        }
+    }
+}
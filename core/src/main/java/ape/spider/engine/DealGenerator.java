@@ -0,0 +1,108 @@
+package ape.spider.engine;
+
+import java.util.Random;
+
+/**
+ * Turns a seed into a shuffled deck. Every seed is paired with an algorithm version, so a
+ * deal can always be reproduced even after the default algorithm changes.
+ * <ul>
+ * <li>{@link #V1}: {@link java.util.Random} driving the same swaps as
+ * {@code Collections.shuffle}. The original deals, kept for existing seeds.</li>
+ * <li>{@link #V2}: SplitMix64 driving a Fisher-Yates shuffle, fully specified here and
+ * allocation-free.</li>
+ * </ul>
+ * The deck comes back in deal order: the first {@link #TABLEAU_CARDS} cards go to the
+ * tableau (six each to the first four columns, five each to the rest), the remainder is the
+ * stock with its last card dealt first.
+ */
+public final class DealGenerator {
+    public static final int V1 = 1;
+    public static final int V2 = 2;
+    /** The version new games should use. */
+    public static final int LATEST = V2;
+
+    public static final int TABLEAU_CARDS = 54;
+    /** Largest deck, six suits of two full decks. */
+    public static final int MAX_DECK_SIZE = 156;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private DealGenerator() {
+    }
+
+    public static boolean isSupported(int version) {
+        return version == V1 || version == V2;
+    }
+
+    /**
+     * Cards in the deck for a suit count: 104 for 1-4 suits, 130 for 5 and 156 for 6,
+     * always made of full 13-card runs.
+     */
+    public static int deckSize(int numSuits) {
+        int totalCards = numSuits <= 4 ? 104 : numSuits == 5 ? 130 : 156;
+        int fullDecks = totalCards / numSuits / Cards.RANKS_PER_SUIT;
+        return numSuits * fullDecks * Cards.RANKS_PER_SUIT;
+    }
+
+    /**
+     * Write the shuffled deck for numSuits (clamped to 1-6) into deck and return its size.
+     * deck must hold at least {@link #deckSize} cards; {@link #MAX_DECK_SIZE} always fits.
+     */
+    public static int deal(int numSuits, long seed, int version, byte[] deck) {
+        numSuits = Math.max(1, Math.min(Cards.NUM_SUITS, numSuits));
+        int size = deckSize(numSuits);
+        int fullDecks = size / numSuits / Cards.RANKS_PER_SUIT;
+
+        // Unshuffled: suit by suit, each suit's decks in rank order
+        int n = 0;
+        for (int suit = 0; suit < numSuits; suit++) {
+            for (int deckNum = 0; deckNum < fullDecks; deckNum++) {
+                for (int rank = 1; rank <= Cards.RANKS_PER_SUIT; rank++) {
+                    deck[n++] = Cards.make(suit, rank);
+                }
+            }
+        }
+
+        switch (version) {
+            case V1: shuffleV1(deck, size, seed); break;
+            case V2: shuffleV2(deck, size, seed); break;
+            default: throw new IllegalArgumentException("Unknown deal version: " + version);
+        }
+        return size;
+    }
+
+    // Same traversal as Collections.shuffle on a random-access list, so existing seeds keep their deals
+    private static void shuffleV1(byte[] deck, int size, long seed) {
+        Random random = new Random(seed);
+        for (int i = size; i > 1; i--) {
+            swap(deck, i - 1, random.nextInt(i));
+        }
+    }
+
+    private static void shuffleV2(byte[] deck, int size, long seed) {
+        long state = seed;
+        for (int i = size - 1; i > 0; i--) {
+            int bound = i + 1;
+            // Lemire's multiply-shift on the high 32 bits, rejecting the few values that would bias it
+            long product;
+            do {
+                state += GOLDEN_GAMMA;
+                product = (mix(state) >>> 32) * bound;
+            } while ((product & 0xFFFFFFFFL) < (0x100000000L % bound));
+            swap(deck, i, (int) (product >>> 32));
+        }
+    }
+
+    /** SplitMix64 output function (Steele, Lea and Flood). */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static void swap(byte[] deck, int i, int j) {
+        byte tmp = deck[i];
+        deck[i] = deck[j];
+        deck[j] = tmp;
+    }
+}
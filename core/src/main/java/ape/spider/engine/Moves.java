@@ -0,0 +1,85 @@
+package ape.spider.engine;
+
+/**
+ * Int encoding for player actions on a {@link SpiderEngine}, shared by the solver and tooling.
+ * A move packs source column (bits 0-3), target column (bits 4-7) and the index of the first
+ * moved card (bits 8-15). Dealing from the stock is the single value {@link #DEAL}.
+ */
+public final class Moves {
+    public static final int DEAL = 0xFFFF;
+
+    /** Upper bound on legal actions in any position: 10 columns x 13-card runs x 9 targets, plus a deal. */
+    public static final int MAX_LEGAL_MOVES = SpiderEngine.NUM_COLUMNS * Cards.RANKS_PER_SUIT
+        * (SpiderEngine.NUM_COLUMNS - 1) + 1;
+
+    private Moves() {
+    }
+
+    public static int encode(int sourceCol, int cardIndex, int targetCol) {
+        return sourceCol | (targetCol << 4) | (cardIndex << 8);
+    }
+
+    public static boolean isDeal(int move) {
+        return move == DEAL;
+    }
+
+    public static int source(int move) {
+        return move & 0xF;
+    }
+
+    public static int target(int move) {
+        return (move >> 4) & 0xF;
+    }
+
+    public static int cardIndex(int move) {
+        return (move >> 8) & 0xFF;
+    }
+
+    /** True if the move can be played in the engine's current position. */
+    public static boolean isLegal(SpiderEngine engine, int move) {
+        if (isDeal(move)) {
+            return engine.canDeal();
+        }
+        return engine.isLegalMove(source(move), cardIndex(move), target(move));
+    }
+
+    /** Play a move the caller already knows is legal. */
+    public static void apply(SpiderEngine engine, int move) {
+        if (isDeal(move)) {
+            engine.dealFromStock();
+        } else {
+            engine.moveCards(source(move), cardIndex(move), target(move));
+        }
+    }
+
+    /**
+     * Write every legal action into out (which needs {@link #MAX_LEGAL_MOVES} slots) and return
+     * how many there are. Order is fixed: by source column, then card index, then target column,
+     * with the deal last, so an action can be identified by its position in this list.
+     */
+    public static int generateLegal(SpiderEngine engine, int[] out) {
+        int count = 0;
+        for (int sourceCol = 0; sourceCol < SpiderEngine.NUM_COLUMNS; sourceCol++) {
+            int length = engine.getColumnLength(sourceCol);
+            for (int cardIndex = engine.getMovableRunStart(sourceCol); cardIndex < length; cardIndex++) {
+                byte card = engine.getCard(sourceCol, cardIndex);
+                for (int targetCol = 0; targetCol < SpiderEngine.NUM_COLUMNS; targetCol++) {
+                    if (targetCol != sourceCol && engine.canDropOnColumn(targetCol, card)) {
+                        out[count++] = encode(sourceCol, cardIndex, targetCol);
+                    }
+                }
+            }
+        }
+        if (engine.canDeal()) {
+            out[count++] = DEAL;
+        }
+        return count;
+    }
+
+    public static String toString(int move) {
+        if (isDeal(move)) {
+            return "deal";
+        }
+        return source(move) + ":" + cardIndex(move) + "->" + target(move);
+    }
+}
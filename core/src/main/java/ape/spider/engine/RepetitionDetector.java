@@ -0,0 +1,154 @@
+package ape.spider.engine;
+
+import java.util.Arrays;
+
+/**
+ * Tracks the position hashes along the current line of play so a return to an earlier
+ * position can be noticed. Undo steps back along the line, so a position only counts as
+ * seen while the actions that reached it are still on the undo log.
+ */
+public final class RepetitionDetector {
+    private static final int INITIAL_CAPACITY = 256;
+
+    // Hash after each action, path[0] being the starting position
+    private long[] path = new long[INITIAL_CAPACITY];
+    private int pathSize;
+
+    // Open-addressed multiset of hashes on the path; a slot is freed when its count drops to 0
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[] counts = new int[INITIAL_CAPACITY];
+    private boolean[] occupied = new boolean[INITIAL_CAPACITY];
+    private int occupiedCount;
+
+    public void reset(long startHash) {
+        pathSize = 0;
+        Arrays.fill(occupied, false);
+        Arrays.fill(counts, 0);
+        occupiedCount = 0;
+        push(startHash);
+    }
+
+    /** Replace this detector's line of play with a copy of another's. */
+    public void copyFrom(RepetitionDetector other) {
+        path = other.path.clone();
+        pathSize = other.pathSize;
+        keys = other.keys.clone();
+        counts = other.counts.clone();
+        occupied = other.occupied.clone();
+        occupiedCount = other.occupiedCount;
+    }
+
+    /** Record the position reached by an action. */
+    public void push(long hash) {
+        if (pathSize == path.length) {
+            path = Arrays.copyOf(path, pathSize * 2);
+        }
+        path[pathSize++] = hash;
+        int slot = slotFor(hash); // May grow the table, so resolve before indexing counts
+        counts[slot]++;
+    }
+
+    /** Forget the position reached by the most recent action. */
+    public void pop() {
+        long hash = path[--pathSize];
+        int slot = slotFor(hash);
+        if (--counts[slot] == 0) {
+            remove(slot);
+        }
+    }
+
+    public long current() {
+        return path[pathSize - 1];
+    }
+
+    /** Hash of the position before the most recent action, or the current one if nothing was played. */
+    public long previous() {
+        return pathSize > 1 ? path[pathSize - 2] : path[0];
+    }
+
+    /** How many times a position occurs on the current line of play. */
+    public int occurrences(long hash) {
+        int mask = keys.length - 1;
+        for (int slot = hashSlot(hash, mask); occupied[slot]; slot = (slot + 1) & mask) {
+            if (keys[slot] == hash) {
+                return counts[slot];
+            }
+        }
+        return 0;
+    }
+
+    /** True if the current position was already reached earlier on this line of play. */
+    public boolean isRepetition() {
+        return occurrences(current()) > 1;
+    }
+
+    private int slotFor(long hash) {
+        int mask = keys.length - 1;
+        int slot = hashSlot(hash, mask);
+        while (occupied[slot]) {
+            if (keys[slot] == hash) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if ((occupiedCount + 1) * 2 > keys.length) {
+            grow();
+            return slotFor(hash);
+        }
+        occupied[slot] = true;
+        keys[slot] = hash;
+        occupiedCount++;
+        return slot;
+    }
+
+    // Linear-probing delete: shift later entries of the same probe chain back into the gap
+    private void remove(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (!occupied[next]) break;
+
+            int home = hashSlot(keys[next], mask);
+            boolean canFillGap = gap <= next ? (home <= gap || home > next) : (home <= gap && home > next);
+            if (canFillGap) {
+                keys[gap] = keys[next];
+                counts[gap] = counts[next];
+                gap = next;
+            }
+        }
+        occupied[gap] = false;
+        counts[gap] = 0;
+        occupiedCount--;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        boolean[] oldOccupied = occupied;
+        keys = new long[oldKeys.length * 2];
+        counts = new int[oldKeys.length * 2];
+        occupied = new boolean[oldKeys.length * 2];
+        occupiedCount = 0;
+
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldOccupied[i]) {
+                int slot = hashSlot(oldKeys[i], mask);
+                while (occupied[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                occupied[slot] = true;
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+                occupiedCount++;
+            }
+        }
+    }
+
+    private static int hashSlot(long hash, int mask) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
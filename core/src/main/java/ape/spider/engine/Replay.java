@@ -0,0 +1,310 @@
+package ape.spider.engine;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A whole game in a few bits per action: the deal (suit count, seed, {@link DealGenerator}
+ * version) and every move, deal and undo in the order played, undone actions included.
+ * <p>
+ * Each action is stored as its index in {@link Moves#generateLegal}'s list for the position it
+ * was played in, with one extra index after the legal actions for an undo when there is
+ * something to undo. Of n possible actions, an index takes floor(log2 n) or ceil(log2 n) bits
+ * (truncated binary), and a forced action takes none, so a typical game of a few hundred
+ * actions fits in a few hundred bytes. The cost is that reading a replay means playing it:
+ * the list of legal actions only exists in the position.
+ * <p>
+ * A {@link Recorder} builds one as the game is played; a {@link Player} plays it back on an
+ * engine, without rendering, at hundreds of thousands of actions per second.
+ * <p>
+ * Serialized layout, big-endian: suit count, deal version and flags (bit 0: repetitions
+ * collapsed) as bytes, the seed, the action count and bit count as ints, then the bits,
+ * most significant first, padded to a whole byte.
+ */
+public final class Replay {
+    /** What {@link Player#step} returns for an undo. */
+    public static final int UNDO = -1;
+
+    private static final int FLAG_COLLAPSE_REPETITIONS = 1;
+    private static final int HEADER_SIZE = 3 + 8 + 4 + 4;
+    private static final int INITIAL_CAPACITY = 512;  // Bytes: most games' worth of actions
+
+    private final int numSuits;
+    private final long seed;
+    private final int dealVersion;
+    private final boolean collapseRepetitions;
+    private final int actionCount;
+    private final byte[] bits;
+    private final int bitCount;
+
+    private Replay(int numSuits, long seed, int dealVersion, boolean collapseRepetitions, int actionCount,
+                   byte[] bits, int bitCount) {
+        this.numSuits = numSuits;
+        this.seed = seed;
+        this.dealVersion = dealVersion;
+        this.collapseRepetitions = collapseRepetitions;
+        this.actionCount = actionCount;
+        this.bits = bits;
+        this.bitCount = bitCount;
+    }
+
+    public int getNumSuits() {
+        return numSuits;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getDealVersion() {
+        return dealVersion;
+    }
+
+    /** Moves, deals and undos, in the order played. */
+    public int getActionCount() {
+        return actionCount;
+    }
+
+    /** Bytes {@link #write} needs. */
+    public int getSize() {
+        return HEADER_SIZE + (bitCount + 7) / 8;
+    }
+
+    public void write(ByteBuffer out) {
+        out.put((byte) numSuits);
+        out.put((byte) dealVersion);
+        out.put((byte) (collapseRepetitions ? FLAG_COLLAPSE_REPETITIONS : 0));
+        out.putLong(seed);
+        out.putInt(actionCount);
+        out.putInt(bitCount);
+        out.put(bits, 0, (bitCount + 7) / 8);
+    }
+
+    /**
+     * Read what {@link #write} wrote. Throws IllegalArgumentException or BufferUnderflowException
+     * if in doesn't hold a replay; whether its actions play is only found out by playing them.
+     */
+    public static Replay read(ByteBuffer in) {
+        int numSuits = in.get() & 0xFF;
+        int dealVersion = in.get() & 0xFF;
+        int flags = in.get() & 0xFF;
+        long seed = in.getLong();
+        int actionCount = in.getInt();
+        int bitCount = in.getInt();
+        if (numSuits < 1 || numSuits > Cards.NUM_SUITS || !DealGenerator.isSupported(dealVersion)
+            || actionCount < 0 || bitCount < 0 || (bitCount + 7) / 8 > in.remaining()) {
+            throw new IllegalArgumentException("Bad replay header");
+        }
+        byte[] bits = new byte[(bitCount + 7) / 8];
+        in.get(bits);
+        return new Replay(numSuits, seed, dealVersion, (flags & FLAG_COLLAPSE_REPETITIONS) != 0, actionCount,
+            bits, bitCount);
+    }
+
+    /** Deal the game on engine and play every action. Throws IllegalStateException if one doesn't play. */
+    public void play(SpiderEngine engine) {
+        Player player = new Player(this, engine);
+        while (player.hasNext()) {
+            player.step();
+        }
+    }
+
+    // Truncated binary: the first 2^(k+1) - n of n values take k = floor(log2 n) bits, the rest k + 1
+    private static int bitsFor(int n) {
+        return 31 - Integer.numberOfLeadingZeros(n);
+    }
+
+    /**
+     * Records a game as it is played. Call {@link #start} right after the deal, then
+     * {@link #recordMove} or {@link #recordUndo} before each action is applied to the engine.
+     * Recording an action costs one legal-move generation and allocates nothing once the
+     * bit buffer has grown to the game's length. Until started, or after {@link #stop},
+     * actions are ignored.
+     */
+    public static final class Recorder {
+        private final int[] legal = new int[Moves.MAX_LEGAL_MOVES];
+        private byte[] bits = new byte[INITIAL_CAPACITY];
+        private boolean recording;
+        private int bitCount;
+        private int actionCount;
+        private int numSuits;
+        private long seed;
+        private int dealVersion;
+        private boolean collapseRepetitions;
+
+        /** Begin recording the game engine was just dealt from seed. */
+        public void start(SpiderEngine engine, long seed) {
+            this.numSuits = engine.getNumSuits();
+            this.seed = seed;
+            this.dealVersion = engine.getDealVersion();
+            this.collapseRepetitions = engine.isCollapseRepetitions();
+            Arrays.fill(bits, 0, (bitCount + 7) / 8, (byte) 0);
+            bitCount = 0;
+            actionCount = 0;
+            recording = true;
+        }
+
+        /** Ignore actions until the next start, for a game whose beginning wasn't recorded. */
+        public void stop() {
+            recording = false;
+        }
+
+        public boolean isRecording() {
+            return recording;
+        }
+
+        /**
+         * Record a move or deal ({@link Moves} encoding) about to be played in engine's position.
+         * Throws IllegalArgumentException if it isn't legal there.
+         */
+        public void recordMove(SpiderEngine engine, int move) {
+            if (!recording) return;
+            int count = Moves.generateLegal(engine, legal);
+            for (int i = 0; i < count; i++) {
+                if (legal[i] == move) {
+                    record(i, count + (engine.canUndo() ? 1 : 0));
+                    return;
+                }
+            }
+            throw new IllegalArgumentException("Not a legal move: " + Moves.toString(move));
+        }
+
+        /** Record an undo about to be played in engine's position, which must have something to undo. */
+        public void recordUndo(SpiderEngine engine) {
+            if (!recording) return;
+            int count = Moves.generateLegal(engine, legal);
+            record(count, count + 1);
+        }
+
+        public int getActionCount() {
+            return actionCount;
+        }
+
+        /** The game so far; recording can go on afterwards. */
+        public Replay toReplay() {
+            return new Replay(numSuits, seed, dealVersion, collapseRepetitions, actionCount,
+                Arrays.copyOf(bits, (bitCount + 7) / 8), bitCount);
+        }
+
+        /** Bytes {@link #save} writes. */
+        public int getSavedSize() {
+            return HEADER_SIZE + (bitCount + 7) / 8;
+        }
+
+        /** Write the recording so far, to carry on with after {@link #restore}. */
+        public void save(ByteBuffer out) {
+            out.put((byte) numSuits);
+            out.put((byte) dealVersion);
+            out.put((byte) (collapseRepetitions ? FLAG_COLLAPSE_REPETITIONS : 0));
+            out.putLong(seed);
+            out.putInt(actionCount);
+            out.putInt(bitCount);
+            out.put(bits, 0, (bitCount + 7) / 8);
+        }
+
+        /** Carry on with a recording {@link #save} wrote. Throws like {@link Replay#read}. */
+        public void restore(ByteBuffer in) {
+            Replay saved = read(in);
+            numSuits = saved.numSuits;
+            seed = saved.seed;
+            dealVersion = saved.dealVersion;
+            collapseRepetitions = saved.collapseRepetitions;
+            actionCount = saved.actionCount;
+            bitCount = saved.bitCount;
+            bits = Arrays.copyOf(saved.bits, Math.max(INITIAL_CAPACITY, saved.bits.length * 2));
+            recording = true;
+        }
+
+        private void record(int index, int choices) {
+            if (choices > 1) {
+                int k = bitsFor(choices);
+                int shortCodes = (1 << (k + 1)) - choices;
+                if (index < shortCodes) {
+                    writeBits(index, k);
+                } else {
+                    writeBits(index + shortCodes, k + 1);
+                }
+            }
+            actionCount++;
+        }
+
+        private void writeBits(int value, int length) {
+            if (bitCount + length > bits.length * 8) {
+                bits = Arrays.copyOf(bits, bits.length * 2);
+            }
+            for (int i = length - 1; i >= 0; i--) {
+                if ((value >>> i & 1) != 0) {
+                    bits[bitCount >>> 3] |= (byte) (0x80 >>> (bitCount & 7));
+                }
+                bitCount++;
+            }
+        }
+    }
+
+    /** Plays a replay back on an engine, one action at a time. */
+    public static final class Player {
+        private final Replay replay;
+        private final SpiderEngine engine;
+        private final int[] legal = new int[Moves.MAX_LEGAL_MOVES];
+        private int played;
+        private int bitPosition;
+
+        /** Deal the replay's game on engine, ready for the first {@link #step}. */
+        public Player(Replay replay, SpiderEngine engine) {
+            this.replay = replay;
+            this.engine = engine;
+            engine.setCollapseRepetitions(replay.collapseRepetitions);
+            engine.initializeGame(replay.numSuits, replay.seed, replay.dealVersion);
+        }
+
+        public boolean hasNext() {
+            return played < replay.actionCount;
+        }
+
+        /** Actions played so far. */
+        public int getPlayed() {
+            return played;
+        }
+
+        /**
+         * Play the next action and return it: a move or deal in {@link Moves} encoding, or
+         * {@link #UNDO}. Throws IllegalStateException if the replay doesn't fit the game.
+         */
+        public int step() {
+            if (!hasNext()) throw new IllegalStateException("Replay is over");
+            int count = Moves.generateLegal(engine, legal);
+            int choices = count + (engine.canUndo() ? 1 : 0);
+            int index = 0;
+            if (choices > 1) {
+                int k = bitsFor(choices);
+                int shortCodes = (1 << (k + 1)) - choices;
+                index = readBits(k);
+                if (index >= shortCodes) {
+                    index = ((index << 1) | readBits(1)) - shortCodes;
+                }
+            }
+            if (index >= choices) {
+                throw new IllegalStateException("Action " + played + " is not possible in its position");
+            }
+            played++;
+            if (index == count) {
+                engine.undo();
+                return UNDO;
+            }
+            Moves.apply(engine, legal[index]);
+            return legal[index];
+        }
+
+        private int readBits(int length) {
+            if (bitPosition + length > replay.bitCount) {
+                throw new IllegalStateException("Replay ends in the middle of action " + played);
+            }
+            int value = 0;
+            for (int i = 0; i < length; i++) {
+                value = (value << 1) | (replay.bits[bitPosition >>> 3] >>> (7 - (bitPosition & 7)) & 1);
+                bitPosition++;
+            }
+            return value;
+        }
+    }
+}
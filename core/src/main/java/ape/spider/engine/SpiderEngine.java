@@ -0,0 +1,696 @@
+package ape.spider.engine;
+
+import ape.spider.GameConfig;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Headless Spider Solitaire rules engine.
+ * The board is stored as packed primitive arrays (one byte per card, see {@link Cards})
+ * so it can be driven from the render thread, tests and tooling alike.
+ */
+public class SpiderEngine {
+    public static final int NUM_COLUMNS = 10;
+
+    // Scoring - Based on competitive Spider Solitaire rules
+    // Starting score of 500, -1 per move, -10 per undo, +100 per completed suit
+    public static final int STARTING_SCORE = 500;
+    public static final int POINTS_PER_MOVE = -1;
+    public static final int POINTS_PER_UNDO = -10;
+    public static final int POINTS_PER_COMPLETED_SUIT = 100;
+
+    /**
+     * Told where cards go as moves, deals, completed suits and undos change the board, so a
+     * view can animate them. Each call comes before the change, with rows as they are then.
+     */
+    public interface Listener {
+        /** count cards from fromRow to the end of fromCol go to toCol, starting at toRow. */
+        void cardsMoved(int fromCol, int fromRow, int toCol, int toRow, int count);
+
+        /** A card from the stock goes onto col at row. */
+        void cardDealt(int col, int row);
+
+        /** The card at the end of col, at row, goes back into the stock. */
+        void cardReturned(int col, int row);
+
+        /** The King-to-Ace run from row to the end of col goes to the completed suits. */
+        void suitRemoved(int col, int row);
+
+        /** A completed suit comes back onto col, its King at row. */
+        void suitRestored(int col, int row);
+    }
+
+    private int numSuits;
+    private int dealVersion;
+    private int deckSize;
+    private int requiredSuitsToWin;
+
+    // Tableau cards, column-major: column c occupies board[c * columnCapacity .. +columnLength[c]]
+    private byte[] board;
+    private int columnCapacity;
+    private final int[] columnLength = new int[NUM_COLUMNS];
+
+    // Shuffle scratch space, reused from game to game
+    private final byte[] deck = new byte[DealGenerator.MAX_DECK_SIZE];
+
+    // Stock cards never change once dealt; dealing just shrinks stockSize from the end
+    private byte[] stock;
+    private int stockSize;
+
+    private int score;
+    private int completedSuits;
+    private int totalMoves;
+    private int totalUndos;
+
+    // Undo system - records only what each move or deal changed
+    private final UndoLog undoLog = new UndoLog();
+
+    // Zobrist hash of the tableau and stock depth, kept up to date by every board change
+    private long positionHash;
+    private final RepetitionDetector repetitions = new RepetitionDetector();
+    private boolean collapseRepetitions;
+
+    private Listener listener;  // Not copied: search copies play silently
+
+    // Suit, deal version, deck and stock sizes and completed suits as bytes, then score, moves and undos
+    private static final int STATE_HEADER_SIZE = 6 + 3 * 4;
+
+    public void initializeGame(GameConfig config) {
+        initializeGame(config.getNumSuits(), config.getSeed(), config.getDealVersion());
+    }
+
+    /** Deal with the original {@link DealGenerator#V1} shuffle. */
+    public void initializeGame(int numSuits, long seed) {
+        initializeGame(numSuits, seed, DealGenerator.V1);
+    }
+
+    public void initializeGame(int numSuits, long seed, int dealVersion) {
+        this.numSuits = Math.max(1, Math.min(Cards.NUM_SUITS, numSuits));
+        this.dealVersion = dealVersion;
+        requiredSuitsToWin = requiredSuits(this.numSuits);
+        deckSize = DealGenerator.deal(this.numSuits, seed, dealVersion, deck);
+
+        // A single column can never hold more than the whole deck
+        columnCapacity = deckSize;
+        board = new byte[NUM_COLUMNS * columnCapacity];
+
+        // Deal cards to tableaus
+        // First 4 tableaus get 6 cards each, remaining 6 tableaus get 5 cards each
+        int cardIndex = 0;
+        for (int col = 0; col < NUM_COLUMNS; col++) {
+            int cardsInColumn = (col < 4) ? 6 : 5;
+            int base = col * columnCapacity;
+            for (int row = 0; row < cardsInColumn; row++) {
+                byte card = deck[cardIndex++];
+                // Only the top card (last dealt to each column) is face up
+                board[base + row] = row == cardsInColumn - 1 ? Cards.faceUp(card) : card;
+            }
+            columnLength[col] = cardsInColumn;
+        }
+
+        // Remaining cards go to stock
+        stockSize = deckSize - cardIndex;
+        stock = new byte[stockSize];
+        System.arraycopy(deck, cardIndex, stock, 0, stockSize);
+
+        score = STARTING_SCORE;
+        completedSuits = 0;
+        totalMoves = 0;
+        totalUndos = 0;
+
+        undoLog.clear(score, totalMoves);
+        positionHash = computePositionHash();
+        repetitions.reset(positionHash);
+    }
+
+    // 1-4 suits: 8 completed suits to win, 5 suits: 10, 6 suits: 12
+    private static int requiredSuits(int numSuits) {
+        if (numSuits <= 4) {
+            return 8;
+        } else if (numSuits == 5) {
+            return 10;
+        } else {
+            return 12;
+        }
+    }
+
+    // --- Saved State ---
+
+    /** Bytes {@link #saveState} writes for the game as it stands. */
+    public int getStateSize() {
+        int size = STATE_HEADER_SIZE + stock.length + NUM_COLUMNS + undoLog.getSavedSize();
+        for (int col = 0; col < NUM_COLUMNS; col++) {
+            size += columnLength[col];
+        }
+        return size;
+    }
+
+    /**
+     * Write the game, undo history included, so {@link #restoreState} can carry on exactly
+     * where it left off: one byte per card, the stock as dealt, and the undo log's packed
+     * records. Needs {@link #getStateSize} bytes left in out, and allocates nothing.
+     */
+    public void saveState(ByteBuffer out) {
+        out.put((byte) numSuits);
+        out.put((byte) dealVersion);
+        out.put((byte) deckSize);
+        out.put((byte) stock.length);
+        out.put((byte) stockSize);
+        out.put((byte) completedSuits);
+        out.putInt(score);
+        out.putInt(totalMoves);
+        out.putInt(totalUndos);
+        out.put(stock);
+        for (int col = 0; col < NUM_COLUMNS; col++) {
+            out.put((byte) columnLength[col]);
+            out.put(board, col * columnCapacity, columnLength[col]);
+        }
+        undoLog.save(out);
+    }
+
+    /**
+     * Replace the game with one written by {@link #saveState}. Throws an unchecked exception,
+     * usually IllegalArgumentException or BufferUnderflowException, if in doesn't hold a
+     * consistent game; the engine must then be dealt again before it is used.
+     */
+    public void restoreState(ByteBuffer in) {
+        int savedSuits = in.get() & 0xFF;
+        int savedDealVersion = in.get() & 0xFF;
+        int savedDeckSize = in.get() & 0xFF;
+        int stockLength = in.get() & 0xFF;
+        int savedStockSize = in.get() & 0xFF;
+        int savedCompletedSuits = in.get() & 0xFF;
+        if (savedSuits < 1 || savedSuits > Cards.NUM_SUITS || !DealGenerator.isSupported(savedDealVersion)
+            || savedDeckSize > DealGenerator.MAX_DECK_SIZE || stockLength > savedDeckSize || savedStockSize > stockLength) {
+            throw new IllegalArgumentException("Bad saved game header");
+        }
+
+        numSuits = savedSuits;
+        dealVersion = savedDealVersion;
+        deckSize = savedDeckSize;
+        requiredSuitsToWin = requiredSuits(numSuits);
+        score = in.getInt();
+        totalMoves = in.getInt();
+        totalUndos = in.getInt();
+        completedSuits = savedCompletedSuits;
+        stock = new byte[stockLength];
+        in.get(stock);
+        stockSize = savedStockSize;
+
+        columnCapacity = deckSize;
+        board = new byte[NUM_COLUMNS * columnCapacity];
+        int cards = stockSize + completedSuits * Cards.RANKS_PER_SUIT;
+        for (int col = 0; col < NUM_COLUMNS; col++) {
+            int length = in.get() & 0xFF;
+            if (length > columnCapacity) {
+                throw new IllegalArgumentException("Column " + col + " holds " + length + " cards");
+            }
+            in.get(board, col * columnCapacity, length);
+            columnLength[col] = length;
+            cards += length;
+        }
+        if (cards != deckSize) {
+            throw new IllegalArgumentException("Saved game has " + cards + " of " + deckSize + " cards");
+        }
+        undoLog.restore(in);
+
+        positionHash = computePositionHash();
+        rebuildRepetitions();
+    }
+
+    // The hashes along the line of play aren't saved: undoing a copy back to the deal finds them
+    private void rebuildRepetitions() {
+        int actions = undoLog.getActionCount();
+        repetitions.reset(positionHash);
+        for (int i = 0; i < actions; i++) {
+            repetitions.push(positionHash); // Stand-ins for the copy's undos to pop
+        }
+        SpiderEngine line = copy();
+        line.undoLog.copyFrom(undoLog);
+
+        long[] path = new long[actions + 1];
+        path[actions] = positionHash;
+        for (int i = actions - 1; i >= 0; i--) {
+            line.undo();
+            path[i] = line.positionHash;
+        }
+        repetitions.reset(path[0]);
+        for (int i = 1; i <= actions; i++) {
+            repetitions.push(path[i]);
+        }
+    }
+
+    /**
+     * Copy the current position into a new engine. The copy starts with an empty undo log,
+     * so it cannot undo past this position, but it still knows the positions on the line
+     * of play that led here, so returning to one counts as a repetition.
+     */
+    public SpiderEngine copy() {
+        SpiderEngine copy = new SpiderEngine();
+        copy.numSuits = numSuits;
+        copy.dealVersion = dealVersion;
+        copy.deckSize = deckSize;
+        copy.requiredSuitsToWin = requiredSuitsToWin;
+        copy.board = board.clone();
+        copy.columnCapacity = columnCapacity;
+        System.arraycopy(columnLength, 0, copy.columnLength, 0, NUM_COLUMNS);
+        copy.stock = stock; // Never modified after the deal
+        copy.stockSize = stockSize;
+        copy.score = score;
+        copy.completedSuits = completedSuits;
+        copy.totalMoves = totalMoves;
+        copy.totalUndos = totalUndos;
+        copy.undoLog.clear(score, totalMoves);
+        copy.positionHash = positionHash;
+        copy.repetitions.copyFrom(repetitions);
+        copy.collapseRepetitions = collapseRepetitions;
+        return copy;
+    }
+
+    // --- Board Queries ---
+
+    public int getNumSuits() {
+        return numSuits;
+    }
+
+    /** The {@link DealGenerator} version the current game was dealt with. */
+    public int getDealVersion() {
+        return dealVersion;
+    }
+
+    public int getDeckSize() {
+        return deckSize;
+    }
+
+    public int getColumnLength(int col) {
+        return columnLength[col];
+    }
+
+    public byte getCard(int col, int row) {
+        return board[col * columnCapacity + row];
+    }
+
+    public byte getTopCard(int col) {
+        return board[col * columnCapacity + columnLength[col] - 1];
+    }
+
+    public int getStockSize() {
+        return stockSize;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getCompletedSuits() {
+        return completedSuits;
+    }
+
+    public int getRequiredSuitsToWin() {
+        return requiredSuitsToWin;
+    }
+
+    public int getTotalMoves() {
+        return totalMoves;
+    }
+
+    public int getTotalUndos() {
+        return totalUndos;
+    }
+
+    public boolean isWon() {
+        return completedSuits >= requiredSuitsToWin;
+    }
+
+    public boolean hasEmptyTableau() {
+        for (int col = 0; col < NUM_COLUMNS; col++) {
+            if (columnLength[col] == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Zobrist hash of the current position (tableau cards with face-up state, plus stock depth). */
+    public long getPositionHash() {
+        return positionHash;
+    }
+
+    /** Recompute the position hash from scratch; {@link #getPositionHash()} is kept incrementally. */
+    public long computePositionHash() {
+        long hash = Zobrist.stock(stockSize);
+        for (int col = 0; col < NUM_COLUMNS; col++) {
+            int base = col * columnCapacity;
+            for (int row = 0; row < columnLength[col]; row++) {
+                hash ^= Zobrist.card(col, row, board[base + row]);
+            }
+        }
+        return hash;
+    }
+
+    /** True if the current position was already reached earlier on the current line of play. */
+    public boolean isRepeatedPosition() {
+        return repetitions.isRepetition();
+    }
+
+    /** Report every card that changes place to listener, or to nobody if null. */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * When enabled, a move that exactly reverses the previous move (returning to the position
+     * before it) drops both from the undo log instead of storing a duplicate entry. Their cost
+     * stays counted: undoing the action before them doesn't refund it. Off by default so
+     * callers that rely on undo for backtracking get exact history.
+     */
+    public void setCollapseRepetitions(boolean collapseRepetitions) {
+        this.collapseRepetitions = collapseRepetitions;
+    }
+
+    public boolean isCollapseRepetitions() {
+        return collapseRepetitions;
+    }
+
+    public boolean canDeal() {
+        return stockSize > 0 && !hasEmptyTableau();
+    }
+
+    // --- Stack Validation ---
+
+    /**
+     * Number of cards in the movable stack starting at cardIndex, or 0 if the cards from
+     * cardIndex to the end of the column are not a face-up, same-suit descending run.
+     */
+    public int getValidStackFromCard(int col, int cardIndex) {
+        int length = columnLength[col];
+        if (cardIndex < 0 || cardIndex >= length) return 0;
+
+        int base = col * columnCapacity;
+        byte prevCard = board[base + cardIndex];
+        if (!Cards.isFaceUp(prevCard)) return 0;
+
+        // Check if all cards below form a same-suit descending sequence
+        for (int i = cardIndex + 1; i < length; i++) {
+            byte card = board[base + i];
+            if (!Cards.isFaceUp(card)) return 0;
+            if (Cards.suit(card) != Cards.suit(prevCard)) return 0;
+            if (Cards.rank(card) != Cards.rank(prevCard) - 1) return 0;
+            prevCard = card;
+        }
+
+        return length - cardIndex;
+    }
+
+    /**
+     * Index of the first card of the longest movable run at the end of col, so every index from
+     * here to the end is a valid stack start. Returns the column length if the column is empty.
+     */
+    public int getMovableRunStart(int col) {
+        int length = columnLength[col];
+        if (length == 0) return 0;
+
+        int base = col * columnCapacity;
+        int start = length - 1;
+        byte card = board[base + start];
+        if (!Cards.isFaceUp(card)) return length;
+        while (start > 0) {
+            byte below = board[base + start - 1];
+            if (!Cards.isFaceUp(below) || Cards.suit(below) != Cards.suit(card)
+                    || Cards.rank(below) != Cards.rank(card) + 1) {
+                break;
+            }
+            card = below;
+            start--;
+        }
+        return start;
+    }
+
+    public boolean canDropOnColumn(int targetCol, byte topDraggedCard) {
+        if (columnLength[targetCol] == 0) {
+            return true; // Can always drop on empty column
+        }
+        // Can drop if target card is exactly one rank higher
+        return Cards.rank(getTopCard(targetCol)) == Cards.rank(topDraggedCard) + 1;
+    }
+
+    public boolean isLegalMove(int sourceCol, int sourceCardIndex, int targetCol) {
+        if (sourceCol == targetCol || sourceCol < 0 || sourceCol >= NUM_COLUMNS
+                || targetCol < 0 || targetCol >= NUM_COLUMNS) {
+            return false;
+        }
+        return getValidStackFromCard(sourceCol, sourceCardIndex) > 0
+            && canDropOnColumn(targetCol, getCard(sourceCol, sourceCardIndex));
+    }
+
+    // --- Moves ---
+
+    /**
+     * Move the cards from sourceCardIndex to the end of sourceCol onto targetCol.
+     * The caller is responsible for checking {@link #isLegalMove}.
+     */
+    public void moveCards(int sourceCol, int sourceCardIndex, int targetCol) {
+        int count = columnLength[sourceCol] - sourceCardIndex;
+        transferCards(sourceCol, targetCol, count);
+
+        // Flip the new top card if face down
+        boolean flipped = flipTopCard(sourceCol);
+        undoLog.pushMove(sourceCol, targetCol, count, flipped, score, totalMoves);
+
+        // Track move and update score
+        totalMoves++;
+        score += POINTS_PER_MOVE;
+
+        // Check for completed suit
+        checkAndRemoveCompletedSuit(targetCol);
+
+        if (collapseRepetitions && undoLog.getActionCount() >= 2 && positionHash == repetitions.previous()) {
+            // Back to where the previous move started: neither entry is worth undoing to, but both still count
+            undoLog.discardPair(score, totalMoves);
+            repetitions.pop();
+        } else {
+            repetitions.push(positionHash);
+        }
+    }
+
+    /** Deal one card to each column. Returns false if the stock is empty or a column is empty. */
+    public boolean dealFromStock() {
+        if (!canDeal()) return false;
+
+        // Deal one card to each tableau, taking from the end of the stock
+        int dealt = 0;
+        positionHash ^= Zobrist.stock(stockSize);
+        for (int col = 0; col < NUM_COLUMNS && stockSize > 0; col++) {
+            byte card = Cards.faceUp(stock[--stockSize]);
+            if (listener != null) {
+                listener.cardDealt(col, columnLength[col]);
+            }
+            int row = columnLength[col]++;
+            board[col * columnCapacity + row] = card;
+            positionHash ^= Zobrist.card(col, row, card);
+            dealt++;
+        }
+        positionHash ^= Zobrist.stock(stockSize);
+        undoLog.pushDeal(dealt, score, totalMoves);
+
+        // Count as a move
+        totalMoves++;
+        score += POINTS_PER_MOVE;
+
+        // Check all columns for completed suits after dealing
+        for (int col = 0; col < NUM_COLUMNS; col++) {
+            checkAndRemoveCompletedSuit(col);
+        }
+        repetitions.push(positionHash);
+        return true;
+    }
+
+    /** Remove a King-to-Ace same-suit run from the end of col. Returns true if one was removed. */
+    public boolean checkAndRemoveCompletedSuit(int col) {
+        int length = columnLength[col];
+        if (length < Cards.RANKS_PER_SUIT) return false;
+
+        // Check if the last 13 cards form a complete same-suit sequence K to A
+        int base = col * columnCapacity;
+        int startIndex = length - Cards.RANKS_PER_SUIT;
+        byte firstCard = board[base + startIndex];
+        if (Cards.rank(firstCard) != Cards.RANKS_PER_SUIT) return false; // Must start with King
+
+        int suit = Cards.suit(firstCard);
+        for (int i = 0; i < Cards.RANKS_PER_SUIT; i++) {
+            byte card = board[base + startIndex + i];
+            if (Cards.suit(card) != suit || Cards.rank(card) != Cards.RANKS_PER_SUIT - i || !Cards.isFaceUp(card)) {
+                return false;
+            }
+        }
+
+        // Found a complete suit! Remove from tableau
+        if (listener != null) {
+            listener.suitRemoved(col, startIndex);
+        }
+        for (int i = 0; i < Cards.RANKS_PER_SUIT; i++) {
+            positionHash ^= Zobrist.card(col, startIndex + i, board[base + startIndex + i]);
+        }
+        columnLength[col] = startIndex;
+        boolean flipped = flipTopCard(col);
+        undoLog.pushSuitRemoved(col, suit, flipped);
+
+        // Update scoring
+        completedSuits++;
+        score += POINTS_PER_COMPLETED_SUIT;
+        return true;
+    }
+
+    /** Turn the top card of col face up. Returns true if it was face down. */
+    private boolean flipTopCard(int col) {
+        int length = columnLength[col];
+        if (length == 0) return false;
+
+        int index = col * columnCapacity + length - 1;
+        byte card = board[index];
+        if (Cards.isFaceUp(card)) return false;
+        board[index] = Cards.faceUp(card);
+        positionHash ^= Zobrist.card(col, length - 1, card) ^ Zobrist.card(col, length - 1, board[index]);
+        return true;
+    }
+
+    private void unflipTopCard(int col) {
+        int row = columnLength[col] - 1;
+        int index = col * columnCapacity + row;
+        byte card = board[index];
+        board[index] = (byte) (card & ~Cards.FACE_UP);
+        positionHash ^= Zobrist.card(col, row, card) ^ Zobrist.card(col, row, board[index]);
+    }
+
+    private void transferCards(int fromCol, int toCol, int count) {
+        int fromIndex = columnLength[fromCol] - count;
+        int fromBase = fromCol * columnCapacity;
+        int toRow = columnLength[toCol];
+        if (listener != null) {
+            listener.cardsMoved(fromCol, fromIndex, toCol, toRow, count);
+        }
+        for (int i = 0; i < count; i++) {
+            byte card = board[fromBase + fromIndex + i];
+            positionHash ^= Zobrist.card(fromCol, fromIndex + i, card) ^ Zobrist.card(toCol, toRow + i, card);
+        }
+        System.arraycopy(board, fromBase + fromIndex, board, toCol * columnCapacity + toRow, count);
+        columnLength[toCol] += count;
+        columnLength[fromCol] = fromIndex;
+    }
+
+    // --- Auto-Move ---
+
+    /**
+     * Pick a target column for the stack at cardIndex using a fixed priority:
+     * same suit one rank higher, then any suit one rank higher, then an empty column.
+     * Returns -1 if the stack is not movable or no target accepts it.
+     */
+    public int findAutoMoveTarget(int col, int cardIndex) {
+        if (getValidStackFromCard(col, cardIndex) == 0) return -1;
+
+        byte topCard = getCard(col, cardIndex);
+        int bestTarget = -1;
+        int priority = Integer.MAX_VALUE;
+
+        for (int targetCol = 0; targetCol < NUM_COLUMNS; targetCol++) {
+            if (targetCol == col) continue;
+
+            if (columnLength[targetCol] == 0) {
+                // Priority 3: Empty column (only if we don't have a better option)
+                if (priority > 3) {
+                    bestTarget = targetCol;
+                    priority = 3;
+                }
+            } else {
+                byte targetTop = getTopCard(targetCol);
+                if (Cards.rank(targetTop) == Cards.rank(topCard) + 1) {
+                    if (Cards.suit(targetTop) == Cards.suit(topCard)) {
+                        // Priority 1: Same suit, one rank higher
+                        if (priority > 1) {
+                            bestTarget = targetCol;
+                            priority = 1;
+                        }
+                    } else if (priority > 2) {
+                        // Priority 2: Different suit, one rank higher
+                        bestTarget = targetCol;
+                        priority = 2;
+                    }
+                }
+            }
+        }
+        return bestTarget;
+    }
+
+    // --- Undo System ---
+
+    public boolean canUndo() {
+        return !undoLog.isEmpty();
+    }
+
+    /** Number of moves and deals that can currently be undone. */
+    public int getUndoDepth() {
+        return undoLog.getActionCount();
+    }
+
+    /**
+     * Reverse the most recent move or deal, including any suits it completed.
+     * Runs in O(cards moved) and allocates nothing.
+     */
+    public boolean undo() {
+        if (!canUndo()) return false;
+
+        // Restore the score and moves from before the action, then apply undo penalty
+        score = undoLog.getScoreBefore() + POINTS_PER_MOVE;
+        totalMoves = undoLog.getMovesBefore() + 1;
+        totalUndos++;
+
+        while (true) {
+            int record = undoLog.pop();
+            int type = UndoLog.type(record);
+
+            if (type == UndoLog.TYPE_SUIT) {
+                // Put the removed King-to-Ace run back on its column
+                int col = UndoLog.column(record);
+                if (UndoLog.flipped(record)) {
+                    unflipTopCard(col);
+                }
+                int row = columnLength[col];
+                if (listener != null) {
+                    listener.suitRestored(col, row);
+                }
+                int base = col * columnCapacity + row;
+                int suit = UndoLog.suit(record);
+                for (int i = 0; i < Cards.RANKS_PER_SUIT; i++) {
+                    byte card = Cards.faceUp(Cards.make(suit, Cards.RANKS_PER_SUIT - i));
+                    board[base + i] = card;
+                    positionHash ^= Zobrist.card(col, row + i, card);
+                }
+                columnLength[col] += Cards.RANKS_PER_SUIT;
+                completedSuits--;
+                continue;
+            }
+
+            if (type == UndoLog.TYPE_MOVE) {
+                int sourceCol = UndoLog.column(record);
+                if (UndoLog.flipped(record)) {
+                    unflipTopCard(sourceCol);
+                }
+                transferCards(UndoLog.targetColumn(record), sourceCol, UndoLog.count(record));
+            } else {
+                // Dealt cards are still in the stock array; just take them off the columns
+                int dealt = UndoLog.count(record);
+                for (int col = 0; col < dealt; col++) {
+                    if (listener != null) {
+                        listener.cardReturned(col, columnLength[col] - 1);
+                    }
+                    int row = --columnLength[col];
+                    positionHash ^= Zobrist.card(col, row, board[col * columnCapacity + row]);
+                }
+                positionHash ^= Zobrist.stock(stockSize) ^ Zobrist.stock(stockSize + dealt);
+                stockSize += dealt;
+            }
+            repetitions.pop();
+            return true;
+        }
+    }
+}
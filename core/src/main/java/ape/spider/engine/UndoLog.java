@@ -0,0 +1,232 @@
+package ape.spider.engine;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Compact undo history for {@link SpiderEngine}.
+ * Every action is stored as a few packed int records describing only what changed,
+ * so undo can reverse it in place without snapshots. A move or deal is written as its
+ * score and move deltas, then a header record, then one record per suit it completed.
+ *
+ * <p>The deltas are relative to the counters before the previous action, because undo
+ * restores the counters an action started from rather than subtracting what it added.
+ *
+ * <p>Record layout (bits): 0-1 type, 2-5 column, 6-9 target column, 10-17 card count,
+ * 18 flipped a face-down card, 19-21 suit of a removed run.
+ */
+final class UndoLog {
+    static final int TYPE_MOVE = 1;
+    static final int TYPE_DEAL = 2;
+    static final int TYPE_SUIT = 3;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] records = new int[INITIAL_CAPACITY];
+    private int size;
+    private int actionCount;
+
+    // Score and move counters from just before the most recent action
+    private int scoreBefore;
+    private int movesBefore;
+
+    void clear(int score, int moves) {
+        size = 0;
+        actionCount = 0;
+        scoreBefore = score;
+        movesBefore = moves;
+    }
+
+    boolean isEmpty() {
+        return actionCount == 0;
+    }
+
+    /** Number of undoable actions (moves and deals). */
+    int getActionCount() {
+        return actionCount;
+    }
+
+    /** Number of packed records currently held; each one is a single int. */
+    int getRecordCount() {
+        return size;
+    }
+
+    /** Score before the most recent action (or the starting score when empty). */
+    int getScoreBefore() {
+        return scoreBefore;
+    }
+
+    /** Move count before the most recent action (or the starting count when empty). */
+    int getMovesBefore() {
+        return movesBefore;
+    }
+
+    void pushMove(int sourceCol, int targetCol, int count, boolean flipped, int score, int moves) {
+        pushCounters(score, moves);
+        push(TYPE_MOVE | (sourceCol << 2) | (targetCol << 6) | (count << 10) | (flipped ? 1 << 18 : 0));
+    }
+
+    void pushDeal(int count, int score, int moves) {
+        pushCounters(score, moves);
+        push(TYPE_DEAL | (count << 10));
+    }
+
+    void pushSuitRemoved(int col, int suit, boolean flipped) {
+        push(TYPE_SUIT | (col << 2) | (flipped ? 1 << 18 : 0) | (suit << 19));
+    }
+
+    /**
+     * Remove and return the most recent record. When an action header is returned, the
+     * counters have already been stepped back to the action before it, so callers must
+     * read {@link #getScoreBefore()} and {@link #getMovesBefore()} first.
+     */
+    int pop() {
+        int record = records[--size];
+        if (type(record) != TYPE_SUIT) {
+            movesBefore -= records[--size];
+            scoreBefore -= records[--size];
+            actionCount--;
+        }
+        return record;
+    }
+
+    /** Drop the most recent action and its completed-suit records without reversing them. */
+    void discardAction() {
+        while (type(pop()) == TYPE_SUIT) {
+            // Keep popping until the action header
+        }
+    }
+
+    /**
+     * Drop the two most recent actions, a move and the move that took it back, without
+     * reversing them. What they cost stays charged: score and moves, the counters after the
+     * second, are folded into the action before the pair, so undoing that one later restores
+     * the counters as if the pair had been undone first.
+     */
+    void discardPair(int score, int moves) {
+        discardAction();
+        int scoreCost = score - scoreBefore;
+        int movesCost = moves - movesBefore;
+        discardAction();
+        scoreBefore += scoreCost;
+        movesBefore += movesCost;
+
+        // The action below keeps its deltas relative to the one before it, or to the start
+        int header = size - 1;
+        while (header >= 0 && type(records[header]) == TYPE_SUIT) {
+            header--;
+        }
+        if (header >= 0) {
+            records[header - 2] += scoreCost;
+            records[header - 1] += movesCost;
+        }
+    }
+
+    /** Replace this log with a copy of another's. */
+    void copyFrom(UndoLog other) {
+        if (records.length < other.size) {
+            records = new int[other.records.length];
+        }
+        System.arraycopy(other.records, 0, records, 0, other.size);
+        size = other.size;
+        actionCount = other.actionCount;
+        scoreBefore = other.scoreBefore;
+        movesBefore = other.movesBefore;
+    }
+
+    /** Bytes {@link #save} writes. */
+    int getSavedSize() {
+        return 16 + size * 4;
+    }
+
+    void save(ByteBuffer out) {
+        out.putInt(scoreBefore);
+        out.putInt(movesBefore);
+        out.putInt(actionCount);
+        out.putInt(size);
+        for (int i = 0; i < size; i++) {
+            out.putInt(records[i]);
+        }
+    }
+
+    /**
+     * Read a log written by {@link #save}. Throws IllegalArgumentException if the records
+     * don't parse back into exactly the saved number of actions.
+     */
+    void restore(ByteBuffer in) {
+        int savedScore = in.getInt();
+        int savedMoves = in.getInt();
+        int savedActions = in.getInt();
+        int savedSize = in.getInt();
+        if (savedSize < 0 || savedSize > in.remaining() / 4) {
+            throw new IllegalArgumentException("Bad undo record count: " + savedSize);
+        }
+        int[] saved = new int[Math.max(INITIAL_CAPACITY, savedSize)];
+        for (int i = 0; i < savedSize; i++) {
+            saved[i] = in.getInt();
+        }
+
+        // Walk back from the newest record the way pop() does, checking every field undo reads
+        int actions = 0;
+        int index = savedSize - 1;
+        while (index >= 0) {
+            int record = saved[index];
+            int type = type(record);
+            if (type == 0 || column(record) >= SpiderEngine.NUM_COLUMNS || targetColumn(record) >= SpiderEngine.NUM_COLUMNS) {
+                throw new IllegalArgumentException("Bad undo record: " + Integer.toHexString(record));
+            }
+            index -= type == TYPE_SUIT ? 1 : 3;
+            if (type != TYPE_SUIT) {
+                actions++;
+            }
+        }
+        if (index != -1 || actions != savedActions) {
+            throw new IllegalArgumentException("Undo records don't add up to " + savedActions + " actions");
+        }
+
+        records = saved;
+        size = savedSize;
+        actionCount = savedActions;
+        scoreBefore = savedScore;
+        movesBefore = savedMoves;
+    }
+
+    private void pushCounters(int score, int moves) {
+        push(score - scoreBefore);
+        push(moves - movesBefore);
+        scoreBefore = score;
+        movesBefore = moves;
+        actionCount++;
+    }
+
+    private void push(int record) {
+        if (size == records.length) {
+            records = Arrays.copyOf(records, size * 2);
+        }
+        records[size++] = record;
+    }
+
+    static int type(int record) {
+        return record & 0x3;
+    }
+
+    static int column(int record) {
+        return (record >> 2) & 0xF;
+    }
+
+    static int targetColumn(int record) {
+        return (record >> 6) & 0xF;
+    }
+
+    static int count(int record) {
+        return (record >> 10) & 0xFF;
+    }
+
+    static boolean flipped(int record) {
+        return (record & (1 << 18)) != 0;
+    }
+
+    static int suit(int record) {
+        return (record >> 19) & 0x7;
+    }
+}
@@ -0,0 +1,30 @@
+package ape.spider.engine;
+
+/**
+ * Zobrist keys for {@link SpiderEngine} positions.
+ * A position hash is the XOR of one key per tableau card (column, row, card byte including
+ * the face-up flag) and one key for the stock depth. Keys are derived on the fly with the
+ * SplitMix64 finalizer instead of a lookup table, since rows can reach the full deck size.
+ */
+public final class Zobrist {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long STOCK_TAG = 1L << 32;
+
+    private Zobrist() {
+    }
+
+    public static long card(int col, int row, byte card) {
+        return mix(((col << 16) | (row << 8) | (card & 0xFF)) + 1L);
+    }
+
+    public static long stock(int stockSize) {
+        return mix(STOCK_TAG | stockSize);
+    }
+
+    private static long mix(long index) {
+        long z = index * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
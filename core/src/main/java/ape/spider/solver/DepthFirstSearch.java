@@ -0,0 +1,307 @@
+package ape.spider.solver;
+
+import ape.spider.engine.Cards;
+import ape.spider.engine.Moves;
+import ape.spider.engine.SpiderEngine;
+
+import java.util.Arrays;
+
+/**
+ * Iterative depth-first search over one {@link SpiderEngine}, backtracking with its undo log.
+ * Positions are skipped when they repeat the current line or are already in the
+ * transposition table. Moves at each ply are ordered so progress-making moves come first,
+ * and moves that only shuffle cards sideways are not generated at all.
+ * <p>
+ * Lines are cut off at a maximum depth, so the move lists and undo log it keeps stay
+ * bounded however many nodes the search is allowed. A search that cut a line off reports
+ * it to its {@link SearchControl}, since running out of moves then proves nothing.
+ */
+final class DepthFirstSearch {
+    static final int WON = 0;
+    static final int EXHAUSTED = 1;
+    static final int STOPPED = 2;
+
+    /** Receives untried moves a search gives away so idle workers can take them. */
+    interface Splitter {
+        /** True if other workers are idle and the search should give away part of its work. */
+        boolean wantsWork();
+
+        /** Take over the subtree reached by playing line[0..length) and then move. */
+        void split(int[] line, int length, int move);
+    }
+
+    // How often (in nodes) to check limits, offer work and sample heap usage
+    private static final int CHECK_INTERVAL = 4096;
+    private static final int SPLIT_INTERVAL = 256;
+    private static final int HEAP_SAMPLE_INTERVAL = 1 << 16;
+
+    private final SpiderEngine engine;
+    private final TranspositionTable table;
+    private final SearchControl control;
+    private Splitter splitter;
+    private int maxDepth = SpiderSolver.DEFAULT_MAX_DEPTH;
+
+    // Move lists for every ply on the current line, stored back to back
+    private int[] moveBuffer = new int[Moves.MAX_LEGAL_MOVES * 16];
+    private int[] frameStart = new int[256];
+    private int[] frameCount = new int[256];
+    private int[] frameNext = new int[256];
+    // Move played at every ply of the current line (frameNext can run past it once work is given away)
+    private int[] line = new int[256];
+
+    private int[] solution = new int[0];
+    private long nodes;
+    private long reportedNodes;
+    private long peakHeapBytes;
+
+    DepthFirstSearch(SpiderEngine engine, TranspositionTable table, SearchControl control) {
+        this.engine = engine;
+        this.table = table;
+        this.control = control;
+    }
+
+    void setSplitter(Splitter splitter) {
+        this.splitter = splitter;
+    }
+
+    /** Longest line, in moves from the starting position, the search plays before backing off. */
+    void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Search from the engine's current position. The engine is returned to that position
+     * before this method returns, whatever the outcome.
+     */
+    int run() {
+        sampleHeap();
+        if (engine.isWon()) {
+            return WON;
+        }
+        if (control.isStopped()) {
+            return STOPPED;
+        }
+        if (!hasEnoughCards()) {
+            return EXHAUSTED;
+        }
+        if (maxDepth < 1) {
+            control.cutOff();
+            return EXHAUSTED;
+        }
+        table.visit(engine.getPositionHash());
+
+        int depth = 0;
+        frameStart[0] = 0;
+        frameCount[0] = generateOrdered(0);
+        frameNext[0] = 0;
+
+        while (true) {
+            if (frameNext[depth] < frameCount[depth]) {
+                int move = moveBuffer[frameStart[depth] + frameNext[depth]++] & 0xFFFF;
+                Moves.apply(engine, move);
+                line[depth] = move;
+                nodes++;
+
+                if (engine.isWon()) {
+                    solution = Arrays.copyOf(line, depth + 1);
+                    unwind(depth + 1);
+                    return finish(WON);
+                }
+
+                if ((nodes % CHECK_INTERVAL) == 0 && limitReached()) {
+                    unwind(depth + 1);
+                    return finish(STOPPED);
+                }
+                if (splitter != null && (nodes % SPLIT_INTERVAL) == 0 && splitter.wantsWork()) {
+                    giveAwayWork(depth);
+                }
+
+                if (engine.isRepeatedPosition()) {
+                    engine.undo();
+                    continue;
+                }
+                if (depth + 1 == maxDepth) {
+                    // Not recorded in the table: reached by a shorter line, it still has moves to try
+                    if (!control.isCutOff()) control.cutOff();
+                    engine.undo();
+                    continue;
+                }
+                if (table.visit(engine.getPositionHash())) {
+                    engine.undo();
+                    continue;
+                }
+
+                depth++;
+                ensureDepthCapacity(depth);
+                frameStart[depth] = frameStart[depth - 1] + frameCount[depth - 1];
+                frameCount[depth] = generateOrdered(frameStart[depth]);
+                frameNext[depth] = 0;
+            } else {
+                if (depth == 0) {
+                    return finish(EXHAUSTED);
+                }
+                engine.undo();
+                depth--;
+            }
+        }
+    }
+
+    int[] getSolution() {
+        return solution;
+    }
+
+    long getNodes() {
+        return nodes;
+    }
+
+    long getPeakHeapBytes() {
+        return peakHeapBytes;
+    }
+
+    // The suits still needed must exist among the cards left in play
+    private boolean hasEnoughCards() {
+        int cardsLeft = engine.getStockSize();
+        for (int col = 0; col < SpiderEngine.NUM_COLUMNS; col++) {
+            cardsLeft += engine.getColumnLength(col);
+        }
+        int suitsNeeded = engine.getRequiredSuitsToWin() - engine.getCompletedSuits();
+        return cardsLeft / Cards.RANKS_PER_SUIT >= suitsNeeded;
+    }
+
+    private boolean limitReached() {
+        if ((nodes % HEAP_SAMPLE_INTERVAL) == 0) {
+            sampleHeap();
+        }
+        boolean stop = control.checkpoint(nodes - reportedNodes);
+        reportedNodes = nodes;
+        return stop;
+    }
+
+    private int finish(int outcome) {
+        control.report(nodes - reportedNodes);
+        reportedNodes = nodes;
+        return outcome;
+    }
+
+    private void sampleHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        peakHeapBytes = Math.max(peakHeapBytes, runtime.totalMemory() - runtime.freeMemory());
+    }
+
+    private void unwind(int plies) {
+        for (int i = 0; i < plies; i++) {
+            engine.undo();
+        }
+    }
+
+    private void ensureDepthCapacity(int depth) {
+        if (depth == frameStart.length) {
+            frameStart = Arrays.copyOf(frameStart, depth * 2);
+            frameCount = Arrays.copyOf(frameCount, depth * 2);
+            frameNext = Arrays.copyOf(frameNext, depth * 2);
+            line = Arrays.copyOf(line, depth * 2);
+        }
+    }
+
+    /**
+     * Hand every untried move of the shallowest unfinished ply to the splitter.
+     * Shallow subtrees are the largest, so one split keeps an idle worker busy for a while.
+     */
+    private void giveAwayWork(int depth) {
+        for (int ply = 0; ply <= depth; ply++) {
+            if (frameNext[ply] < frameCount[ply]) {
+                for (int next = frameNext[ply]; next < frameCount[ply]; next++) {
+                    splitter.split(line, ply, moveBuffer[frameStart[ply] + next] & 0xFFFF);
+                }
+                frameNext[ply] = frameCount[ply];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Generate the legal moves worth trying into moveBuffer at offset, sorted best first.
+     * Each entry is ((priority + 1) << 16) | move so a plain descending sort orders them,
+     * leaving the deal (priority 0) last.
+     * <p>
+     * Empty columns are interchangeable, so only the first is a target. A run split
+     * mid-sequence, or moved off the next rank up onto a card of another suit, lands on a
+     * parent no better than the one it left, so it is skipped unless it completes a suit.
+     */
+    private int generateOrdered(int offset) {
+        if (offset + Moves.MAX_LEGAL_MOVES > moveBuffer.length) {
+            moveBuffer = Arrays.copyOf(moveBuffer, Math.max(moveBuffer.length * 2, offset + Moves.MAX_LEGAL_MOVES));
+        }
+
+        int count = 0;
+        int firstEmpty = -1;
+        for (int col = 0; col < SpiderEngine.NUM_COLUMNS; col++) {
+            if (engine.getColumnLength(col) == 0) {
+                firstEmpty = col;
+                break;
+            }
+        }
+
+        for (int sourceCol = 0; sourceCol < SpiderEngine.NUM_COLUMNS; sourceCol++) {
+            int length = engine.getColumnLength(sourceCol);
+            int runStart = engine.getMovableRunStart(sourceCol);
+            for (int cardIndex = runStart; cardIndex < length; cardIndex++) {
+                byte card = engine.getCard(sourceCol, cardIndex);
+                boolean revealsHidden = cardIndex > 0 && !Cards.isFaceUp(engine.getCard(sourceCol, cardIndex - 1));
+                // Card already sits on the next rank up, so moving it only shuffles it sideways
+                boolean onNaturalParent = cardIndex > 0 && !revealsHidden
+                    && Cards.rank(engine.getCard(sourceCol, cardIndex - 1)) == Cards.rank(card) + 1;
+                boolean splitsRun = cardIndex > runStart;
+                int moved = length - cardIndex;
+
+                for (int targetCol = 0; targetCol < SpiderEngine.NUM_COLUMNS; targetCol++) {
+                    if (targetCol == sourceCol) continue;
+
+                    int priority;
+                    if (engine.getColumnLength(targetCol) == 0) {
+                        // Moving a whole column into an empty one changes nothing
+                        if (targetCol != firstEmpty || cardIndex == 0 || splitsRun || onNaturalParent) continue;
+                        priority = revealsHidden ? 6 : 2;
+                    } else {
+                        byte targetTop = engine.getTopCard(targetCol);
+                        if (Cards.rank(targetTop) != Cards.rank(card) + 1) continue;
+
+                        boolean sameSuit = Cards.suit(targetTop) == Cards.suit(card);
+                        if (splitsRun || (onNaturalParent && !sameSuit)) {
+                            if (!sameSuit || !completesSuit(targetCol, moved)) continue;
+                            priority = 15;
+                        } else {
+                            priority = sameSuit ? 8 : 2;
+                            if (revealsHidden) priority += 4;
+                            if (cardIndex == 0) priority += 3;
+                            if (onNaturalParent) priority = 1;
+                        }
+                    }
+                    moveBuffer[offset + count++] = ((priority + 1) << 16) | Moves.encode(sourceCol, cardIndex, targetCol);
+                }
+            }
+        }
+
+        if (engine.canDeal()) {
+            moveBuffer[offset + count++] = Moves.DEAL;
+        }
+
+        // Insertion sort, descending by priority; lists are short
+        for (int i = offset + 1; i < offset + count; i++) {
+            int key = moveBuffer[i];
+            int j = i - 1;
+            while (j >= offset && moveBuffer[j] < key) {
+                moveBuffer[j + 1] = moveBuffer[j];
+                j--;
+            }
+            moveBuffer[j + 1] = key;
+        }
+        return count;
+    }
+
+    // True if moved cards of the same suit, put on targetCol's run, make it King to Ace
+    private boolean completesSuit(int targetCol, int moved) {
+        int run = engine.getColumnLength(targetCol) - engine.getMovableRunStart(targetCol);
+        return run + moved == Cards.RANKS_PER_SUIT;
+    }
+}
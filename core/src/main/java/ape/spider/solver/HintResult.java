@@ -0,0 +1,54 @@
+package ape.spider.solver;
+
+import ape.spider.engine.Moves;
+
+/**
+ * Legal moves of a position ranked by {@link HintSearch}, best first.
+ */
+public class HintResult {
+    private final int[] moves;
+    private final int[] values;
+    private final int depth;
+    private final long nodes;
+    private final boolean cancelled;
+
+    public HintResult(int[] moves, int[] values, int depth, long nodes, boolean cancelled) {
+        this.moves = moves;
+        this.values = values;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.cancelled = cancelled;
+    }
+
+    /** Ranked {@link Moves} values; empty if no legal move leads anywhere new. */
+    public int[] getMoves() {
+        return moves;
+    }
+
+    /** Search value of each ranked move, higher is better. */
+    public int[] getValues() {
+        return values;
+    }
+
+    public boolean hasMove() {
+        return moves.length > 0;
+    }
+
+    public int getBestMove() {
+        return moves[0];
+    }
+
+    /** Deepest lookahead that finished for every move within the budget. */
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    /** True if the search was cancelled, in which case the ranking should be thrown away. */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
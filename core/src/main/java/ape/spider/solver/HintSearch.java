@@ -0,0 +1,195 @@
+package ape.spider.solver;
+
+import ape.spider.engine.Cards;
+import ape.spider.engine.Moves;
+import ape.spider.engine.SpiderEngine;
+
+import java.util.Arrays;
+
+/**
+ * Ranks the legal moves of a position for a player hint.
+ * Unlike {@link SpiderSolver} it only uses what the player can see: a line of play ends at any
+ * move that turns over a face-down card, removes a suit or deals, and positions are scored
+ * from face-up cards and counts alone. The lookahead deepens one ply at a time until the
+ * time budget runs out, and the ranking from the last depth that finished is returned.
+ */
+public class HintSearch {
+    /** Lookahead never goes deeper than this, however much budget is left. */
+    public static final int MAX_DEPTH = 6;
+
+    // How often (in nodes) to check the deadline and cancellation
+    private static final int CHECK_INTERVAL = 512;
+
+    // Position evaluation weights
+    private static final int COMPLETED_SUIT_VALUE = 1000;
+    private static final int EMPTY_COLUMN_VALUE = 50;
+    private static final int HIDDEN_CARD_COST = 20;
+    private static final int SAME_SUIT_LINK_VALUE = 10;
+    private static final int OFF_SUIT_LINK_VALUE = 3;
+    // Every move costs a little so aimless shuffling ranks below dealing
+    private static final int MOVE_COST = 2;
+    private static final int DEAL_COST = 1;
+    private static final int GAP_FILL_TIE_BREAK = 1 << 20;
+    private static final int REPEAT_VALUE = Integer.MIN_VALUE / 2;
+
+    // One move list per remaining depth, so the search allocates nothing per node
+    private final int[][] moveLists = new int[MAX_DEPTH][Moves.MAX_LEGAL_MOVES];
+
+    private volatile boolean cancelled;
+    private long deadlineNanos;
+    private boolean enforceDeadline;
+    private boolean aborted;
+    private long nodes;
+
+    /** Stop a running search; safe to call from any thread. */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Rank the legal moves of the engine's position within budgetMillis.
+     * The engine must not collapse repetitions; it is left in the position it started in.
+     * A one-ply ranking is always completed unless the search is cancelled.
+     */
+    public HintResult search(SpiderEngine engine, long budgetMillis) {
+        deadlineNanos = System.nanoTime() + budgetMillis * 1_000_000L;
+        nodes = 0;
+        aborted = false;
+
+        int count = generateUseful(engine, moveLists[0]);
+        int[] moves = Arrays.copyOf(moveLists[0], count);
+        int[] values = new int[count];
+        int[] immediate = new int[count];
+        int[] pending = new int[count];
+
+        int depth = 0;
+        while (depth < MAX_DEPTH && count > 0) {
+            enforceDeadline = depth > 0;
+            for (int i = 0; i < count && !aborted; i++) {
+                pending[i] = valueOf(engine, moves[i], depth + 1);
+            }
+            if (aborted) break;
+
+            System.arraycopy(pending, 0, values, 0, count);
+            if (depth == 0) {
+                System.arraycopy(pending, 0, immediate, 0, count);
+            }
+            depth++;
+            if (count == 1) break;
+        }
+
+        // A deal blocked by gaps is the way out once nothing else gains, so filling a gap wins ties
+        if (engine.getStockSize() > 0 && engine.hasEmptyTableau()) {
+            for (int i = 0; i < count; i++) {
+                if (!Moves.isDeal(moves[i]) && engine.getColumnLength(Moves.target(moves[i])) == 0) {
+                    immediate[i] += GAP_FILL_TIE_BREAK;
+                }
+            }
+        }
+
+        // Insertion sort, best value first; ties go to the better immediate result, then list order
+        for (int i = 1; i < count; i++) {
+            int move = moves[i];
+            int value = values[i];
+            int now = immediate[i];
+            int j = i - 1;
+            while (j >= 0 && (values[j] < value || (values[j] == value && immediate[j] < now))) {
+                moves[j + 1] = moves[j];
+                values[j + 1] = values[j];
+                immediate[j + 1] = immediate[j];
+                j--;
+            }
+            moves[j + 1] = move;
+            values[j + 1] = value;
+            immediate[j + 1] = now;
+        }
+
+        // Moves straight back to a position already on the line of play are no hint at all
+        int useful = count;
+        while (useful > 0 && values[useful - 1] == REPEAT_VALUE) {
+            useful--;
+        }
+        return new HintResult(Arrays.copyOf(moves, useful), Arrays.copyOf(values, useful), depth, nodes, cancelled);
+    }
+
+    // Best value reachable by playing move and then up to remaining - 1 further moves
+    private int valueOf(SpiderEngine engine, int move, int remaining) {
+        if (Moves.isDeal(move)) {
+            // The dealt cards are unknown to the player, so don't look at them
+            return evaluate(engine) - DEAL_COST;
+        }
+
+        int cardIndex = Moves.cardIndex(move);
+        boolean revealsHidden = cardIndex > 0 && !Cards.isFaceUp(engine.getCard(Moves.source(move), cardIndex - 1));
+        int suitsBefore = engine.getCompletedSuits();
+
+        Moves.apply(engine, move);
+        nodes++;
+        if ((nodes % CHECK_INTERVAL) == 0 && (cancelled || (enforceDeadline && System.nanoTime() >= deadlineNanos))) {
+            aborted = true;
+        }
+
+        int value;
+        if (engine.isRepeatedPosition()) {
+            value = REPEAT_VALUE;
+        } else if (remaining == 1 || revealsHidden || engine.getCompletedSuits() != suitsBefore || aborted) {
+            value = evaluate(engine);
+        } else {
+            // Stopping here is always an option, so the line is worth at least this position
+            value = evaluate(engine);
+            int[] list = moveLists[remaining - 1];
+            int count = generateUseful(engine, list);
+            for (int i = 0; i < count && !aborted; i++) {
+                value = Math.max(value, valueOf(engine, list[i], remaining - 1));
+            }
+        }
+        if (value != REPEAT_VALUE) {
+            value -= MOVE_COST;
+        }
+
+        engine.undo();
+        return value;
+    }
+
+    // Legal moves, minus moving a whole column into an empty one, which changes nothing
+    private static int generateUseful(SpiderEngine engine, int[] out) {
+        int count = Moves.generateLegal(engine, out);
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int move = out[i];
+            if (Moves.isDeal(move) || Moves.cardIndex(move) > 0 || engine.getColumnLength(Moves.target(move)) > 0) {
+                out[kept++] = move;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Score a position from completed suits, empty columns, face-down cards and face-up runs.
+     * Empty columns only count once the stock is gone; before that they must be filled
+     * again for the next deal, and rewarding them makes hints shuffle cards in and out.
+     */
+    private static int evaluate(SpiderEngine engine) {
+        int value = engine.getCompletedSuits() * COMPLETED_SUIT_VALUE;
+        for (int col = 0; col < SpiderEngine.NUM_COLUMNS; col++) {
+            int length = engine.getColumnLength(col);
+            if (length == 0) {
+                if (engine.getStockSize() == 0) value += EMPTY_COLUMN_VALUE;
+                continue;
+            }
+
+            byte below = engine.getCard(col, 0);
+            if (!Cards.isFaceUp(below)) value -= HIDDEN_CARD_COST;
+            for (int row = 1; row < length; row++) {
+                byte card = engine.getCard(col, row);
+                if (!Cards.isFaceUp(card)) {
+                    value -= HIDDEN_CARD_COST;
+                } else if (Cards.isFaceUp(below) && Cards.rank(below) == Cards.rank(card) + 1) {
+                    value += Cards.suit(below) == Cards.suit(card) ? SAME_SUIT_LINK_VALUE : OFF_SUIT_LINK_VALUE;
+                }
+                below = card;
+            }
+        }
+        return value;
+    }
+}
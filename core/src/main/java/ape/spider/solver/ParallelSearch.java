@@ -0,0 +1,136 @@
+package ape.spider.solver;
+
+import ape.spider.engine.Moves;
+import ape.spider.engine.SpiderEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Depth-first search spread over a {@link ForkJoinPool}.
+ * Every task searches one subtree with its own engine copy and {@link DepthFirstSearch}.
+ * When the pool has idle workers, a running search gives away the untried moves of its
+ * shallowest unfinished ply as new tasks, which idle workers then steal.
+ * All tasks share one {@link TranspositionTable} and {@link SearchControl}, so a win
+ * anywhere stops the rest at their next checkpoint.
+ */
+final class ParallelSearch {
+    private final SpiderEngine root;
+    private final TranspositionTable table;
+    private final SearchControl control;
+    private final int parallelism;
+    private final int maxDepth;
+
+    private final AtomicReference<int[]> solution = new AtomicReference<>();
+    private final LongAccumulator peakHeapBytes = new LongAccumulator(Math::max, 0);
+
+    ParallelSearch(SpiderEngine root, TranspositionTable table, SearchControl control, int parallelism, int maxDepth) {
+        this.root = root;
+        this.table = table;
+        this.control = control;
+        this.parallelism = parallelism;
+        this.maxDepth = maxDepth;
+    }
+
+    /** Search from the root engine's position, which is left untouched. */
+    int run() {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new SubtreeTask(new int[0]));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        if (solution.get() != null) {
+            return DepthFirstSearch.WON;
+        }
+        return control.isLimitReached() ? DepthFirstSearch.STOPPED : DepthFirstSearch.EXHAUSTED;
+    }
+
+    int[] getSolution() {
+        int[] moves = solution.get();
+        return moves != null ? moves : new int[0];
+    }
+
+    long getPeakHeapBytes() {
+        return peakHeapBytes.get();
+    }
+
+    private void won(int[] moves) {
+        if (solution.compareAndSet(null, moves)) {
+            control.stop();
+        }
+    }
+
+    /** Searches the position reached by playing prefix from the root. */
+    private final class SubtreeTask extends RecursiveAction implements DepthFirstSearch.Splitter {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] prefix;
+        private final List<SubtreeTask> forked = new ArrayList<>();
+
+        SubtreeTask(int[] prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        protected void compute() {
+            if (control.isStopped()) {
+                return;
+            }
+
+            SpiderEngine engine = root.copy();
+            for (int move : prefix) {
+                Moves.apply(engine, move);
+            }
+            if (prefix.length > 0) {
+                control.report(1);
+                if (engine.isWon()) {
+                    won(prefix);
+                    return;
+                }
+                if (engine.isRepeatedPosition() || table.visit(engine.getPositionHash())) {
+                    return;
+                }
+            }
+
+            DepthFirstSearch search = new DepthFirstSearch(engine, table, control);
+            search.setSplitter(this);
+            search.setMaxDepth(maxDepth - prefix.length);  // The whole line stays within the limit
+            if (search.run() == DepthFirstSearch.WON) {
+                int[] line = search.getSolution();
+                int[] moves = new int[prefix.length + line.length];
+                System.arraycopy(prefix, 0, moves, 0, prefix.length);
+                System.arraycopy(line, 0, moves, prefix.length, line.length);
+                won(moves);
+            }
+            peakHeapBytes.accumulate(search.getPeakHeapBytes());
+
+            // Help finish the subtrees this task gave away; they return at once after a stop
+            for (SubtreeTask task : forked) {
+                task.join();
+            }
+        }
+
+        @Override
+        public boolean wantsWork() {
+            return getSurplusQueuedTaskCount() <= 0 && !control.isStopped();
+        }
+
+        @Override
+        public void split(int[] line, int length, int move) {
+            int[] moves = new int[prefix.length + length + 1];
+            System.arraycopy(prefix, 0, moves, 0, prefix.length);
+            System.arraycopy(line, 0, moves, prefix.length, length);
+            moves[moves.length - 1] = move;
+
+            SubtreeTask task = new SubtreeTask(moves);
+            task.fork();
+            forked.add(task);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ape.spider.solver;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits and cancellation shared by every search taking part in one solve.
+ * Searches report their node counts in batches and stop cooperatively once
+ * {@link #isStopped()} turns true, whether from a limit or because another worker won.
+ */
+final class SearchControl {
+    private final long nodeLimit;
+    private final long deadlineNanos;
+    private final AtomicLong nodes = new AtomicLong();
+    private volatile boolean stopped;
+    private volatile boolean limitReached;
+    private volatile boolean cutOff;
+
+    SearchControl(long nodeLimit, long deadlineNanos) {
+        this.nodeLimit = nodeLimit;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /** Add nodes searched since the last report. Returns true if the caller should stop. */
+    boolean checkpoint(long newNodes) {
+        long total = nodes.addAndGet(newNodes);
+        if (total >= nodeLimit || (deadlineNanos != 0 && System.nanoTime() >= deadlineNanos)) {
+            limitReached = true;
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    /** Add the last nodes of a search that has finished. */
+    void report(long newNodes) {
+        nodes.addAndGet(newNodes);
+    }
+
+    /** Stop every search, e.g. because a win was found. */
+    void stop() {
+        stopped = true;
+    }
+
+    boolean isStopped() {
+        return stopped;
+    }
+
+    boolean isLimitReached() {
+        return limitReached;
+    }
+
+    /** Note that a search gave up on a line at the depth limit, so exhausting the rest proves nothing. */
+    void cutOff() {
+        cutOff = true;
+    }
+
+    boolean isCutOff() {
+        return cutOff;
+    }
+
+    long getNodes() {
+        return nodes.get();
+    }
+}
@@ -0,0 +1,80 @@
+package ape.spider.solver;
+
+import ape.spider.engine.Moves;
+
+/**
+ * Outcome of a {@link SpiderSolver} run, with the winning line and search statistics.
+ */
+public class SolveResult {
+    public enum Status {
+        WON,            // A winning move sequence was found
+        UNWINNABLE,     // Every line the solver's moves allow was searched without a win
+        LIMIT_REACHED   // The node, time or depth limit stopped the search before it could decide
+    }
+
+    private final Status status;
+    private final int[] moves;
+    private final long nodes;
+    private final long elapsedNanos;
+    private final long peakHeapBytes;
+    private final long tableBytes;
+
+    public SolveResult(Status status, int[] moves, long nodes, long elapsedNanos, long peakHeapBytes, long tableBytes) {
+        this.status = status;
+        this.moves = moves;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+        this.peakHeapBytes = peakHeapBytes;
+        this.tableBytes = tableBytes;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isWon() {
+        return status == Status.WON;
+    }
+
+    /** Winning line as {@link Moves} values, empty unless the status is WON. */
+    public int[] getMoves() {
+        return moves;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getNodesPerSecond() {
+        return elapsedNanos > 0 ? nodes * 1e9 / elapsedNanos : 0;
+    }
+
+    /** Highest used-heap sample taken during the search. */
+    public long getPeakHeapBytes() {
+        return peakHeapBytes;
+    }
+
+    public long getTableBytes() {
+        return tableBytes;
+    }
+
+    public String getMoveList() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < moves.length; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(Moves.toString(moves[i]));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s in %d moves, %d nodes, %.1f ms (%.0f nodes/s), peak heap %d MB, table %d MB",
+            status, moves.length, nodes, elapsedNanos / 1e6, getNodesPerSecond(),
+            peakHeapBytes >> 20, tableBytes >> 20);
+    }
+}
@@ -0,0 +1,101 @@
+package ape.spider.solver;
+
+import ape.spider.GameConfig;
+import ape.spider.engine.SpiderEngine;
+
+/**
+ * Decides whether a deal can be won, with full knowledge of the face-down cards and stock.
+ * Runs a depth-first search with move ordering over a {@link SpiderEngine} and remembers
+ * expanded positions in a bounded {@link TranspositionTable}. Lines longer than the maximum
+ * depth are cut off, which keeps memory bounded and winning lines playable.
+ * With a parallelism above 1 the search is split across a work-stealing pool
+ * that shares one table, and stops as soon as any worker finds a win.
+ */
+public class SpiderSolver {
+    /** 2^22 entries = 32 MB of transposition table. */
+    public static final int DEFAULT_TABLE_BITS = 22;
+    /** Moves in the longest line searched. */
+    public static final int DEFAULT_MAX_DEPTH = 500;
+
+    private final int tableBits;
+    private long nodeLimit = Long.MAX_VALUE;
+    private long timeLimitMillis;
+    private int parallelism = 1;
+    private int maxDepth = DEFAULT_MAX_DEPTH;
+
+    public SpiderSolver() {
+        this(DEFAULT_TABLE_BITS);
+    }
+
+    public SpiderSolver(int tableBits) {
+        this.tableBits = tableBits;
+    }
+
+    /** Stop after this many positions and report {@link SolveResult.Status#LIMIT_REACHED}. */
+    public void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    /** Stop after this much wall time (0 for no limit). */
+    public void setTimeLimitMillis(long timeLimitMillis) {
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    /**
+     * Search lines of at most this many moves. A deal whose search cut lines off and found no
+     * win is reported as {@link SolveResult.Status#LIMIT_REACHED}, not unwinnable.
+     */
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    /** Number of worker threads; 1 searches on the calling thread, 0 uses every core. */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /** Solve the deal that {@link SpiderEngine#initializeGame} produces for this config. */
+    public SolveResult solve(GameConfig config) {
+        SpiderEngine engine = new SpiderEngine();
+        engine.initializeGame(config);
+        return solve(engine);
+    }
+
+    /**
+     * Solve from the engine's current position. The engine must not collapse repetitions,
+     * since the search backtracks through its undo log; it is left in the position it started in.
+     */
+    public SolveResult solve(SpiderEngine engine) {
+        long start = System.nanoTime();
+        long deadline = timeLimitMillis > 0 ? start + timeLimitMillis * 1_000_000L : 0;
+
+        TranspositionTable table = new TranspositionTable(tableBits);
+        SearchControl control = new SearchControl(nodeLimit, deadline);
+        int outcome;
+        int[] solution;
+        long peakHeapBytes;
+        if (parallelism > 1) {
+            ParallelSearch search = new ParallelSearch(engine, table, control, parallelism, maxDepth);
+            outcome = search.run();
+            solution = search.getSolution();
+            peakHeapBytes = search.getPeakHeapBytes();
+        } else {
+            DepthFirstSearch search = new DepthFirstSearch(engine, table, control);
+            search.setMaxDepth(maxDepth);
+            outcome = search.run();
+            solution = search.getSolution();
+            peakHeapBytes = search.getPeakHeapBytes();
+        }
+
+        SolveResult.Status status;
+        if (outcome == DepthFirstSearch.WON) {
+            status = SolveResult.Status.WON;
+        } else if (outcome == DepthFirstSearch.EXHAUSTED && !control.isCutOff()) {
+            status = SolveResult.Status.UNWINNABLE;
+        } else {
+            status = SolveResult.Status.LIMIT_REACHED;
+        }
+        return new SolveResult(status, solution, control.getNodes(), System.nanoTime() - start,
+            peakHeapBytes, table.getSizeBytes());
+    }
+}
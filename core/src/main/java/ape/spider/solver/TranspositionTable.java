@@ -0,0 +1,54 @@
+package ape.spider.solver;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size table of position hashes the search has already expanded.
+ * Direct-mapped with always-replace, so memory stays bounded no matter how long the search runs;
+ * an evicted position may be searched again but is never reported wrongly as seen.
+ * <p>
+ * Lock-free, so parallel workers can share one table. Each slot is a single atomic long,
+ * so a reader sees either the old or the new hash; two workers racing on the same slot
+ * at worst both expand a position, which costs time but never correctness.
+ */
+public class TranspositionTable {
+    private final AtomicLongArray entries;
+    private final int mask;
+    private final LongAdder stores = new LongAdder();
+
+    /** Create a table with 2^bits entries (8 bytes each). */
+    public TranspositionTable(int bits) {
+        entries = new AtomicLongArray(1 << bits);
+        mask = entries.length() - 1;
+    }
+
+    /**
+     * Mark a position as visited. Returns true if it was already in the table,
+     * in which case the caller should not expand it again.
+     */
+    public boolean visit(long hash) {
+        long key = hash == 0 ? 1 : hash; // 0 marks an empty slot
+        int slot = (int) (key ^ (key >>> 32)) & mask;
+        if (entries.get(slot) == key) {
+            return true;
+        }
+        // Ordered store is enough: losing a race only means the position gets searched twice
+        entries.lazySet(slot, key);
+        stores.increment();
+        return false;
+    }
+
+    public int getCapacity() {
+        return entries.length();
+    }
+
+    /** Number of positions written, including ones that replaced an older entry. */
+    public long getStores() {
+        return stores.sum();
+    }
+
+    public long getSizeBytes() {
+        return (long) entries.length() * Long.BYTES;
+    }
+}
@@ -11,6 +11,7 @@ import ape.spider.Main;
 public class IOSLauncher extends IOSApplication.Delegate {
     @Override
     protected IOSApplication createApplication() {
+        StartupTimeline.start("launcher");
         IOSApplicationConfiguration configuration = new IOSApplicationConfiguration();
         return new IOSApplication(new Main(), configuration);
     }
@@ -0,0 +1,162 @@
+package ape.spider.tools;
+
+import ape.spider.DailyDeals;
+import ape.spider.GameConfig;
+import ape.spider.engine.Cards;
+import ape.spider.solver.SolveResult;
+import ape.spider.solver.SpiderSolver;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Batch tool that picks a winnable Daily Grind deal for every date and suit count from 1 to
+ * --suits. The date seed is kept whenever the solver wins it, and also whenever the solver
+ * runs out of budget on it, since only a deal proven unwinnable is worth replacing. Then the
+ * later candidate seeds are solved in order and the first the solver wins replaces it.
+ * Everything is written to the packed file read by {@link DailyDeals}, with records for
+ * the curated suit counts only.
+ * <p>
+ * More suits take far more search: the default budget settles one-suit deals, so raise
+ * --nodes along with --suits.
+ * <p>
+ * Usage: DailyDealCurator [--start yyyy-mm-dd] [--years n] [--suits n] [--candidates n]
+ * [--nodes n] [--table-bits n] [--threads n] [--out path]
+ */
+public class DailyDealCurator {
+    private LocalDate start = LocalDate.of(LocalDate.now().getYear(), 1, 1);
+    private int years = 5;
+    private int suitCounts = 1;
+    private int candidates = 64;
+    private long nodeLimit = 2_000_000;
+    private int tableBits = 20;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private File out = new File("assets/" + DailyDeals.FILE_NAME);
+
+    public static void main(String[] args) throws Exception {
+        DailyDealCurator curator = new DailyDealCurator();
+        curator.parseArgs(args);
+        curator.run();
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--start": start = LocalDate.parse(value); i++; break;
+                case "--years": years = Integer.parseInt(value); i++; break;
+                case "--suits": suitCounts = Integer.parseInt(value); i++; break;
+                case "--candidates": candidates = Integer.parseInt(value); i++; break;
+                case "--nodes": nodeLimit = Long.parseLong(value); i++; break;
+                case "--table-bits": tableBits = Integer.parseInt(value); i++; break;
+                case "--threads": threads = Integer.parseInt(value); i++; break;
+                case "--out": out = new File(value); i++; break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (years < 1) {
+            throw new IllegalArgumentException("--years must be at least 1");
+        }
+        if (suitCounts < 1 || suitCounts > Cards.NUM_SUITS) {
+            throw new IllegalArgumentException("--suits must be between 1 and " + Cards.NUM_SUITS);
+        }
+        if (candidates < 1 || candidates > 0xFFFF) {
+            throw new IllegalArgumentException("--candidates must be between 1 and 65535");
+        }
+    }
+
+    private void run() throws Exception {
+        int dayCount = (int) (start.plusYears(years).toEpochDay() - start.toEpochDay());
+        System.out.printf("Curating %d days from %s, %d suit counts, up to %d candidates of %d nodes, %d threads%n",
+            dayCount, start, suitCounts, candidates, nodeLimit, threads);
+
+        long startNanos = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<int[]>> futures = new ArrayList<>();
+        for (int day = 0; day < dayCount; day++) {
+            LocalDate date = start.plusDays(day);
+            long baseSeed = DailyDeals.baseSeed(date.getYear(), date.getMonthValue() - 1, date.getDayOfMonth());
+            for (int suits = 1; suits <= suitCounts; suits++) {
+                final int numSuits = suits;
+                futures.add(pool.submit(() -> curate(baseSeed, numSuits)));
+            }
+        }
+
+        byte[] records = new byte[dayCount * suitCounts * DailyDeals.RECORD_SIZE];
+        int[] winnable = new int[suitCounts + 1];
+        int[] replaced = new int[suitCounts + 1];
+        long[] candidatesTried = new long[suitCounts + 1];
+        for (int i = 0; i < futures.size(); i++) {
+            int[] record = futures.get(i).get();
+            int numSuits = i % suitCounts + 1;
+            int offset = i * DailyDeals.RECORD_SIZE;
+            records[offset] = (byte) (record[0] >> 8);
+            records[offset + 1] = (byte) record[0];
+            records[offset + 2] = (byte) record[1];
+            records[offset + 3] = (byte) record[2];
+
+            if (record[1] == DailyDeals.STATUS_WINNABLE) winnable[numSuits]++;
+            if (record[0] > 0) replaced[numSuits]++;
+            candidatesTried[numSuits] += record[3];
+            if (numSuits == suitCounts && (i / suitCounts + 1) % 30 == 0) {
+                System.out.printf("  %d/%d days%n", i / suitCounts + 1, dayCount);
+            }
+        }
+        pool.shutdown();
+
+        write(records, dayCount);
+
+        System.out.printf("Wrote %s (%d bytes) in %.1f s%n", out, out.length(), (System.nanoTime() - startNanos) / 1e9);
+        for (int suits = 1; suits <= suitCounts; suits++) {
+            System.out.printf("  %d suit(s): %d/%d days winnable, %d date seeds replaced, %.1f candidates tried on average%n",
+                suits, winnable[suits], dayCount, replaced[suits], candidatesTried[suits] / (double) Math.max(1, dayCount));
+        }
+    }
+
+    /** Returns {candidate, status, difficulty, candidates tried} for one date and suit count. */
+    private int[] curate(long baseSeed, int numSuits) {
+        SpiderSolver solver = new SpiderSolver(tableBits);
+        solver.setNodeLimit(nodeLimit);
+        int tried = 0;
+        for (int candidate = 0; candidate < candidates; candidate++) {
+            tried++;
+            SolveResult result = solver.solve(GameConfig.dailyGrind(numSuits, DailyDeals.candidateSeed(baseSeed, candidate)));
+            if (result.isWon()) {
+                return new int[]{candidate, DailyDeals.STATUS_WINNABLE, difficulty(result.getNodes()), tried};
+            }
+            if (candidate == 0 && result.getStatus() != SolveResult.Status.UNWINNABLE) {
+                break; // Unsolved isn't unwinnable: the date seed stays
+            }
+        }
+        return new int[]{0, DailyDeals.STATUS_UNVERIFIED, 0xFF, tried};
+    }
+
+    // Search effort as log2 of solver nodes in eighths, so 0-255 spans 1 to 2^32 nodes
+    private static int difficulty(long nodes) {
+        double log2 = Math.log(Math.max(1, nodes)) / Math.log(2);
+        return (int) Math.min(0xFF, Math.round(log2 * 8));
+    }
+
+    private void write(byte[] records, int dayCount) throws IOException {
+        File parent = out.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+        try (DataOutputStream data = new DataOutputStream(new FileOutputStream(out))) {
+            data.writeInt(DailyDeals.MAGIC);
+            data.writeShort(DailyDeals.FORMAT_VERSION);
+            data.writeShort(suitCounts);
+            data.writeInt((int) DailyDeals.epochDay(start.getYear(), start.getMonthValue() - 1, start.getDayOfMonth()));
+            data.writeInt(dayCount);
+            data.write(records);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package ape.spider.tools;
+
+import ape.spider.GameConfig;
+import ape.spider.Main;
+import ape.spider.MainMenuScreen;
+import ape.spider.StartupTimeline;
+import ape.spider.tools.headless.ScratchFiles;
+import ape.spider.tools.headless.WindowGraphics;
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.backends.headless.HeadlessPreferences;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Starts the game headless, with a GL that draws nothing, and prints the {@link StartupTimeline}
+ * from launch through the splash and main menu to the first game frame. Without a GPU the
+ * numbers cover the CPU side only: class loading, asset decoding, skin and atlas setup and
+ * the deal, which is what regresses when startup code changes.
+ * <p>
+ * Runs in a fresh JVM each time, so it measures a cold start, with empty preferences and local
+ * storage, so the splash prepares a 1-suit practice game as it would on first launch.
+ * <p>
+ * Run from the assets directory, where the screens load their images.
+ * <p>
+ * Usage: StartupReport [--suits n] [--json file] [--max-frames n]
+ */
+public class StartupReport {
+    private static final int WINDOW_WIDTH = 1280;
+    private static final int WINDOW_HEIGHT = 800;
+
+    private int suits = 1;
+    private String jsonPath;
+    private int maxFrames = 600;
+
+    private volatile Throwable error;
+
+    public static void main(String[] args) throws Exception {
+        StartupTimeline.start("launcher");
+        StartupReport report = new StartupReport();
+        report.parseArgs(args);
+        System.exit(report.run() ? 0 : 1);
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--suits": suits = Integer.parseInt(value); i++; break;
+                case "--json": jsonPath = value; i++; break;
+                case "--max-frames": maxFrames = Integer.parseInt(value); i++; break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+    }
+
+    private boolean run() throws InterruptedException, IOException {
+        final File scratchDirectory = Files.createTempDirectory("spider-scratch").toFile();
+        scratchDirectory.deleteOnExit();
+
+        final CountDownLatch done = new CountDownLatch(1);
+        new HeadlessApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                try {
+                    ScratchFiles.install(scratchDirectory);
+                    startUp();
+                } catch (Throwable t) {
+                    error = t;
+                } finally {
+                    Gdx.app.exit();
+                    done.countDown();
+                }
+            }
+        }, new HeadlessApplicationConfiguration()) {
+            // Keep the player's own preferences out of it, and ours out of theirs
+            @Override
+            public Preferences getPreferences(String name) {
+                File file = new File(scratchDirectory, name);
+                file.deleteOnExit();
+                return new HeadlessPreferences(Gdx.files.absolute(file.getPath()));
+            }
+        };
+        done.await();
+        if (error != null) {
+            throw new IllegalStateException("Startup failed", error);
+        }
+
+        boolean finished = StartupTimeline.isFinished();
+        System.out.print(StartupTimeline.report());
+        if (!finished) {
+            System.out.println("FAIL: no game frame was rendered");
+        }
+        if (jsonPath != null) {
+            Files.write(new File(jsonPath).toPath(), StartupTimeline.toJson().getBytes(StandardCharsets.UTF_8));
+            System.out.println("Wrote " + jsonPath);
+        }
+        return finished;
+    }
+
+    // The splash, then the first game from the main menu, as a player would get there
+    private void startUp() {
+        Gdx.app.setLogLevel(Application.LOG_ERROR); // The report is printed once, at the end
+        WindowGraphics.install(WINDOW_WIDTH, WINDOW_HEIGHT);
+
+        Main game = new Main();
+        game.create();
+        int frames = 0;
+        while (!(game.getScreen() instanceof MainMenuScreen)) {
+            if (++frames > maxFrames) {
+                throw new IllegalStateException("The splash didn't finish in " + maxFrames + " frames");
+            }
+            game.render();
+        }
+        game.render();
+
+        Screen menu = game.getScreen();
+        game.startGame(GameConfig.soloPractice(suits), null);
+        menu.dispose();
+        game.render();
+        game.dispose();
+    }
+}
@@ -0,0 +1,230 @@
+package ape.spider.tools.alloc;
+
+import ape.spider.GameConfig;
+import ape.spider.GameScreen;
+import ape.spider.Main;
+import ape.spider.tools.headless.ScratchFiles;
+import ape.spider.tools.headless.WindowGraphics;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.viewport.FitViewport;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Renders GameScreen headless, with a GL that draws nothing, and measures the bytes the
+ * render thread allocates per frame through {@link com.sun.management.ThreadMXBean}: for an
+ * idle board, while a card is dragged across the table, and while cards let go of glide back
+ * to their column. Exits with status 1 when any averages more than --max-bytes per frame, so
+ * an allocation creeping back into the frame loop fails the build.
+ * <p>
+ * Each case is warmed up, then measured over several rounds, and the quietest round counts: the JIT
+ * allocates on the thread now and then while it settles, but only a real allocation shows up in every
+ * round.
+ * <p>
+ * Run from the assets directory, where the screens load their images.
+ * <p>
+ * Usage: AllocationCheck [--frames n] [--rounds n] [--warmup n] [--max-bytes n] [--suits n] [--seed n]
+ */
+public class AllocationCheck {
+    private static final int WINDOW_WIDTH = 1280;
+    private static final int WINDOW_HEIGHT = 800;
+    private static final float FRAME_DELTA = 1f / 60f;
+    // Inside the face-up top card of column 0 in a fresh deal, in GameScreen's 900x700 world
+    private static final float DRAG_START_X = 45f;
+    private static final float DRAG_START_Y = 440f;
+    // Picked up, pulled down the same column and let go, so it animates back; once per cycle
+    private static final int DROP_DISTANCE = 40;
+    private static final int DROP_CYCLE = 30;
+
+    private int frames = 600;
+    private int rounds = 5;
+    private int warmup = 5_000;
+    private long maxBytes = 0;
+    private int suits = 4;
+    private long seed = 1;
+
+    private final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private volatile boolean passed;
+    private volatile Throwable error;
+
+    public static void main(String[] args) throws Exception {
+        AllocationCheck check = new AllocationCheck();
+        check.parseArgs(args);
+        System.exit(check.run() ? 0 : 1);
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--frames": frames = Integer.parseInt(value); i++; break;
+                case "--rounds": rounds = Integer.parseInt(value); i++; break;
+                case "--warmup": warmup = Integer.parseInt(value); i++; break;
+                case "--max-bytes": maxBytes = Long.parseLong(value); i++; break;
+                case "--suits": suits = Integer.parseInt(value); i++; break;
+                case "--seed": seed = Long.parseLong(value); i++; break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (frames < 1 || rounds < 1) {
+            throw new IllegalArgumentException("--frames and --rounds must be at least 1");
+        }
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            throw new IllegalStateException("This JVM can't report per-thread allocation");
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    private boolean run() throws InterruptedException, IOException {
+        // Moves made while measuring are journaled; keep them away from the player's saved game
+        final File scratchDirectory = Files.createTempDirectory("spider-scratch").toFile();
+        final CountDownLatch done = new CountDownLatch(1);
+        new HeadlessApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                try {
+                    ScratchFiles.install(scratchDirectory);
+                    passed = measure();
+                } catch (Throwable t) {
+                    error = t;
+                } finally {
+                    Gdx.app.exit();
+                    done.countDown();
+                }
+            }
+        }, new HeadlessApplicationConfiguration());
+        done.await();
+        File[] leftovers = scratchDirectory.listFiles();
+        if (leftovers != null) {
+            for (File file : leftovers) {
+                file.delete();
+            }
+        }
+        scratchDirectory.delete();
+        if (error != null) {
+            throw new IllegalStateException("Allocation check failed to run", error);
+        }
+        return passed;
+    }
+
+    // Runs on the application thread, which is the thread whose allocations are counted
+    private boolean measure() {
+        WindowGraphics graphics = WindowGraphics.install(WINDOW_WIDTH, WINDOW_HEIGHT);
+
+        Main game = new Main();
+        game.create();
+        final GameScreen screen = new GameScreen(game, new GameConfig(GameConfig.GameMode.SOLO_PRACTICE, suits, seed));
+        game.setScreen(screen);
+        screen.resize(WINDOW_WIDTH, WINDOW_HEIGHT);
+
+        Frame idle = new Frame() {
+            @Override
+            public void run(int frame) {
+                screen.render(FRAME_DELTA);
+            }
+        };
+        for (int i = 0; i < warmup; i++) {
+            idle.run(i);
+        }
+        long idleBytes = measureFrames(idle);
+
+        // Where GameScreen's top-anchored FitViewport puts the drag start on the window
+        FitViewport viewport = new FitViewport(900f, 700f);
+        viewport.update(WINDOW_WIDTH, WINDOW_HEIGHT, true);
+        Vector2 start = viewport.project(new Vector2(DRAG_START_X, DRAG_START_Y));
+        final int startX = (int) start.x;
+        final int startY = WINDOW_HEIGHT - (int) start.y;
+
+        screen.touchDown(startX, startY, 0, 0);
+        final int[] pointer = {startX, startY};
+        Frame drag = new Frame() {
+            // Sweep the pointer back and forth across a few columns, one event per frame
+            @Override
+            public void run(int frame) {
+                int step = (frame / 100) % 2 == 0 ? 3 : -3;
+                pointer[0] += step;
+                pointer[1] += frame % 2 == 0 ? 1 : -1;
+                screen.touchDragged(pointer[0], pointer[1], 0);
+                screen.render(FRAME_DELTA);
+            }
+        };
+        for (int i = 0; i < warmup; i++) {
+            drag.run(i);
+        }
+        int requestsBefore = graphics.getRenderingRequests();
+        long dragBytes = measureFrames(drag);
+        boolean dragged = graphics.getRenderingRequests() > requestsBefore;
+        screen.touchUp(startX, startY, 0, 0);
+
+        Frame release = new Frame() {
+            @Override
+            public void run(int frame) {
+                int phase = frame % DROP_CYCLE;
+                if (phase == 0) {
+                    screen.touchDown(startX, startY, 0, 0);
+                    screen.touchDragged(startX, startY + DROP_DISTANCE, 0);
+                } else if (phase == 1) {
+                    screen.touchUp(startX, startY + DROP_DISTANCE, 0, 0);
+                }
+                screen.render(FRAME_DELTA);
+            }
+        };
+        for (int i = 0; i < warmup; i++) {
+            release.run(i);
+        }
+        long releaseBytes = measureFrames(release);
+        game.dispose();
+
+        boolean passed = report("idle", idleBytes) & report("drag", dragBytes) & report("glide", releaseBytes);
+        if (!dragged) {
+            System.out.println("FAIL: the drag never picked up a card; check DRAG_START_X/Y against the layout");
+            passed = false;
+        }
+        return passed;
+    }
+
+    /** What happens on one frame of a case: input events, then a render. */
+    private interface Frame {
+        void run(int frame);
+    }
+
+    // Fewest bytes allocated over the measured frames in any round
+    private long measureFrames(Frame frame) {
+        long fewest = Long.MAX_VALUE;
+        for (int round = 0; round < rounds; round++) {
+            fewest = Math.min(fewest, measureRound(frame));
+        }
+        return fewest;
+    }
+
+    private long measureRound(Frame frame) {
+        long threadId = Thread.currentThread().getId();
+        // Reading the counter may allocate a little itself; measure that and take it off
+        long probeStart = threads.getThreadAllocatedBytes(threadId);
+        long probeCost = threads.getThreadAllocatedBytes(threadId) - probeStart;
+
+        long start = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < frames; i++) {
+            frame.run(i);
+        }
+        return Math.max(0, threads.getThreadAllocatedBytes(threadId) - start - probeCost);
+    }
+
+    private boolean report(String name, long bytes) {
+        double perFrame = (double) bytes / frames;
+        boolean ok = perFrame <= maxBytes;
+        System.out.printf(Locale.ROOT, "%s %-5s %,d bytes over %d frames (%.1f bytes/frame, limit %d)%n",
+            ok ? "PASS" : "FAIL", name, bytes, frames, perFrame, maxBytes);
+        return ok;
+    }
+}
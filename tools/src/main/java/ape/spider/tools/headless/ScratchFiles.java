@@ -0,0 +1,78 @@
+package ape.spider.tools.headless;
+
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+
+import java.io.File;
+
+/**
+ * The application's files, with local storage moved to a directory of its own, so a tool
+ * running the game neither resumes the player's saved game nor leaves one of its own behind.
+ */
+public class ScratchFiles implements Files {
+    private final Files files;
+    private final File localDirectory;
+
+    public ScratchFiles(Files files, File localDirectory) {
+        this.files = files;
+        this.localDirectory = localDirectory;
+    }
+
+    /** Replace Gdx.files with local storage in localDirectory. Call on the application thread. */
+    public static ScratchFiles install(File localDirectory) {
+        ScratchFiles scratch = new ScratchFiles(Gdx.files, localDirectory);
+        Gdx.files = scratch;
+        return scratch;
+    }
+
+    @Override
+    public FileHandle getFileHandle(String path, FileType type) {
+        return type == FileType.Local ? local(path) : files.getFileHandle(path, type);
+    }
+
+    @Override
+    public FileHandle classpath(String path) {
+        return files.classpath(path);
+    }
+
+    @Override
+    public FileHandle internal(String path) {
+        return files.internal(path);
+    }
+
+    @Override
+    public FileHandle external(String path) {
+        return files.external(path);
+    }
+
+    @Override
+    public FileHandle absolute(String path) {
+        return files.absolute(path);
+    }
+
+    @Override
+    public FileHandle local(String path) {
+        return files.absolute(new File(localDirectory, path).getPath());
+    }
+
+    @Override
+    public String getExternalStoragePath() {
+        return files.getExternalStoragePath();
+    }
+
+    @Override
+    public boolean isExternalStorageAvailable() {
+        return files.isExternalStorageAvailable();
+    }
+
+    @Override
+    public String getLocalStoragePath() {
+        return localDirectory.getPath() + File.separator;
+    }
+
+    @Override
+    public boolean isLocalStorageAvailable() {
+        return true;
+    }
+}
@@ -0,0 +1,74 @@
+package ape.spider.tools.headless;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.mock.graphics.MockGraphics;
+import com.badlogic.gdx.graphics.GL20;
+
+/**
+ * The headless graphics, but with a window size so the screens lay out as on a desktop,
+ * holding on to its GL so a GLProfiler can swap it, and counting rendering requests.
+ */
+public class WindowGraphics extends MockGraphics {
+    private final int width;
+    private final int height;
+    private GL20 gl20;
+    private int renderingRequests;
+
+    public WindowGraphics(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Replace the headless application's graphics with a window of the given size drawing
+     * through a {@link NoOpGL20}, so screens can be created and rendered. Call on the
+     * application thread, e.g. from create().
+     */
+    public static WindowGraphics install(int width, int height) {
+        WindowGraphics graphics = new WindowGraphics(width, height);
+        NoOpGL20 gl = new NoOpGL20();
+        graphics.setGL20(gl);
+        Gdx.graphics = graphics;
+        Gdx.gl = Gdx.gl20 = gl;
+        return graphics;
+    }
+
+    public int getRenderingRequests() {
+        return renderingRequests;
+    }
+
+    @Override
+    public GL20 getGL20() {
+        return gl20;
+    }
+
+    @Override
+    public void setGL20(GL20 gl20) {
+        this.gl20 = gl20;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getBackBufferWidth() {
+        return width;
+    }
+
+    @Override
+    public int getBackBufferHeight() {
+        return height;
+    }
+
+    @Override
+    public void requestRendering() {
+        renderingRequests++;
+    }
+}
@@ -0,0 +1,44 @@
+package ape.spider.tools.sim;
+
+import ape.spider.engine.Cards;
+import ape.spider.engine.Moves;
+import ape.spider.engine.SpiderEngine;
+
+import java.util.Random;
+
+/**
+ * Plays like a player who only ever double-taps: for each column it takes the top movable run
+ * and the target {@link SpiderEngine#findAutoMoveTarget} would pick (same suit, then any suit,
+ * then an empty column), tries the columns in that priority order, and deals when nothing moves.
+ */
+public class AutoMovePolicy implements BotPolicy {
+    @Override
+    public int rankMoves(SpiderEngine engine, Random random, int[] out) {
+        int count = 0;
+        for (int priority = 1; priority <= 3; priority++) {
+            for (int col = 0; col < SpiderEngine.NUM_COLUMNS; col++) {
+                int length = engine.getColumnLength(col);
+                if (length == 0) continue;
+
+                int runStart = engine.getMovableRunStart(col);
+                int target = engine.findAutoMoveTarget(col, runStart);
+                if (target < 0 || priorityOf(engine, col, runStart, target) != priority) continue;
+                // A whole column moved into an empty one changes nothing
+                if (priority == 3 && runStart == 0) continue;
+
+                out[count++] = Moves.encode(col, runStart, target);
+            }
+        }
+        if (engine.canDeal()) {
+            out[count++] = Moves.DEAL;
+        }
+        return count;
+    }
+
+    // Same ranking as findAutoMoveTarget: 1 same suit, 2 other suit, 3 empty column
+    private static int priorityOf(SpiderEngine engine, int col, int cardIndex, int target) {
+        if (engine.getColumnLength(target) == 0) return 3;
+        byte card = engine.getCard(col, cardIndex);
+        return Cards.suit(engine.getTopCard(target)) == Cards.suit(card) ? 1 : 2;
+    }
+}
@@ -0,0 +1,19 @@
+package ape.spider.tools.sim;
+
+import ape.spider.engine.Moves;
+import ape.spider.engine.SpiderEngine;
+
+import java.util.Random;
+
+/**
+ * Decides what a simulated player does next.
+ * A policy ranks candidate moves instead of picking one, so the simulator can skip a move
+ * that only leads back to an earlier position and fall through to the next candidate.
+ */
+public interface BotPolicy {
+    /**
+     * Write candidate {@link Moves} for the engine's position into out, best first, and return
+     * how many there are. Returning 0 ends the game. out has room for {@link Moves#MAX_LEGAL_MOVES}.
+     */
+    int rankMoves(SpiderEngine engine, Random random, int[] out);
+}
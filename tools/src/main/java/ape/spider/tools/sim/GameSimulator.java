@@ -0,0 +1,84 @@
+package ape.spider.tools.sim;
+
+import ape.spider.engine.Moves;
+import ape.spider.engine.SpiderEngine;
+
+import java.util.Random;
+
+/**
+ * Plays whole games with a {@link BotPolicy} and no rendering. One instance per thread:
+ * the engine, move buffer and random generator are reused from game to game.
+ * <p>
+ * A candidate move that returns to a position already seen this game is taken back and the
+ * next candidate is tried, so a policy can never loop. The game ends when it is won, when no
+ * candidate leads anywhere new, or after the move cap.
+ */
+public class GameSimulator {
+    private final BotPolicy policy;
+    private final int maxMoves;
+    private final int dealVersion;
+    private final SpiderEngine engine = new SpiderEngine();
+    private final Random random = new Random();
+    private final int[] candidates = new int[Moves.MAX_LEGAL_MOVES];
+
+    private int moves;
+    private int score;
+
+    public GameSimulator(BotPolicy policy, int maxMoves, int dealVersion) {
+        this.policy = policy;
+        this.maxMoves = maxMoves;
+        this.dealVersion = dealVersion;
+    }
+
+    /** Play one deal to the end. Returns true if it was won. */
+    public boolean play(int numSuits, long seed) {
+        engine.initializeGame(numSuits, seed, dealVersion);
+        random.setSeed(seed);
+        moves = 0;
+        int rejected = 0;
+
+        while (!engine.isWon() && moves < maxMoves) {
+            int count = policy.rankMoves(engine, random, candidates);
+            boolean moved = false;
+            for (int i = 0; i < count && !moved; i++) {
+                Moves.apply(engine, candidates[i]);
+                if (engine.isRepeatedPosition()) {
+                    engine.undo();
+                    rejected++;
+                } else {
+                    moved = true;
+                }
+            }
+            if (!moved) break;
+            moves++;
+        }
+
+        // Each take-back costs the engine one move's worth of score; the simulated player never made it
+        score = engine.getScore() - rejected * SpiderEngine.POINTS_PER_MOVE;
+        return engine.isWon();
+    }
+
+    /** Play count consecutive seeds starting at firstSeed. */
+    SimulationRunner.Batch playBatch(int numSuits, long firstSeed, int count) {
+        SimulationRunner.Batch batch = new SimulationRunner.Batch(count);
+        for (int i = 0; i < count; i++) {
+            if (play(numSuits, firstSeed + i)) batch.wins++;
+            batch.moves += moves;
+            batch.scores[i] = score;
+        }
+        return batch;
+    }
+
+    /** Moves and deals played in the last game, not counting rejected candidates. */
+    public int getMoves() {
+        return moves;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getCompletedSuits() {
+        return engine.getCompletedSuits();
+    }
+}
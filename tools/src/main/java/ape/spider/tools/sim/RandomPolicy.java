@@ -0,0 +1,24 @@
+package ape.spider.tools.sim;
+
+import ape.spider.engine.Moves;
+import ape.spider.engine.SpiderEngine;
+
+import java.util.Random;
+
+/**
+ * Picks uniformly among legal moves. A baseline that any real policy should beat.
+ */
+public class RandomPolicy implements BotPolicy {
+    @Override
+    public int rankMoves(SpiderEngine engine, Random random, int[] out) {
+        int count = Moves.generateLegal(engine, out);
+        // Fisher-Yates, so every candidate gets tried before the game is given up
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = out[i];
+            out[i] = out[j];
+            out[j] = tmp;
+        }
+        return count;
+    }
+}
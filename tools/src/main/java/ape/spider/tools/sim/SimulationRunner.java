@@ -0,0 +1,171 @@
+package ape.spider.tools.sim;
+
+import ape.spider.engine.Cards;
+import ape.spider.engine.DealGenerator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Plays many games headless with a bot policy and reports throughput and outcomes:
+ * games/sec, moves/sec, win rate, and the score distribution for each suit count.
+ * Seeds are consecutive from --seed, so two runs with the same options play the same deals.
+ * <p>
+ * Usage: SimulationRunner [--games n] [--suits 1,2,4] [--policy auto-move|random]
+ * [--threads n] [--max-moves n] [--seed n] [--deal-version n]
+ */
+public class SimulationRunner {
+    // Games handed to a worker at a time, so the pool stays busy without one task per game
+    private static final int BATCH_SIZE = 256;
+    private static final int HISTOGRAM_BUCKETS = 10;
+
+    private int games = 10_000;
+    private int[] suitCounts = {1, 2, 4};
+    private String policyName = "auto-move";
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int maxMoves = 2_000;
+    private long seed = 1;
+    private int dealVersion = DealGenerator.LATEST;
+
+    public static void main(String[] args) throws Exception {
+        SimulationRunner runner = new SimulationRunner();
+        runner.parseArgs(args);
+        runner.run();
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--games": games = Integer.parseInt(value); i++; break;
+                case "--suits": suitCounts = parseSuits(value); i++; break;
+                case "--policy": policyName = value; i++; break;
+                case "--threads": threads = Integer.parseInt(value); i++; break;
+                case "--max-moves": maxMoves = Integer.parseInt(value); i++; break;
+                case "--seed": seed = Long.parseLong(value); i++; break;
+                case "--deal-version": dealVersion = Integer.parseInt(value); i++; break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (games < 1) {
+            throw new IllegalArgumentException("--games must be at least 1");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("--threads must be at least 1");
+        }
+        if (!DealGenerator.isSupported(dealVersion)) {
+            throw new IllegalArgumentException("Unknown deal version: " + dealVersion);
+        }
+        createPolicy(policyName); // Fail before any work starts
+    }
+
+    private static int[] parseSuits(String value) {
+        String[] parts = value.split(",");
+        int[] suits = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            suits[i] = Integer.parseInt(parts[i].trim());
+            if (suits[i] < 1 || suits[i] > Cards.NUM_SUITS) {
+                throw new IllegalArgumentException("Suit counts must be between 1 and " + Cards.NUM_SUITS);
+            }
+        }
+        return suits;
+    }
+
+    private static BotPolicy createPolicy(String name) {
+        switch (name) {
+            case "auto-move": return new AutoMovePolicy();
+            case "random": return new RandomPolicy();
+            default: throw new IllegalArgumentException("Unknown policy: " + name);
+        }
+    }
+
+    private void run() throws Exception {
+        System.out.printf(Locale.ROOT,
+            "Simulating %d games per suit count with the %s policy, %d threads, %d moves max, seeds from %d (deal v%d)%n",
+            games, policyName, threads, maxMoves, seed, dealVersion);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        final ThreadLocal<GameSimulator> simulators = new ThreadLocal<GameSimulator>() {
+            @Override
+            protected GameSimulator initialValue() {
+                return new GameSimulator(createPolicy(policyName), maxMoves, dealVersion);
+            }
+        };
+
+        try {
+            for (int numSuits : suitCounts) {
+                long startNanos = System.nanoTime();
+                List<Future<Batch>> futures = new ArrayList<>();
+                for (int first = 0; first < games; first += BATCH_SIZE) {
+                    final int batchFirst = first;
+                    final int batchSize = Math.min(BATCH_SIZE, games - first);
+                    final int suits = numSuits;
+                    futures.add(pool.submit(() -> simulators.get().playBatch(suits, seed + batchFirst, batchSize)));
+                }
+
+                int[] scores = new int[games];
+                long wins = 0;
+                long moves = 0;
+                for (int i = 0; i < futures.size(); i++) {
+                    Batch batch = futures.get(i).get();
+                    System.arraycopy(batch.scores, 0, scores, i * BATCH_SIZE, batch.scores.length);
+                    wins += batch.wins;
+                    moves += batch.moves;
+                }
+                report(numSuits, scores, wins, moves, (System.nanoTime() - startNanos) / 1e9);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void report(int numSuits, int[] scores, long wins, long moves, double seconds) {
+        Arrays.sort(scores);
+        System.out.printf(Locale.ROOT, "%d suit(s): %d games in %.2f s, %.0f games/s, %.0f moves/s, %.1f moves/game%n",
+            numSuits, games, seconds, games / seconds, moves / seconds, moves / (double) games);
+        System.out.printf(Locale.ROOT, "  win rate %.2f%% (%d/%d)%n", wins * 100.0 / games, wins, games);
+        System.out.printf(Locale.ROOT, "  score min %d, p10 %d, p50 %d, p90 %d, max %d, mean %.1f%n",
+            scores[0], percentile(scores, 10), percentile(scores, 50), percentile(scores, 90),
+            scores[scores.length - 1], mean(scores));
+
+        int low = scores[0];
+        int width = Math.max(1, (scores[scores.length - 1] - low) / HISTOGRAM_BUCKETS + 1);
+        int[] buckets = new int[HISTOGRAM_BUCKETS];
+        for (int score : scores) {
+            buckets[(score - low) / width]++;
+        }
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            if (buckets[i] == 0) continue;
+            System.out.printf(Locale.ROOT, "  %6d..%-6d %6.2f%%%n", low + i * width, low + (i + 1) * width - 1,
+                buckets[i] * 100.0 / scores.length);
+        }
+    }
+
+    // Nearest-rank percentile of sorted values
+    private static int percentile(int[] sorted, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double mean(int[] values) {
+        long sum = 0;
+        for (int value : values) sum += value;
+        return sum / (double) values.length;
+    }
+
+    /** Outcomes of a run of consecutive seeds played by one worker. */
+    static class Batch {
+        final int[] scores;
+        long wins;
+        long moves;
+
+        Batch(int size) {
+            scores = new int[size];
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package ape.spider.tools.sim;
+
+import ape.spider.engine.DealGenerator;
+import ape.spider.engine.Moves;
+import ape.spider.engine.SpiderEngine;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Checks that collapsing a move and its reversal out of the undo log costs the player
+ * nothing they would have paid without it. Each deal is played twice in lockstep, with
+ * {@link SpiderEngine#setCollapseRepetitions collapsing} on and off, by a random player that
+ * takes a move straight back half the time. After the first collapse both engines undo once,
+ * and their score and move counts must still agree, as they must after every move before it.
+ * Exits with status 1 on the first deal where they don't.
+ * <p>
+ * Usage: UndoCollapseCheck [--games n] [--seed n] [--max-moves n]
+ */
+public class UndoCollapseCheck {
+    private static final int[] SUIT_COUNTS = {1, 2, 4};
+
+    private int games = 2_000;
+    private long seed = 1;
+    private int maxMoves = 500;
+
+    private final SpiderEngine collapsed = new SpiderEngine();
+    private final SpiderEngine plain = new SpiderEngine();
+    private final int[] moves = new int[Moves.MAX_LEGAL_MOVES];
+
+    public static void main(String[] args) {
+        UndoCollapseCheck check = new UndoCollapseCheck();
+        check.parseArgs(args);
+        System.exit(check.run() ? 0 : 1);
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--games": games = Integer.parseInt(value); i++; break;
+                case "--seed": seed = Long.parseLong(value); i++; break;
+                case "--max-moves": maxMoves = Integer.parseInt(value); i++; break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (games < 1) {
+            throw new IllegalArgumentException("--games must be at least 1");
+        }
+    }
+
+    private boolean run() {
+        int undone = 0;
+        for (int game = 0; game < games; game++) {
+            int numSuits = SUIT_COUNTS[game % SUIT_COUNTS.length];
+            long dealSeed = seed + game;
+            String failure = play(numSuits, dealSeed, new Random(dealSeed));
+            if (failure == null) {
+                undone++;
+            } else if (!failure.isEmpty()) {
+                System.out.printf(Locale.ROOT, "FAIL %d suit(s), seed %d: %s%n", numSuits, dealSeed, failure);
+                return false;
+            }
+        }
+        System.out.printf(Locale.ROOT, "PASS %d games, %d undone after a collapse with matching score and moves%n",
+            games, undone);
+        return true;
+    }
+
+    // Null if a collapse was undone and the counters agreed, "" if the game never collapsed, else what differed
+    private String play(int numSuits, long dealSeed, Random random) {
+        collapsed.setCollapseRepetitions(true);
+        collapsed.initializeGame(numSuits, dealSeed, DealGenerator.LATEST);
+        plain.setCollapseRepetitions(false);
+        plain.initializeGame(numSuits, dealSeed, DealGenerator.LATEST);
+
+        int reverse = -1;
+        for (int i = 0; i < maxMoves; i++) {
+            int move;
+            if (reverse >= 0 && random.nextBoolean() && Moves.isLegal(collapsed, reverse)) {
+                move = reverse;
+            } else {
+                int count = Moves.generateLegal(collapsed, moves);
+                if (count == 0) return "";
+                move = moves[random.nextInt(count)];
+            }
+            reverse = Moves.isDeal(move) ? -1 : Moves.encode(Moves.target(move),
+                collapsed.getColumnLength(Moves.target(move)), Moves.source(move));
+
+            int depth = collapsed.getUndoDepth();
+            Moves.apply(collapsed, move);
+            Moves.apply(plain, move);
+            String mismatch = compare("after " + Moves.toString(move));
+            if (mismatch != null) return mismatch;
+
+            if (collapsed.getUndoDepth() < depth) {
+                if (!collapsed.canUndo()) return "";
+                collapsed.undo();
+                plain.undo();
+                return compare("undoing after the collapse of " + Moves.toString(move));
+            }
+        }
+        return "";
+    }
+
+    private String compare(String when) {
+        if (collapsed.getScore() == plain.getScore() && collapsed.getTotalMoves() == plain.getTotalMoves()
+                && collapsed.getTotalUndos() == plain.getTotalUndos()) {
+            return null;
+        }
+        return String.format(Locale.ROOT, "%s, score %d and %d moves with collapsing, %d and %d without", when,
+            collapsed.getScore(), collapsed.getTotalMoves(), plain.getScore(), plain.getTotalMoves());
+    }
+}
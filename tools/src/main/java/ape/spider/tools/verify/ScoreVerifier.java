@@ -0,0 +1,194 @@
+package ape.spider.tools.verify;
+
+import ape.spider.GameConfig;
+import ape.spider.GameResult;
+import ape.spider.engine.DealGenerator;
+import ape.spider.engine.Moves;
+import ape.spider.engine.Replay;
+import ape.spider.engine.SpiderEngine;
+
+/**
+ * Checks a claimed {@link GameResult} by playing its actions on the engine's deal for the
+ * claimed seed: every action must be legal where it was played, and the outcome, score,
+ * moves, undos and completed suits the engine ends up with must be the ones claimed.
+ * <p>
+ * The engine is the rulebook, so a verified score is exactly what GameScreen would have
+ * shown. On top of that the final counters must satisfy the scoring rules on their own:
+ * {@link SpiderEngine#STARTING_SCORE} plus {@link SpiderEngine#POINTS_PER_MOVE} per move and
+ * {@link SpiderEngine#POINTS_PER_COMPLETED_SUIT} per completed suit, with an undo counted as
+ * a move that takes back the one before it, and the undos counted independently of the
+ * engine. The time played isn't checked; nothing in a move list says how long it took.
+ * <p>
+ * A Daily Grind claim must also be dealt the way {@link GameConfig#dailyGrind} deals, and
+ * can be held to the day's seed and suit count with {@link #expectDeal}.
+ * <p>
+ * One instance per thread: the engine and move buffer are reused from claim to claim.
+ */
+public class ScoreVerifier {
+    public enum Status {
+        VALID,
+        /** The claim isn't the mode, seed, suit count or deal version it has to be. */
+        WRONG_DEAL,
+        /** An action isn't possible in its position, or the replay doesn't decode. */
+        ILLEGAL_ACTION,
+        WRONG_OUTCOME,
+        WRONG_SCORE,
+        WRONG_MOVES,
+        WRONG_UNDOS,
+        WRONG_SUITS
+    }
+
+    private final SpiderEngine engine = new SpiderEngine();
+    private final int[] legal = new int[Moves.MAX_LEGAL_MOVES];
+
+    private GameConfig.GameMode expectedMode;
+    private long expectedSeed;
+    private int expectedSuits;  // 0 when any deal will do
+
+    private int actionsPlayed;
+    private int undosPlayed;
+    private String detail;
+
+    /** Accept only claims on this mode, seed and suit count; null accepts any deal. */
+    public void expectDeal(GameConfig config) {
+        if (config == null) {
+            expectedMode = null;
+            expectedSuits = 0;
+        } else {
+            expectedMode = config.getMode();
+            expectedSeed = config.getSeed();
+            expectedSuits = config.getNumSuits();
+        }
+    }
+
+    /** Verify a claim against the replay it carries. */
+    public Status verify(GameResult claimed) {
+        Replay replay = claimed.getReplay();
+        if (replay == null) {
+            return fail(Status.ILLEGAL_ACTION, "no replay");
+        }
+        GameConfig config = claimed.getConfig();
+        Status status = checkDeal(config);
+        if (status != Status.VALID) return status;
+        if (replay.getSeed() != config.getSeed() || replay.getNumSuits() != config.getNumSuits()
+                || replay.getDealVersion() != config.getDealVersion()) {
+            return fail(Status.WRONG_DEAL, "replay is of another deal");
+        }
+
+        actionsPlayed = 0;
+        undosPlayed = 0;
+        Replay.Player player = new Replay.Player(replay, engine);
+        try {
+            while (player.hasNext()) {
+                if (player.step() == Replay.UNDO) {
+                    undosPlayed++;
+                }
+                actionsPlayed++;
+            }
+        } catch (IllegalStateException e) {
+            return fail(Status.ILLEGAL_ACTION, e.getMessage());
+        }
+        return checkResult(claimed);
+    }
+
+    /**
+     * Verify a claim against an explicit list of actions, each a move or deal in
+     * {@link Moves} encoding or {@link Replay#UNDO}, played with repetitions collapsed as
+     * GameScreen plays. The claim's replay, if any, is ignored.
+     */
+    public Status verify(GameResult claimed, int[] actions, int count) {
+        GameConfig config = claimed.getConfig();
+        Status status = checkDeal(config);
+        if (status != Status.VALID) return status;
+
+        engine.setCollapseRepetitions(true);
+        engine.initializeGame(config);
+        actionsPlayed = 0;
+        undosPlayed = 0;
+        for (int i = 0; i < count; i++) {
+            int action = actions[i];
+            if (action == Replay.UNDO) {
+                if (!engine.undo()) {
+                    return fail(Status.ILLEGAL_ACTION, "action " + i + ": nothing to undo");
+                }
+                undosPlayed++;
+            } else {
+                if (!isLegal(action)) {
+                    return fail(Status.ILLEGAL_ACTION, "action " + i + ": " + Moves.toString(action) + " is not legal");
+                }
+                Moves.apply(engine, action);
+            }
+            actionsPlayed++;
+        }
+        return checkResult(claimed);
+    }
+
+    /** Actions played by the last verification, up to the one that failed. */
+    public int getActionsPlayed() {
+        return actionsPlayed;
+    }
+
+    /** What went wrong in the last verification, or null if it passed. */
+    public String getDetail() {
+        return detail;
+    }
+
+    // Legal moves are exactly the ones the move generator lists; a deal also needs the stock
+    private boolean isLegal(int action) {
+        if (Moves.isDeal(action)) {
+            return engine.canDeal();
+        }
+        int count = Moves.generateLegal(engine, legal);
+        for (int i = 0; i < count; i++) {
+            if (legal[i] == action) return true;
+        }
+        return false;
+    }
+
+    private Status checkDeal(GameConfig config) {
+        detail = null;
+        if (config.getMode() == GameConfig.GameMode.DAILY_GRIND && config.getDealVersion() != DealGenerator.V1) {
+            return fail(Status.WRONG_DEAL, "Daily Grind dealt with version " + config.getDealVersion());
+        }
+        if (expectedSuits != 0 && (config.getMode() != expectedMode || config.getSeed() != expectedSeed
+                || config.getNumSuits() != expectedSuits)) {
+            return fail(Status.WRONG_DEAL, config.getMode() + " " + config.getNumSuits() + " suit(s), seed "
+                + config.getSeed());
+        }
+        return Status.VALID;
+    }
+
+    private Status checkResult(GameResult claimed) {
+        int moves = engine.getTotalMoves();
+        int suits = engine.getCompletedSuits();
+        int score = SpiderEngine.STARTING_SCORE + moves * SpiderEngine.POINTS_PER_MOVE
+            + suits * SpiderEngine.POINTS_PER_COMPLETED_SUIT;
+        if (score != engine.getScore() || undosPlayed != engine.getTotalUndos()) {
+            throw new IllegalStateException("Engine counters break the scoring rules: score " + engine.getScore()
+                + ", expected " + score + ", undos " + engine.getTotalUndos() + ", played " + undosPlayed);
+        }
+
+        GameResult.Outcome outcome = engine.isWon() ? GameResult.Outcome.WON : GameResult.Outcome.ABORTED;
+        if (claimed.getOutcome() != outcome) {
+            return fail(Status.WRONG_OUTCOME, "claimed " + claimed.getOutcome() + ", played out " + outcome);
+        }
+        if (claimed.getScore() != score) {
+            return fail(Status.WRONG_SCORE, "claimed " + claimed.getScore() + ", played out " + score);
+        }
+        if (claimed.getMoves() != moves) {
+            return fail(Status.WRONG_MOVES, "claimed " + claimed.getMoves() + ", played out " + moves);
+        }
+        if (claimed.getUndos() != undosPlayed) {
+            return fail(Status.WRONG_UNDOS, "claimed " + claimed.getUndos() + ", played out " + undosPlayed);
+        }
+        if (claimed.getCompletedSuits() != suits) {
+            return fail(Status.WRONG_SUITS, "claimed " + claimed.getCompletedSuits() + ", played out " + suits);
+        }
+        return Status.VALID;
+    }
+
+    private Status fail(Status status, String detail) {
+        this.detail = detail;
+        return status;
+    }
+}
@@ -0,0 +1,196 @@
+package ape.spider.tools.verify;
+
+import ape.spider.GameConfig;
+import ape.spider.GameResult;
+import ape.spider.ReplayFile;
+import ape.spider.engine.Cards;
+import ape.spider.engine.Moves;
+import ape.spider.engine.Replay;
+import ape.spider.engine.SpiderEngine;
+import ape.spider.tools.sim.AutoMovePolicy;
+import ape.spider.tools.sim.BotPolicy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Verifies score submissions, as a leaderboard would before accepting them: replay files
+ * ({@link ReplayFile}, as the game saves them) given as files or directories, and with
+ * --synthetic, that many bot-played Daily Grind games built in memory, for measuring
+ * throughput without a pile of files. Every claim is checked with a {@link ScoreVerifier}
+ * on one thread; the summary reports claims and actions verified per second.
+ * <p>
+ * --seed and --suits hold every claim to one deal, the day's, in --mode (daily by default).
+ * --repeat verifies the whole set that many times, for a steadier rate. Exits with status 1
+ * if any claim is rejected.
+ * <p>
+ * Usage: VerifySubmissions [--seed n --suits n] [--mode daily|solo] [--synthetic n]
+ * [--repeat n] [--quiet] [file or directory...]
+ */
+public class VerifySubmissions {
+    private static final int SYNTHETIC_MAX_ACTIONS = 1_000;
+    private static final int SYNTHETIC_UNDO_ODDS = 10;  // One action in this many is an undo
+    private static final int[] SYNTHETIC_SUITS = {1, 2, 4};
+
+    private final List<File> paths = new ArrayList<>();
+    private GameConfig.GameMode mode = GameConfig.GameMode.DAILY_GRIND;
+    private long seed = -1;
+    private int suits;
+    private int synthetic;
+    private int repeat = 1;
+    private boolean quiet;
+
+    public static void main(String[] args) throws IOException {
+        VerifySubmissions verify = new VerifySubmissions();
+        verify.parseArgs(args);
+        System.exit(verify.run() ? 0 : 1);
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--seed": seed = Long.parseLong(value); i++; break;
+                case "--suits": suits = Integer.parseInt(value); i++; break;
+                case "--mode": mode = parseMode(value); i++; break;
+                case "--synthetic": synthetic = Integer.parseInt(value); i++; break;
+                case "--repeat": repeat = Integer.parseInt(value); i++; break;
+                case "--quiet": quiet = true; break;
+                default:
+                    if (args[i].startsWith("--")) throw new IllegalArgumentException("Unknown option: " + args[i]);
+                    paths.add(new File(args[i]));
+            }
+        }
+        if ((seed >= 0) != (suits != 0)) {
+            throw new IllegalArgumentException("--seed and --suits go together");
+        }
+        if (suits != 0 && (suits < 1 || suits > Cards.NUM_SUITS)) {
+            throw new IllegalArgumentException("--suits must be between 1 and " + Cards.NUM_SUITS);
+        }
+        if (repeat < 1) {
+            throw new IllegalArgumentException("--repeat must be at least 1");
+        }
+        if (paths.isEmpty() && synthetic < 1) {
+            throw new IllegalArgumentException("Nothing to verify: give replay files or --synthetic n");
+        }
+    }
+
+    private static GameConfig.GameMode parseMode(String value) {
+        switch (value) {
+            case "daily": return GameConfig.GameMode.DAILY_GRIND;
+            case "solo": return GameConfig.GameMode.SOLO_PRACTICE;
+            default: throw new IllegalArgumentException("Unknown mode: " + value);
+        }
+    }
+
+    private boolean run() throws IOException {
+        List<String> names = new ArrayList<>();
+        List<GameResult> claims = new ArrayList<>();
+        int unreadable = 0;
+        for (File path : paths) {
+            unreadable += readClaims(path, names, claims);
+        }
+        for (int i = 0; i < synthetic; i++) {
+            names.add("synthetic-" + i);
+            claims.add(playSynthetic(i));
+        }
+
+        ScoreVerifier verifier = new ScoreVerifier();
+        if (suits != 0) {
+            verifier.expectDeal(new GameConfig(mode, suits, seed));
+        }
+        ScoreVerifier.Status[] statuses = new ScoreVerifier.Status[claims.size()];
+        String[] details = new String[claims.size()];
+        long actions = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < repeat; round++) {
+            for (int i = 0; i < claims.size(); i++) {
+                statuses[i] = verifier.verify(claims.get(i));
+                details[i] = verifier.getDetail();
+                actions += verifier.getActionsPlayed();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int rejected = unreadable;
+        for (int i = 0; i < claims.size(); i++) {
+            if (statuses[i] != ScoreVerifier.Status.VALID) {
+                rejected++;
+            } else if (quiet) {
+                continue;
+            }
+            GameResult claim = claims.get(i);
+            System.out.printf(Locale.ROOT, "%-14s %s %d suit(s) seed %d, score %d%s%n", statuses[i], names.get(i),
+                claim.getConfig().getNumSuits(), claim.getConfig().getSeed(), claim.getScore(),
+                details[i] != null ? ": " + details[i] : "");
+        }
+        long verified = (long) claims.size() * repeat;
+        System.out.printf(Locale.ROOT, "%d claim(s): %d valid, %d rejected, %d unreadable%n",
+            claims.size() + unreadable, claims.size() + unreadable - rejected, rejected - unreadable, unreadable);
+        System.out.printf(Locale.ROOT, "Verified %d claims (%d actions) in %.3f s on one thread: %.0f claims/s, %.0f actions/s%n",
+            verified, actions, seconds, verified / seconds, actions / seconds);
+        return rejected == 0;
+    }
+
+    // Read the replay files at path, recursing into directories; returns how many couldn't be read
+    private static int readClaims(File path, List<String> names, List<GameResult> claims) throws IOException {
+        if (path.isDirectory()) {
+            File[] children = path.listFiles();
+            if (children == null) throw new IOException("Can't list " + path);
+            Arrays.sort(children);
+            int unreadable = 0;
+            for (File child : children) {
+                if (child.isDirectory() || child.getName().endsWith(ReplayFile.EXTENSION)) {
+                    unreadable += readClaims(child, names, claims);
+                }
+            }
+            return unreadable;
+        }
+        try {
+            claims.add(ReplayFile.read(ByteBuffer.wrap(Files.readAllBytes(path.toPath()))));
+            names.add(path.getPath());
+            return 0;
+        } catch (RuntimeException e) {
+            System.out.println("UNREADABLE     " + path + ": " + e.getMessage());
+            return 1;
+        }
+    }
+
+    // An honest claim: a bot game on the requested deal, or consecutive seeds, with an undo now and then
+    private GameResult playSynthetic(int index) {
+        int numSuits = suits != 0 ? suits : SYNTHETIC_SUITS[index % SYNTHETIC_SUITS.length];
+        GameConfig config = new GameConfig(mode, numSuits, seed >= 0 ? seed : index + 1);
+        Random random = new Random(index);
+        BotPolicy policy = new AutoMovePolicy();
+        int[] candidates = new int[Moves.MAX_LEGAL_MOVES];
+
+        SpiderEngine engine = new SpiderEngine();
+        engine.setCollapseRepetitions(true);
+        engine.initializeGame(config);
+        Replay.Recorder recorder = new Replay.Recorder();
+        recorder.start(engine, config.getSeed());
+        while (!engine.isWon() && recorder.getActionCount() < SYNTHETIC_MAX_ACTIONS) {
+            int count = policy.rankMoves(engine, random, candidates);
+            if (engine.canUndo() && (count == 0 || random.nextInt(SYNTHETIC_UNDO_ODDS) == 0)) {
+                recorder.recordUndo(engine);
+                engine.undo();
+            } else if (count > 0) {
+                int move = candidates[random.nextInt(Math.min(count, 2))];
+                recorder.recordMove(engine, move);
+                Moves.apply(engine, move);
+            } else {
+                break;
+            }
+        }
+        return new GameResult(config, engine.isWon() ? GameResult.Outcome.WON : GameResult.Outcome.ABORTED,
+            engine.getScore(), engine.getTotalMoves(), engine.getTotalUndos(), random.nextInt(3600),
+            engine.getCompletedSuits(), recorder.toReplay());
+    }
+}